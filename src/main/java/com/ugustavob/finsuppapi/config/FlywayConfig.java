@@ -0,0 +1,54 @@
+package com.ugustavob.finsuppapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+/**
+ * The migrations up to V10 predate the entities and cannot run on an empty database, so every database starts from
+ * the baseline version ({@code spring.flyway.baseline-version}) and V25 creates or repairs the schema from there.
+ * <ul>
+ *     <li>An empty database is baselined before migrating (baseline-on-migrate only applies to non-empty ones).</li>
+ *     <li>A database whose history holds nothing but a baseline marker below that version was baselined while
+ *     {@code spring.flyway.locations} pointed at a missing directory, so no script ever ran on it. The marker is
+ *     replaced by one at the baseline version.</li>
+ * </ul>
+ * Any other history is left as it is and migrated normally.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            MigrationInfo[] applied = flyway.info().applied();
+            var configuration = flyway.getConfiguration();
+            MigrationVersion baselineVersion = configuration.getBaselineVersion();
+
+            if (applied.length == 0) {
+                flyway.baseline();
+            } else if (Arrays.stream(applied).allMatch(migration -> migration.getType() == CoreMigrationType.BASELINE
+                    && migration.getVersion().compareTo(baselineVersion) < 0)) {
+                log.warn("Replacing Flyway baseline {} with {}: no migration was ever applied",
+                        applied[0].getVersion(), baselineVersion);
+                new JdbcTemplate(configuration.getDataSource()).update("DELETE FROM " +
+                        historyTable(configuration.getDefaultSchema(), configuration.getTable()));
+                flyway.baseline();
+            }
+
+            flyway.migrate();
+        };
+    }
+
+    private static String historyTable(String schema, String table) {
+        return schema == null ? table : schema + "." + table;
+    }
+}
@@ -2,14 +2,17 @@ package com.ugustavob.finsuppapi.controllers;
 
 import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
 import com.ugustavob.finsuppapi.dto.SuccessResponseDTO;
+import com.ugustavob.finsuppapi.dto.accounts.AccountBalanceResponseDTO;
 import com.ugustavob.finsuppapi.dto.accounts.AccountFilterDTO;
 import com.ugustavob.finsuppapi.dto.accounts.AccountResponseDTO;
 import com.ugustavob.finsuppapi.dto.accounts.CreateAccountRequestDTO;
+import com.ugustavob.finsuppapi.dto.accounts.LedgerReconciliationDTO;
 import com.ugustavob.finsuppapi.entities.account.AccountEntity;
 import com.ugustavob.finsuppapi.entities.account.AccountType;
 import com.ugustavob.finsuppapi.entities.user.UserEntity;
 import com.ugustavob.finsuppapi.services.AccountService;
 import com.ugustavob.finsuppapi.services.BaseService;
+import com.ugustavob.finsuppapi.services.LedgerService;
 import com.ugustavob.finsuppapi.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +33,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -40,6 +44,7 @@ public class AccountController {
     private final AccountService accountService;
     private final UserService userService;
     private final BaseService baseService;
+    private final LedgerService ledgerService;
 
     @Operation(summary = "Get account by ID")
     @ApiResponses(value = {
@@ -143,6 +148,134 @@ public class AccountController {
         ));
     }
 
+    @Operation(
+            summary = "Get the balance of an account at a date",
+            description = "Balance at the end of the given date, computed from the account ledger: every deposit, " +
+                    "withdrawal, transfer leg, bill payment and balance adjustment posted until then. Defaults to " +
+                    "today."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Balance found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Balance found",
+                                                      "type": "Success",
+                                                      "data": {
+                                                        "accountId": 1,
+                                                        "date": "2025-04-30",
+                                                        "balance": 1250.0
+                                                      }
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Account not found",
+                                            value = """
+                                                    {
+                                                      "code": 404,
+                                                      "message": "Account not found",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            )
+    })
+    @GetMapping("/{id}/balance")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<AccountBalanceResponseDTO>> getAccountBalance(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable Integer id,
+            @RequestParam(required = false) LocalDate date,
+            HttpServletRequest request) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+        AccountEntity accountEntity = accountService.getAccountByIdAndCompareWithUserId(id, userId);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Balance found",
+                ledgerService.balanceAt(accountEntity.getId(), date)
+        ));
+    }
+
+    @Operation(
+            summary = "Reconcile an account with its ledger",
+            description = "Compares the stored balance of the account with the sum of its ledger entries and checks " +
+                    "that no entry is missing. consistent is false when they differ."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Account reconciled",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Account reconciled",
+                                                      "type": "Success",
+                                                      "data": {
+                                                        "accountId": 1,
+                                                        "balance": 1250.0,
+                                                        "ledgerBalance": 1250.0,
+                                                        "seq": 42,
+                                                        "consistent": true
+                                                      }
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account not found"
+            )
+    })
+    @GetMapping("/{id}/reconciliation")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<LedgerReconciliationDTO>> reconcileAccount(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable Integer id,
+            HttpServletRequest request) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+        AccountEntity accountEntity = accountService.getAccountByIdAndCompareWithUserId(id, userId);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Account reconciled",
+                ledgerService.reconcile(accountEntity.getId())
+        ));
+    }
+
     @Operation(summary = "Get all accounts, with advanced filters")
     @ApiResponses(value = {
             @ApiResponse(
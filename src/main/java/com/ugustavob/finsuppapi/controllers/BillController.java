@@ -159,9 +159,7 @@ public class BillController {
 
         List<BillEntity> bills = billService.findAll(filter);
 
-        if (bills.isEmpty()) {
-            throw new BillNotFoundException("No bills found with the provided filters");
-        }
+        baseService.checkIfListIsEmpty(bills, () -> new BillNotFoundException("No bills found with the provided filters"));
 
         List<BillResponseDTO> billsResponse = bills.stream()
                 .map(billService::entityToResponseDto)
@@ -311,9 +309,7 @@ public class BillController {
 
         Page<BillItemResponseDTO> billItems = billService.findBillItemsByBill(bill, userId, page, size);
 
-        if (billItems.isEmpty()) {
-            throw new BillNotFoundException("No items found for this bill");
-        }
+        baseService.checkIfPageIsEmpty(billItems, () -> new BillNotFoundException("No items found for this bill"));
 
         return ResponseEntity.ok(new SuccessResponseDTO<>(
                 "Bill items retrieved successfully",
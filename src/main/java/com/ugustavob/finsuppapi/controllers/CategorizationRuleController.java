@@ -0,0 +1,342 @@
+package com.ugustavob.finsuppapi.controllers;
+
+import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
+import com.ugustavob.finsuppapi.dto.SuccessResponseDTO;
+import com.ugustavob.finsuppapi.dto.categories.CategorizationRuleResponseDTO;
+import com.ugustavob.finsuppapi.dto.categories.CreateCategorizationRuleRequestDTO;
+import com.ugustavob.finsuppapi.entities.categories.CategorizationRuleEntity;
+import com.ugustavob.finsuppapi.services.BaseService;
+import com.ugustavob.finsuppapi.services.CategorizationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+@Tag(name = "9. Categorization rules", description = "Endpoints for automatic categorization rules")
+@RequestMapping("/categorization-rules")
+public class CategorizationRuleController {
+    private final BaseService baseService;
+    private final CategorizationService categorizationService;
+
+    @Operation(
+            summary = "Get categorization rules",
+            description = "Get the rules of the user and the global rules. When a transaction is created without a " +
+                    "category, the matching rule with the highest priority sets it (user rules win over global " +
+                    "rules with the same priority)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Categorization rules found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Categorization rules found",
+                                                      "type": "Success",
+                                                      "dataList": [
+                                                        {
+                                                          "id": 1,
+                                                          "category": 2,
+                                                          "matchType": "CONTAINS",
+                                                          "pattern": "uber",
+                                                          "minAmount": null,
+                                                          "maxAmount": null,
+                                                          "accountId": null,
+                                                          "priority": 0,
+                                                          "global": false
+                                                        }
+                                                      ]
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Unauthorized",
+                                            value = """
+                                                    {
+                                                      "code": 401,
+                                                      "message": "Unauthorized",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            )
+    })
+    @GetMapping("/")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<List<CategorizationRuleResponseDTO>>> getRules(
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Categorization rules found",
+                categorizationService.getRules(userId)
+        ));
+    }
+
+    @Operation(
+            summary = "Create a categorization rule",
+            description = "A rule matches when all of its conditions match: the pattern against the description " +
+                    "(CONTAINS, PREFIX or REGEX, case insensitive), the amount range and the account. Regular " +
+                    "expressions can't use backreferences or nested quantifiers such as (a+)+, and a user can have " +
+                    "at most 20 of them by default."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Categorization rule created",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Categorization rule created",
+                                                      "type": "Success",
+                                                      "data": {
+                                                        "id": 1,
+                                                        "category": 2,
+                                                        "matchType": "CONTAINS",
+                                                        "pattern": "uber",
+                                                        "minAmount": null,
+                                                        "maxAmount": null,
+                                                        "accountId": null,
+                                                        "priority": 0,
+                                                        "global": false
+                                                      }
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid rule",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Invalid rule",
+                                            value = """
+                                                    {
+                                                      "code": 400,
+                                                      "message": "A rule needs at least one condition",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Category or account not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Category not found",
+                                            value = """
+                                                    {
+                                                      "code": 404,
+                                                      "message": "Category not found",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            )
+    })
+    @PostMapping("/")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<CategorizationRuleResponseDTO>> createRule(
+            @Valid @RequestBody CreateCategorizationRuleRequestDTO createCategorizationRuleRequestDTO,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return created(categorizationService.createRule(createCategorizationRuleRequestDTO, userId));
+    }
+
+    @Operation(
+            summary = "Create a global categorization rule",
+            description = "Global rules apply to every user. They can't be restricted to an account."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Categorization rule created"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden"
+            )
+    })
+    @PostMapping("/global")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<CategorizationRuleResponseDTO>> createGlobalRule(
+            @Valid @RequestBody CreateCategorizationRuleRequestDTO createCategorizationRuleRequestDTO,
+            HttpServletRequest request
+    ) {
+        baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return created(categorizationService.createRule(createCategorizationRuleRequestDTO, null));
+    }
+
+    @Operation(summary = "Delete a categorization rule")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Categorization rule deleted",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Categorization rule deleted",
+                                                      "type": "Success"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Categorization rule not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Categorization rule not found",
+                                            value = """
+                                                    {
+                                                      "code": 404,
+                                                      "message": "Categorization rule not found",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            )
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<String>> deleteRule(
+            @PathVariable Integer id,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        categorizationService.deleteRule(id, userId);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Categorization rule deleted"
+        ));
+    }
+
+    @Operation(summary = "Delete a global categorization rule")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Categorization rule deleted"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Categorization rule not found"
+            )
+    })
+    @DeleteMapping("/global/{id}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<String>> deleteGlobalRule(
+            @PathVariable Integer id,
+            HttpServletRequest request
+    ) {
+        baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        categorizationService.deleteRule(id, null);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Categorization rule deleted"
+        ));
+    }
+
+    private ResponseEntity<SuccessResponseDTO<CategorizationRuleResponseDTO>> created(
+            CategorizationRuleEntity rule
+    ) {
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(rule.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(new SuccessResponseDTO<>(
+                "Categorization rule created",
+                categorizationService.entityToResponseDto(rule)
+        ));
+    }
+}
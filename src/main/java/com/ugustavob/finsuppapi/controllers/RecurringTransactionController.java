@@ -0,0 +1,327 @@
+package com.ugustavob.finsuppapi.controllers;
+
+import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
+import com.ugustavob.finsuppapi.dto.SuccessResponseDTO;
+import com.ugustavob.finsuppapi.dto.transactions.CreateRecurringTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.RecurringTransactionResponseDTO;
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionEntity;
+import com.ugustavob.finsuppapi.services.BaseService;
+import com.ugustavob.finsuppapi.services.RecurringTransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+@Tag(name = "10. Recurring transactions", description = "Endpoints for recurring and future-dated transactions")
+@RequestMapping("/recurring-transactions")
+public class RecurringTransactionController {
+    private final BaseService baseService;
+    private final RecurringTransactionService recurringTransactionService;
+
+    @Operation(
+            summary = "Get recurring transactions",
+            description = "Get the recurring transactions of the user. nextDate is the date of the next occurrence " +
+                    "to be posted, null once the schedule is finished."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Recurring transactions found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Recurring transactions found",
+                                                      "type": "Success",
+                                                      "dataList": [
+                                                        {
+                                                          "id": 1,
+                                                          "description": "Rent",
+                                                          "amount": 1500.0,
+                                                          "type": "WITHDRAW",
+                                                          "addToBill": false,
+                                                          "category": 6,
+                                                          "accountId": 1,
+                                                          "recipientAccountId": null,
+                                                          "frequency": "MONTHLY",
+                                                          "interval": 1,
+                                                          "startDate": "2025-05-05",
+                                                          "endDate": null,
+                                                          "nextDate": "2025-06-05",
+                                                          "occurrences": 1,
+                                                          "status": "ACTIVE",
+                                                          "lastError": null
+                                                        }
+                                                      ]
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Unauthorized",
+                                            value = """
+                                                    {
+                                                      "code": 401,
+                                                      "message": "Unauthorized",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            )
+    })
+    @GetMapping("/")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<List<RecurringTransactionResponseDTO>>> getRecurringTransactions(
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Recurring transactions found",
+                recurringTransactionService.getRecurringTransactions(userId)
+        ));
+    }
+
+    @Operation(
+            summary = "Create a recurring transaction",
+            description = "Each occurrence is posted as a regular transaction at the start of its day, updating the " +
+                    "account balance or the bill like any other transaction. Use frequency ONCE for a single " +
+                    "future-dated transaction. Occurrences of the 29th to 31st fall on the last day of shorter months."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Recurring transaction created",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = SuccessResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Success",
+                                            value = """
+                                                    {
+                                                      "message": "Recurring transaction created",
+                                                      "type": "Success",
+                                                      "data": {
+                                                        "id": 1,
+                                                        "description": "Rent",
+                                                        "amount": 1500.0,
+                                                        "type": "WITHDRAW",
+                                                        "addToBill": false,
+                                                        "category": 6,
+                                                        "accountId": 1,
+                                                        "recipientAccountId": null,
+                                                        "frequency": "MONTHLY",
+                                                        "interval": 1,
+                                                        "startDate": "2025-05-05",
+                                                        "endDate": null,
+                                                        "nextDate": "2025-05-05",
+                                                        "occurrences": 0,
+                                                        "status": "ACTIVE",
+                                                        "lastError": null
+                                                      }
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid recurring transaction",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Start date in the past",
+                                            value = """
+                                                    {
+                                                      "code": 400,
+                                                      "message": "Start date must be today or later",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account or category not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponseDTO.class
+                            ),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Account not found",
+                                            value = """
+                                                    {
+                                                      "code": 404,
+                                                      "message": "Account not found",
+                                                      "type": "Error"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            )
+    })
+    @PostMapping("/")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<RecurringTransactionResponseDTO>> createRecurringTransaction(
+            @Valid @RequestBody CreateRecurringTransactionRequestDTO createRecurringTransactionRequestDTO,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        RecurringTransactionEntity recurringTransaction = recurringTransactionService.createRecurringTransaction(
+                createRecurringTransactionRequestDTO, userId);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(recurringTransaction.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(new SuccessResponseDTO<>(
+                "Recurring transaction created",
+                recurringTransactionService.entityToResponseDto(recurringTransaction)
+        ));
+    }
+
+    @Operation(
+            summary = "Pause a recurring transaction",
+            description = "No occurrence is posted while the recurring transaction is paused."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Recurring transaction paused"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Recurring transaction not found"
+            )
+    })
+    @PostMapping("/{id}/pause")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<RecurringTransactionResponseDTO>> pauseRecurringTransaction(
+            @PathVariable Integer id,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Recurring transaction paused",
+                recurringTransactionService.entityToResponseDto(
+                        recurringTransactionService.pauseRecurringTransaction(id, userId))
+        ));
+    }
+
+    @Operation(
+            summary = "Resume a recurring transaction",
+            description = "Resumes a paused or failed recurring transaction. Occurrences that fell while it was " +
+                    "paused are skipped; an occurrence that failed to post is tried again."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Recurring transaction resumed"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Recurring transaction not found"
+            )
+    })
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<RecurringTransactionResponseDTO>> resumeRecurringTransaction(
+            @PathVariable Integer id,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Recurring transaction resumed",
+                recurringTransactionService.entityToResponseDto(
+                        recurringTransactionService.resumeRecurringTransaction(id, userId))
+        ));
+    }
+
+    @Operation(
+            summary = "Delete a recurring transaction",
+            description = "Transactions already posted are kept."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Recurring transaction deleted"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Recurring transaction not found"
+            )
+    })
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<String>> deleteRecurringTransaction(
+            @PathVariable Integer id,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        recurringTransactionService.deleteRecurringTransaction(id, userId);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Recurring transaction deleted"
+        ));
+    }
+}
@@ -2,12 +2,23 @@ package com.ugustavob.finsuppapi.controllers;
 
 import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
 import com.ugustavob.finsuppapi.dto.SuccessResponseDTO;
+import com.ugustavob.finsuppapi.dto.transactions.BatchTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.BatchTransactionResultDTO;
 import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.CsvImportMappingDTO;
+import com.ugustavob.finsuppapi.dto.transactions.DuplicatePolicy;
+import com.ugustavob.finsuppapi.dto.transactions.PatchTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.TransactionImportJobDTO;
 import com.ugustavob.finsuppapi.dto.transactions.TransactionFilterDTO;
 import com.ugustavob.finsuppapi.dto.transactions.TransactionResponseDTO;
+import com.ugustavob.finsuppapi.dto.transactions.TransactionSortKey;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionEntity;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportFormat;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportJobEntity;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
 import com.ugustavob.finsuppapi.services.BaseService;
+import com.ugustavob.finsuppapi.services.TransactionBatchService;
+import com.ugustavob.finsuppapi.services.TransactionImportService;
 import com.ugustavob.finsuppapi.services.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,13 +33,19 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.Charset;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -37,12 +54,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final TransactionImportService transactionImportService;
     private final BaseService baseService;
 
     @Operation(
             summary = "Get all transactions",
-            description = "Get all transactions from the user. You can filter by account id, description, " +
-                    "installments, start date, end date, transaction type, category id and card id."
+            description = "Get all transactions from the user. You can filter by account ids, description, " +
+                    "installments, date range, amount range, transaction type, category ids and card id. " +
+                    "accountId and categoryId can be repeated to match any of several values. Results are sorted " +
+                    "by sort (DATE or AMOUNT) in the given direction, newest first by default."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -72,7 +93,9 @@ public class TransactionController {
                                                                    "type": "WITHDRAW",
                                                                    "category": 4,
                                                                    "account": 1,
-                                                                   "recipientAccountId": null
+                                                                   "recipientAccountId": null,
+                                                                   "billStatus": "APPLIED",
+                                                                   "possibleDuplicate": false
                                                                  },
                                                                  {
                                                                    "id": 2,
@@ -84,7 +107,9 @@ public class TransactionController {
                                                                    "type": "WITHDRAW",
                                                                    "category": 7,
                                                                    "account": 1,
-                                                                   "recipientAccountId": null
+                                                                   "recipientAccountId": null,
+                                                                   "billStatus": "APPLIED",
+                                                                   "possibleDuplicate": false
                                                                  }
                                                                ],
                                                                "pagination": {
@@ -166,14 +191,18 @@ public class TransactionController {
     @PreAuthorize("hasRole('ROLE_USER')")
     @SecurityRequirement(name = "bearer")
     public ResponseEntity<?> getAllTransactions(
-            @RequestParam(required = false) Integer accountId,
+            @RequestParam(required = false) List<Integer> accountId,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) Integer installments,
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
             @RequestParam(required = false) TransactionType transactionType,
-            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) List<Integer> categoryId,
             @RequestParam(required = false) Integer cardId,
+            @RequestParam(defaultValue = "DATE") TransactionSortKey sort,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
             @RequestParam(defaultValue = "0", required = false) int page,
             @RequestParam(defaultValue = "10", required = false) int size,
             HttpServletRequest request
@@ -187,9 +216,13 @@ public class TransactionController {
                 installments,
                 startDate,
                 endDate,
+                minAmount,
+                maxAmount,
                 transactionType,
                 categoryId,
-                cardId
+                cardId,
+                sort,
+                direction
         );
 
         Page<TransactionResponseDTO> transactions = transactionService.getAllTransactionsFromUser(filter, page, size);
@@ -228,7 +261,9 @@ public class TransactionController {
                                                                 "type": "WITHDRAW",
                                                                 "category": 4,
                                                                 "account": 1,
-                                                                "recipientAccountId": null
+                                                                "recipientAccountId": null,
+                                                                "billStatus": "APPLIED",
+                                                                "possibleDuplicate": false
                                                               }
                                                             }
                                                             """,
@@ -305,7 +340,12 @@ public class TransactionController {
         ));
     }
 
-    @Operation(summary = "Create transaction")
+    @Operation(
+            summary = "Create transaction",
+            description = "Create a transaction. When asynchronous bill propagation is enabled, the bill items of a " +
+                    "transaction added to a bill are written in the background and billStatus is PENDING until " +
+                    "the bill totals are updated (APPLIED) or the update failed (FAILED)."
+    )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "201",
@@ -333,7 +373,9 @@ public class TransactionController {
                                                                 "type": "WITHDRAW",
                                                                 "category": 4,
                                                                 "account": 1,
-                                                                "recipientAccountId": null
+                                                                "recipientAccountId": null,
+                                                                "billStatus": "APPLIED",
+                                                                "possibleDuplicate": false
                                                               }
                                                             }
                                                             """,
@@ -525,7 +567,6 @@ public class TransactionController {
     @PostMapping("/")
     @PreAuthorize("hasRole('ROLE_USER')")
     @SecurityRequirement(name = "bearer")
-    @Transactional
     public ResponseEntity<?> createTransaction(
             @Valid @RequestBody CreateTransactionRequestDTO createTransactionRequestDTO,
             HttpServletRequest request
@@ -546,6 +587,292 @@ public class TransactionController {
         ));
     }
 
+    @Operation(
+            summary = "Create transactions in batch",
+            description = "Create up to 500 transactions in one request. In ALL_OR_NOTHING mode (default) nothing " +
+                    "is created if any item fails; in BEST_EFFORT mode the valid items are created. The response " +
+                    "has one result per item, in request order. With duplicates set to REJECT, SKIP or FLAG, " +
+                    "items matching an existing transaction (same account, date, type, amount and description) " +
+                    "are rejected, skipped or created flagged as possible duplicates."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = SuccessResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Per-item results of the batch.",
+                                                    value = """
+                                                            {
+                                                              "message": "Batch processed",
+                                                              "type": "Success",
+                                                              "data": null,
+                                                              "dataList": [
+                                                                {
+                                                                  "index": 0,
+                                                                  "status": "CREATED",
+                                                                  "id": 42,
+                                                                  "message": null
+                                                                },
+                                                                {
+                                                                  "index": 1,
+                                                                  "status": "REJECTED",
+                                                                  "id": null,
+                                                                  "message": "Insufficient funds"
+                                                                }
+                                                              ]
+                                                            }
+                                                            """,
+                                                    summary = "Batch processed"
+                                            )
+                                    }
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = ErrorResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "This occurs when the user is not authenticated.",
+                                                    value = """
+                                                            {
+                                                              "code": 401,
+                                                              "message": "Unauthorized",
+                                                              "type": "Error"
+                                                            }
+                                                            """,
+                                                    summary = "Unauthorized"
+                                            )
+                                    }
+                            )
+                    }
+            )
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<?> createTransactions(
+            @Valid @RequestBody BatchTransactionRequestDTO batchTransactionRequestDTO,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        List<BatchTransactionResultDTO> results = transactionBatchService.createTransactions(
+                batchTransactionRequestDTO, userId);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Batch processed",
+                results
+        ));
+    }
+
+    @Operation(
+            summary = "Import bank statement",
+            description = "Upload a CSV or OFX statement to be imported into an account in the background. " +
+                    "Negative amounts become withdrawals and positive amounts deposits; every entry follows the " +
+                    "same rules as a single transaction. CSV columns are mapped by index or header name. When " +
+                    "no category is given, each entry is categorized by the categorization rules. Entries that " +
+                    "match an existing transaction of the account are skipped by default (duplicates=SKIP); " +
+                    "REJECT, FLAG and ALLOW are also accepted. The " +
+                    "progress and the rejected rows are available at /transactions/import/{jobId}."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Import scheduled",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = SuccessResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Import scheduled",
+                                                    value = """
+                                                            {
+                                                              "message": "Import scheduled",
+                                                              "type": "Success",
+                                                              "data": {
+                                                                "id": "7c9e6679-7425-40de-944b-e07fc1f90ae7",
+                                                                "accountId": 1,
+                                                                "format": "CSV",
+                                                                "fileName": "statement.csv",
+                                                                "status": "PENDING",
+                                                                "progress": 0,
+                                                                "processedRows": 0,
+                                                                "importedRows": 0,
+                                                                "rejectedRows": 0,
+                                                                "error": null,
+                                                                "createdAt": "2025-04-09T12:00:00",
+                                                                "updatedAt": "2025-04-09T12:00:00",
+                                                                "rejections": []
+                                                              }
+                                                            }
+                                                            """,
+                                                    summary = "Import scheduled"
+                                            )
+                                    }
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Account or category not found",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = ErrorResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "This occurs when the account is not found.",
+                                                    value = """
+                                                            {
+                                                              "code": 404,
+                                                              "message": "Account not found",
+                                                              "type": "Error"
+                                                            }
+                                                            """,
+                                                    summary = "Account not found"
+                                            )
+                                    }
+                            )
+                    }
+            )
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<TransactionImportJobDTO>> importTransactions(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam Integer accountId,
+            @RequestParam(required = false) Integer category,
+            @RequestParam(required = false) TransactionImportFormat format,
+            @RequestParam(defaultValue = "false") boolean addToBill,
+            @RequestParam(defaultValue = "UTF-8") Charset charset,
+            @RequestParam(defaultValue = "SKIP") DuplicatePolicy duplicates,
+            @ModelAttribute CsvImportMappingDTO mapping,
+            HttpServletRequest request
+    ) throws IOException {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        TransactionImportJobEntity job = transactionImportService.startImport(file,
+                new TransactionImportService.ImportRequest(accountId, category, format, addToBill, charset, mapping,
+                        duplicates), userId);
+
+        return ResponseEntity.accepted().body(new SuccessResponseDTO<>(
+                "Import scheduled",
+                transactionImportService.toDTO(job, List.of())
+        ));
+    }
+
+    @Operation(
+            summary = "Get import job",
+            description = "Get the progress of a statement import and up to `rejections` of its rejected rows."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import job found",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = SuccessResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Import in progress",
+                                                    value = """
+                                                            {
+                                                              "message": "Import job found",
+                                                              "type": "Success",
+                                                              "data": {
+                                                                "id": "7c9e6679-7425-40de-944b-e07fc1f90ae7",
+                                                                "accountId": 1,
+                                                                "format": "OFX",
+                                                                "fileName": "statement.ofx",
+                                                                "status": "RUNNING",
+                                                                "progress": 42,
+                                                                "processedRows": 400,
+                                                                "importedRows": 398,
+                                                                "rejectedRows": 2,
+                                                                "error": null,
+                                                                "createdAt": "2025-04-09T12:00:00",
+                                                                "updatedAt": "2025-04-09T12:00:03",
+                                                                "rejections": [
+                                                                  {
+                                                                    "row": 17,
+                                                                    "reason": "Insufficient funds",
+                                                                    "content": "123 20250401 -500.00 Rent"
+                                                                  }
+                                                                ]
+                                                              }
+                                                            }
+                                                            """,
+                                                    summary = "Import in progress"
+                                            )
+                                    }
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Import job not found",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = ErrorResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "This occurs when the import job is not found.",
+                                                    value = """
+                                                            {
+                                                              "code": 404,
+                                                              "message": "Import job not found",
+                                                              "type": "Error"
+                                                            }
+                                                            """,
+                                                    summary = "Import job not found"
+                                            )
+                                    }
+                            )
+                    }
+            )
+    })
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<TransactionImportJobDTO>> getImportJob(
+            @PathVariable UUID jobId,
+            @RequestParam(defaultValue = "100") int rejections,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Import job found",
+                transactionImportService.getJob(jobId, userId, Math.min(rejections, 1000))
+        ));
+    }
+
     @Operation(summary = "Update transaction")
     @ApiResponses(value = {
             @ApiResponse(
@@ -574,7 +901,9 @@ public class TransactionController {
                                                                 "type": "WITHDRAW",
                                                                 "category": 4,
                                                                 "account": 1,
-                                                                "recipientAccountId": null
+                                                                "recipientAccountId": null,
+                                                                "billStatus": "APPLIED",
+                                                                "possibleDuplicate": false
                                                               }
                                                             }
                                                             """,
@@ -788,6 +1117,94 @@ public class TransactionController {
         ));
     }
 
+    @Operation(
+            summary = "Partially update transaction",
+            description = "Update only the fields sent in the body. Balance and bill effects are applied only for " +
+                    "the fields that changed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transaction updated successfully",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = SuccessResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Success",
+                                                    value = """
+                                                            {
+                                                              "message": "Transaction updated",
+                                                              "type": "Success",
+                                                              "data": {
+                                                                "id": 1,
+                                                                "description": "Minecraft Movie",
+                                                                "amount": 100,
+                                                                "addToBill": true,
+                                                                "installments": 1,
+                                                                "transactionDate": "2025-04-09",
+                                                                "type": "WITHDRAW",
+                                                                "category": 1,
+                                                                "accountId": 1,
+                                                                "recipientAccountId": null,
+                                                                "billStatus": "APPLIED",
+                                                                "possibleDuplicate": false
+                                                              }
+                                                            }
+                                                            """,
+                                                    summary = "Success"
+                                            )
+                                    }
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Transaction not found",
+                    content = {
+                            @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(
+                                            implementation = ErrorResponseDTO.class
+                                    ),
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "This occurs when the transaction is not found.",
+                                                    value = """
+                                                            {
+                                                              "code": 404,
+                                                              "message": "Transaction not found",
+                                                              "type": "Error"
+                                                            }
+                                                            """,
+                                                    summary = "Transaction not found"
+                                            )
+                                    }
+                            )
+                    }
+            )
+    })
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<?> patchTransaction(
+            @PathVariable int id,
+            @Valid @RequestBody PatchTransactionRequestDTO patchTransactionRequestDTO,
+            HttpServletRequest request
+    ) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        TransactionEntity transaction = transactionService.patchTransaction(id, patchTransactionRequestDTO, userId);
+
+        return ResponseEntity.ok(new SuccessResponseDTO<>(
+                "Transaction updated",
+                transactionService.entityToResponseDto(transaction)
+        ));
+    }
+
     @Operation(summary = "Delete transaction")
     @ApiResponses(value = {
             @ApiResponse(
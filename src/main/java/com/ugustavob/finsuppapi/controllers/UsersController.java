@@ -3,13 +3,20 @@ package com.ugustavob.finsuppapi.controllers;
 import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
 import com.ugustavob.finsuppapi.dto.SuccessResponseDTO;
 import com.ugustavob.finsuppapi.dto.roles.AssignRoleRequestDTO;
+import com.ugustavob.finsuppapi.dto.users.BulkUserResultDTO;
 import com.ugustavob.finsuppapi.dto.users.GetAllUsersResponseDTO;
 import com.ugustavob.finsuppapi.dto.users.GetUserResponseDTO;
 import com.ugustavob.finsuppapi.dto.users.RegisterRequestDTO;
+import com.ugustavob.finsuppapi.dto.users.UserCursorPageDTO;
+import com.ugustavob.finsuppapi.dto.users.UserDeletionJobDTO;
+import com.ugustavob.finsuppapi.dto.users.UserSortField;
+import com.ugustavob.finsuppapi.entities.user.UserDeletionJobEntity;
 import com.ugustavob.finsuppapi.entities.user.UserEntity;
 import com.ugustavob.finsuppapi.exception.SelfDelectionException;
 import com.ugustavob.finsuppapi.exception.UserNotFoundException;
 import com.ugustavob.finsuppapi.services.BaseService;
+import com.ugustavob.finsuppapi.services.UserDeletionService;
+import com.ugustavob.finsuppapi.services.UserProvisioningService;
 import com.ugustavob.finsuppapi.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,11 +30,12 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -37,6 +45,8 @@ import java.util.UUID;
 public class UsersController {
     private final BaseService baseService;
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
+    private final UserDeletionService userDeletionService;
 
     @GetMapping("/me/")
     @Operation(summary = "Get user", description = "Get the authenticated user's details.")
@@ -114,7 +124,9 @@ public class UsersController {
     }
 
     @GetMapping("/")
-    @Operation(summary = "Get all users", description = "Retrieve a list of all users (Admin access required).")
+    @Operation(summary = "Get all users", description = "Retrieve a list of all users (Admin access required). " +
+            "Results are keyset-paginated: pass the returned nextCursor to fetch the following page. The total " +
+            "count is only computed when withTotal is true.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -140,10 +152,9 @@ public class UsersController {
                                                   "email": "maria.souza@example.com"
                                                 }
                                               ],
-                                              "pagination": {
-                                                "currentPage": 0,
+                                              "cursor": {
                                                 "pageSize": 10,
-                                                "totalPages": 5,
+                                                "nextCursor": "bWFyaWEuc291emFAZXhhbXBsZS5jb20",
                                                 "totalElements": 50
                                               }
                                             }
@@ -206,13 +217,16 @@ public class UsersController {
     @SecurityRequirement(name = "bearer")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<SuccessResponseDTO<GetAllUsersResponseDTO>> getAllUsers(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "EMAIL") UserSortField sortBy,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(defaultValue = "false") boolean withTotal,
             HttpServletRequest request
     ) {
         baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
 
-        Page<GetAllUsersResponseDTO> usersPage = userService.getAllUsers(page, size);
+        UserCursorPageDTO usersPage = userService.getAllUsers(cursor, size, sortBy, emailPrefix, withTotal);
 
         if (usersPage == null) {
             throw new UserNotFoundException();
@@ -221,7 +235,8 @@ public class UsersController {
         return ResponseEntity.ok(
                 new SuccessResponseDTO<>(
                         "Users found",
-                        usersPage
+                        usersPage.users(),
+                        new SuccessResponseDTO.CursorInfo(size, usersPage.nextCursor(), usersPage.totalElements())
                 )
         );
     }
@@ -338,7 +353,8 @@ public class UsersController {
                         registerRequestDTO.name(),
                         registerRequestDTO.email(),
                         registerRequestDTO.password(),
-                        null));
+                        null,
+                        false));
         return ResponseEntity.ok(
                 new SuccessResponseDTO<>(
                         "User updated",
@@ -347,9 +363,63 @@ public class UsersController {
         );
     }
 
+    @PostMapping("/me/logout")
+    @Operation(summary = "Logout", description = "Revoke every token issued to the authenticated user.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Logged out",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SuccessResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "Logged out",
+                                              "type": "Success",
+                                              "data": null,
+                                              "dataList": null,
+                                              "pagination": null
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "Unauthorized",
+                                              "type": "Error",
+                                              "field": null
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearer")
+    public ResponseEntity<SuccessResponseDTO<?>> logout(HttpServletRequest request) {
+        UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        userService.logoutUser(userId);
+
+        return ResponseEntity.ok(
+                new SuccessResponseDTO<>(
+                        "Logged out"
+                )
+        );
+    }
+
     @DeleteMapping("/{uuid}")
     @Operation(summary = "Delete user", description = "Delete a user (Restricted to admins. Users cannot delete " +
-            "themselves).")
+            "themselves). With async=true the user is disabled immediately and their data is removed by a " +
+            "background job whose progress is available at /users/deletions/{jobId}.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -370,6 +440,34 @@ public class UsersController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "User deletion scheduled",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SuccessResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "User deletion scheduled",
+                                              "type": "Success",
+                                              "data": {
+                                                "id": "7c9e6679-7425-40de-944b-e07fc1f90ae7",
+                                                "userId": "123e4567-e89b-12d3-a456-426614174000",
+                                                "status": "PENDING",
+                                                "phase": null,
+                                                "deletedRows": 0,
+                                                "error": null,
+                                                "createdAt": "2025-02-10T12:00:00",
+                                                "updatedAt": "2025-02-10T12:00:00"
+                                              },
+                                              "dataList": null,
+                                              "pagination": null
+                                            }
+                                            """
+                            )
+                    )
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized",
@@ -436,13 +534,28 @@ public class UsersController {
     @SecurityRequirement(name = "bearer")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @Transactional
-    public ResponseEntity<SuccessResponseDTO<?>> deleteUser(HttpServletRequest request, @PathVariable UUID uuid) {
+    public ResponseEntity<SuccessResponseDTO<?>> deleteUser(
+            HttpServletRequest request,
+            @PathVariable UUID uuid,
+            @RequestParam(defaultValue = "false") boolean async
+    ) {
         UUID userId = baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
 
         if (userId.toString().equals(uuid.toString())) {
             throw new SelfDelectionException();
         }
 
+        if (async) {
+            UserDeletionJobEntity job = userDeletionService.scheduleDeletion(uuid);
+
+            return ResponseEntity.accepted().body(
+                    new SuccessResponseDTO<>(
+                            "User deletion scheduled",
+                            userDeletionService.toDTO(job)
+                    )
+            );
+        }
+
         userService.deleteUser(uuid);
 
         return ResponseEntity.ok(
@@ -452,6 +565,72 @@ public class UsersController {
         );
     }
 
+    @GetMapping("/deletions/{jobId}")
+    @Operation(summary = "Get deletion job", description = "Get the progress of a background user deletion " +
+            "(Restricted to admins).")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Deletion job found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SuccessResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "Deletion job found",
+                                              "type": "Success",
+                                              "data": {
+                                                "id": "7c9e6679-7425-40de-944b-e07fc1f90ae7",
+                                                "userId": "123e4567-e89b-12d3-a456-426614174000",
+                                                "status": "RUNNING",
+                                                "phase": "transactions",
+                                                "deletedRows": 4200,
+                                                "error": null,
+                                                "createdAt": "2025-02-10T12:00:00",
+                                                "updatedAt": "2025-02-10T12:00:42"
+                                              },
+                                              "dataList": null,
+                                              "pagination": null
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Deletion job not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "Deletion job not found",
+                                              "type": "Error",
+                                              "field": null
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearer")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<SuccessResponseDTO<UserDeletionJobDTO>> getDeletionJob(
+            HttpServletRequest request,
+            @PathVariable UUID jobId
+    ) {
+        baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        return ResponseEntity.ok(
+                new SuccessResponseDTO<>(
+                        "Deletion job found",
+                        userDeletionService.toDTO(userDeletionService.getJob(jobId))
+                )
+        );
+    }
+
     @PostMapping("/{uuid}/roles")
     @Operation(summary = "Assign role", description = "Assign a new role to a user (Restricted to admins. A user " +
             "cannot be assigned a role they already have).")
@@ -567,5 +746,96 @@ public class UsersController {
         );
     }
 
+    @PostMapping(value = "/bulk", consumes = {"application/json", "text/csv"})
+    @Operation(summary = "Bulk provision users", description = "Create many users from a JSON array or a CSV body " +
+            "with the header name,email,password (Restricted to admins). Returns one result per row.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import processed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SuccessResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "Import processed",
+                                              "type": "Success",
+                                              "data": null,
+                                              "dataList": [
+                                                {
+                                                  "row": 1,
+                                                  "email": "joao.silva@example.com",
+                                                  "status": "CREATED",
+                                                  "message": null,
+                                                  "id": "123e4567-e89b-12d3-a456-426614174000"
+                                                },
+                                                {
+                                                  "row": 2,
+                                                  "email": "maria@example.com",
+                                                  "status": "DUPLICATE",
+                                                  "message": "User already exists",
+                                                  "id": null
+                                                }
+                                              ],
+                                              "pagination": null
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed body",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "CSV header must be: name,email,password",
+                                              "type": "Error",
+                                              "field": null
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "message": "Unauthorized",
+                                              "type": "Error",
+                                              "field": null
+                                            }
+                                            """
+                            )
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearer")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<SuccessResponseDTO<BulkUserResultDTO>> bulkCreateUsers(
+            HttpServletRequest request,
+            @RequestHeader(value = "Content-Type") String contentType
+    ) throws IOException {
+        baseService.checkIfUuidIsNull((UUID) request.getAttribute("id"));
+
+        List<BulkUserResultDTO> results = contentType.startsWith("text/csv")
+                ? userProvisioningService.importCsv(request.getInputStream())
+                : userProvisioningService.importJson(request.getInputStream());
 
+        return ResponseEntity.ok(
+                new SuccessResponseDTO<>(
+                        "Import processed",
+                        results
+                )
+        );
+    }
 }
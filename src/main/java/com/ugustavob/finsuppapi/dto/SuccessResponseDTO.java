@@ -16,6 +16,7 @@ public class SuccessResponseDTO<T> {
     private T data;
     private List<T> dataList;
     private PaginationInfo pagination;
+    private CursorInfo cursor;
 
     public SuccessResponseDTO(String message) {
         this.message = message;
@@ -55,6 +56,25 @@ public class SuccessResponseDTO<T> {
         );
     }
 
+    public SuccessResponseDTO(String message, List<T> dataList, CursorInfo cursor) {
+        this.message = message;
+        this.type = "Success";
+        this.data = null;
+        this.dataList = dataList;
+        this.pagination = null;
+        this.cursor = cursor;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CursorInfo {
+        private int pageSize;
+        private String nextCursor;
+        private Long totalElements;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
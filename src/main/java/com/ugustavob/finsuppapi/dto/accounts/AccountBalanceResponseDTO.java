@@ -0,0 +1,10 @@
+package com.ugustavob.finsuppapi.dto.accounts;
+
+import java.time.LocalDate;
+
+public record AccountBalanceResponseDTO(
+        Integer accountId,
+        LocalDate date,
+        double balance
+) {
+}
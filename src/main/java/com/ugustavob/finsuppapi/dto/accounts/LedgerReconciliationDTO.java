@@ -0,0 +1,10 @@
+package com.ugustavob.finsuppapi.dto.accounts;
+
+public record LedgerReconciliationDTO(
+        Integer accountId,
+        double balance,
+        double ledgerBalance,
+        long seq,
+        boolean consistent
+) {
+}
@@ -0,0 +1,16 @@
+package com.ugustavob.finsuppapi.dto.categories;
+
+import com.ugustavob.finsuppapi.entities.categories.CategorizationMatchType;
+
+public record CategorizationRuleResponseDTO(
+        Integer id,
+        Integer category,
+        CategorizationMatchType matchType,
+        String pattern,
+        Double minAmount,
+        Double maxAmount,
+        Integer accountId,
+        int priority,
+        boolean global
+) {
+}
@@ -0,0 +1,34 @@
+package com.ugustavob.finsuppapi.dto.categories;
+
+import com.ugustavob.finsuppapi.entities.categories.CategorizationMatchType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.validator.constraints.Length;
+
+public record CreateCategorizationRuleRequestDTO(
+        @NotNull(message = "Category is required")
+        @Positive(message = "Category Id must be greater than zero")
+        @Schema(description = "Category assigned by the rule", example = "1")
+        Integer category,
+        @Schema(description = "How the pattern is matched against the description", example = "CONTAINS",
+                allowableValues = {"CONTAINS", "PREFIX", "REGEX"})
+        CategorizationMatchType matchType,
+        @Length(max = 200, message = "Pattern must be less than 200 characters")
+        @Schema(description = "Text or regular expression matched against the description (case insensitive)",
+                example = "uber")
+        String pattern,
+        @PositiveOrZero(message = "Minimum amount must be zero or greater")
+        @Schema(description = "Minimum amount, inclusive", example = "10.00")
+        Double minAmount,
+        @PositiveOrZero(message = "Maximum amount must be zero or greater")
+        @Schema(description = "Maximum amount, inclusive", example = "200.00")
+        Double maxAmount,
+        @Schema(description = "Only match transactions of this account", example = "1")
+        Integer accountId,
+        @Schema(description = "Rules with a higher priority win when several rules match", example = "0",
+                defaultValue = "0")
+        Integer priority
+) {
+}
@@ -0,0 +1,8 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED,
+    SKIPPED,
+    NOT_APPLIED
+}
@@ -0,0 +1,6 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+public enum BatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
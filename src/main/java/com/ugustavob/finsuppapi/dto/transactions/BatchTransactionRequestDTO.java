@@ -0,0 +1,20 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BatchTransactionRequestDTO(
+        @NotEmpty(message = "At least one transaction is required")
+        @Schema(description = "Transactions to create, in order", requiredMode = Schema.RequiredMode.REQUIRED)
+        List<CreateTransactionRequestDTO> transactions,
+        @Schema(description = "ALL_OR_NOTHING (default) creates nothing if any item fails; BEST_EFFORT creates the " +
+                "valid items", example = "ALL_OR_NOTHING")
+        BatchMode mode,
+        @Schema(description = "What to do with items that look like an existing transaction (same account, date, " +
+                "type, amount and description): ALLOW (default), REJECT, SKIP or FLAG as possible duplicate",
+                example = "SKIP")
+        DuplicatePolicy duplicates
+) {
+}
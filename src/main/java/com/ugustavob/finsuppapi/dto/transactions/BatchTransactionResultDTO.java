@@ -0,0 +1,9 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+public record BatchTransactionResultDTO(
+        int index,
+        BatchItemStatus status,
+        Integer id,
+        String message
+) {
+}
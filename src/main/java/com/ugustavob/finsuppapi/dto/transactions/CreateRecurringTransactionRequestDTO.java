@@ -0,0 +1,54 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+import com.ugustavob.finsuppapi.entities.transaction.RecurrenceFrequency;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import org.hibernate.validator.constraints.Length;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public record CreateRecurringTransactionRequestDTO(
+        @NotBlank(message = "Transaction description is required")
+        @Schema(description = "Description of each posted transaction", example = "Rent")
+        @Length(max = 30, message = "Description must be less than 30 characters")
+        String description,
+        @NotNull(message = "Transaction amount is required")
+        @Positive(message = "Transaction amount must be greater than zero")
+        @Max(value = 999999999, message = "Transaction amount must be less than 1 billion")
+        @Schema(description = "Amount of each posted transaction", example = "1500.00")
+        Double amount,
+        @NotNull(message = "Transaction type is required. Allowed values: WITHDRAW, DEPOSIT, TRANSFER")
+        @Schema(description = "Type of the transaction", example = "WITHDRAW",
+                allowableValues = {"WITHDRAW", "DEPOSIT", "TRANSFER"})
+        TransactionType type,
+        @Schema(description = "Indicates whether each transaction should be added to the credit card bill",
+                example = "false")
+        boolean addToBill,
+        @NotNull(message = "Category is required")
+        @Positive(message = "Category Id must be greater than zero")
+        @Schema(description = "Category of the transaction", example = "6")
+        Integer category,
+        @NotNull(message = "Account Id is required")
+        @Schema(description = "Id of the account", example = "1")
+        Integer accountId,
+        @Schema(description = "Id of the recipient account, for transfers", example = "2")
+        Integer recipientAccountId,
+        @NotNull(message = "Frequency is required. Allowed values: ONCE, DAILY, WEEKLY, MONTHLY, YEARLY")
+        @Schema(description = "How often the transaction is posted. ONCE posts a single future-dated transaction",
+                example = "MONTHLY", allowableValues = {"ONCE", "DAILY", "WEEKLY", "MONTHLY", "YEARLY"})
+        RecurrenceFrequency frequency,
+        @Positive(message = "Interval must be greater than zero")
+        @Max(value = 365, message = "Interval must be less than 365")
+        @Schema(description = "Number of periods between occurrences", example = "1", defaultValue = "1")
+        Integer interval,
+        @NotNull(message = "Start date is required")
+        @DateTimeFormat(pattern = "yyyy-MM-dd")
+        @Schema(description = "Date of the first occurrence, today or later", example = "2025-05-05")
+        LocalDate startDate,
+        @DateTimeFormat(pattern = "yyyy-MM-dd")
+        @Schema(description = "No occurrence is posted after this date", example = "2026-05-05")
+        LocalDate endDate
+) {
+}
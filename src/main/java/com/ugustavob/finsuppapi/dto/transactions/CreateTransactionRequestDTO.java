@@ -33,9 +33,9 @@ public record CreateTransactionRequestDTO(
         @Schema(description = "Number of installments", example = "1", defaultValue = "1")
         @Max(value = 120, message = "Installments must be less than 120")
         Integer installments,
-        @NotNull(message = "Transaction category is required")
         @Positive(message = "Category Id must be greater than zero")
-        @Schema(description = "Category of the transaction", example = "1")
+        @Schema(description = "Category of the transaction. When omitted, it is chosen by the categorization rules",
+                example = "1")
         Integer category,
         @Schema(description = "Id of the account", example = "1")
         Integer accountId,
@@ -0,0 +1,43 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Column mapping for CSV statements. A column is referenced by its zero-based index or, when the file has a header,
+ * by its name.
+ */
+public record CsvImportMappingDTO(
+        @Schema(description = "Column with the transaction date (index or header name)", example = "date",
+                defaultValue = "date")
+        String dateColumn,
+        @Schema(description = "Column with the description (index or header name)", example = "description",
+                defaultValue = "description")
+        String descriptionColumn,
+        @Schema(description = "Column with the signed amount (index or header name)", example = "amount",
+                defaultValue = "amount")
+        String amountColumn,
+        @Schema(description = "Pattern of the date column", example = "dd/MM/yyyy", defaultValue = "yyyy-MM-dd")
+        String dateFormat,
+        @Schema(description = "Field delimiter", example = ";", defaultValue = ",")
+        Character delimiter,
+        @Schema(description = "Whether the first line is a header", example = "true", defaultValue = "true")
+        Boolean header,
+        @Schema(description = "Whether amounts use a decimal comma (1.234,56)", example = "false",
+                defaultValue = "false")
+        Boolean decimalComma,
+        @Schema(description = "Whether positive amounts are debits, as in credit card statements",
+                example = "false", defaultValue = "false")
+        Boolean invertSign
+) {
+    public CsvImportMappingDTO {
+        dateColumn = dateColumn == null || dateColumn.isBlank() ? "date" : dateColumn.trim();
+        descriptionColumn = descriptionColumn == null || descriptionColumn.isBlank() ? "description" :
+                descriptionColumn.trim();
+        amountColumn = amountColumn == null || amountColumn.isBlank() ? "amount" : amountColumn.trim();
+        dateFormat = dateFormat == null || dateFormat.isBlank() ? "yyyy-MM-dd" : dateFormat;
+        delimiter = delimiter == null ? ',' : delimiter;
+        header = header == null || header;
+        decimalComma = decimalComma != null && decimalComma;
+        invertSign = invertSign != null && invertSign;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+public enum DuplicatePolicy {
+    ALLOW,
+    REJECT,
+    SKIP,
+    FLAG
+}
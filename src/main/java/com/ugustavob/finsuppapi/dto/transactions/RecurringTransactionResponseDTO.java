@@ -0,0 +1,27 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+import com.ugustavob.finsuppapi.entities.transaction.RecurrenceFrequency;
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionStatus;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+
+import java.time.LocalDate;
+
+public record RecurringTransactionResponseDTO(
+        Integer id,
+        String description,
+        double amount,
+        TransactionType type,
+        boolean addToBill,
+        Integer category,
+        Integer accountId,
+        Integer recipientAccountId,
+        RecurrenceFrequency frequency,
+        int interval,
+        LocalDate startDate,
+        LocalDate endDate,
+        LocalDate nextDate,
+        int occurrences,
+        RecurringTransactionStatus status,
+        String lastError
+) {
+}
@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -15,12 +17,16 @@ import java.util.UUID;
 @NoArgsConstructor
 public class TransactionFilterDTO {
     private UUID userId;
-    private Integer accountId;
+    private List<Integer> accountIds;
     private String description;
     private Integer installments;
     private LocalDate startDate;
     private LocalDate endDate;
+    private Double minAmount;
+    private Double maxAmount;
     private TransactionType transactionType;
-    private Integer categoryId;
+    private List<Integer> categoryIds;
     private Integer cardId;
+    private TransactionSortKey sort = TransactionSortKey.DATE;
+    private Sort.Direction direction = Sort.Direction.DESC;
 }
@@ -0,0 +1,26 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportFormat;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record TransactionImportJobDTO(
+        UUID id,
+        Integer accountId,
+        TransactionImportFormat format,
+        String fileName,
+        TransactionImportStatus status,
+        int progress,
+        long processedRows,
+        long importedRows,
+        long rejectedRows,
+        long skippedRows,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        List<TransactionImportRejectionDTO> rejections
+) {
+}
@@ -0,0 +1,8 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+public record TransactionImportRejectionDTO(
+        long row,
+        String reason,
+        String content
+) {
+}
@@ -1,5 +1,6 @@
 package com.ugustavob.finsuppapi.dto.transactions;
 
+import com.ugustavob.finsuppapi.entities.transaction.BillPropagationStatus;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
 
 import java.time.LocalDate;
@@ -14,6 +15,8 @@ public record TransactionResponseDTO(
         TransactionType type,
         Integer category,
         Integer accountId,
-        Integer recipientAccountId
+        Integer recipientAccountId,
+        BillPropagationStatus billStatus,
+        boolean possibleDuplicate
 ) {
 }
@@ -0,0 +1,6 @@
+package com.ugustavob.finsuppapi.dto.transactions;
+
+public enum TransactionSortKey {
+    DATE,
+    AMOUNT
+}
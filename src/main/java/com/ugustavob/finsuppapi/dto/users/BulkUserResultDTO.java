@@ -0,0 +1,12 @@
+package com.ugustavob.finsuppapi.dto.users;
+
+import java.util.UUID;
+
+public record BulkUserResultDTO(
+        int row,
+        String email,
+        BulkUserStatus status,
+        String message,
+        UUID id
+) {
+}
@@ -0,0 +1,7 @@
+package com.ugustavob.finsuppapi.dto.users;
+
+public enum BulkUserStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
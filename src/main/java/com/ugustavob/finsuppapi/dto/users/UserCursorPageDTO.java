@@ -0,0 +1,10 @@
+package com.ugustavob.finsuppapi.dto.users;
+
+import java.util.List;
+
+public record UserCursorPageDTO(
+        List<GetAllUsersResponseDTO> users,
+        String nextCursor,
+        Long totalElements
+) {
+}
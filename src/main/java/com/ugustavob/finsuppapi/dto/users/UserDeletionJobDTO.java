@@ -0,0 +1,18 @@
+package com.ugustavob.finsuppapi.dto.users;
+
+import com.ugustavob.finsuppapi.entities.user.UserDeletionStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record UserDeletionJobDTO(
+        UUID id,
+        UUID userId,
+        UserDeletionStatus status,
+        String phase,
+        long deletedRows,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,6 @@
+package com.ugustavob.finsuppapi.dto.users;
+
+public enum UserSortField {
+    EMAIL,
+    ID
+}
@@ -24,7 +24,9 @@ public class AccountEntity {
     @Column(nullable = false)
     private String description;
 
-    private double balance;
+    // Projection of the ledger: set on insert, then only changed by the statements of LedgerEntryRepository.
+    @Column(updatable = false)
+    private long balance;
 
     @ManyToOne()
     @OnDelete(action = OnDeleteAction.CASCADE)
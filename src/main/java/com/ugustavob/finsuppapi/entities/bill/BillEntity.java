@@ -42,7 +42,7 @@ public class BillEntity {
     @Column(nullable = false)
     private LocalDate dueDate;
 
-    private double totalAmount;
+    private long totalAmount;
 
     @Enumerated(EnumType.STRING)
     private BillStatus status;
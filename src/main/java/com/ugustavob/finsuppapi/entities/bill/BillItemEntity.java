@@ -36,6 +36,6 @@ public class BillItemEntity {
     @JoinColumn(name = "subscription_id")
     private SubscriptionEntity subscription;
 
-    private double amount;
+    private long amount;
     private int installmentNumber;
 }
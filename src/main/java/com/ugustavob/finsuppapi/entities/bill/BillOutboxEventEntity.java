@@ -0,0 +1,48 @@
+package com.ugustavob.finsuppapi.entities.bill;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bill_outbox")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillOutboxEventEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Integer transactionId;
+
+    @Column(name = "account_id", nullable = false)
+    private Integer accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BillOutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,8 @@
+package com.ugustavob.finsuppapi.entities.bill;
+
+public enum BillOutboxStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
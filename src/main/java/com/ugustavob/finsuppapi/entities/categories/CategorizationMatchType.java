@@ -0,0 +1,7 @@
+package com.ugustavob.finsuppapi.entities.categories;
+
+public enum CategorizationMatchType {
+    CONTAINS,
+    PREFIX,
+    REGEX
+}
@@ -0,0 +1,57 @@
+package com.ugustavob.finsuppapi.entities.categories;
+
+import com.ugustavob.finsuppapi.entities.account.AccountEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "categorization_rules")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategorizationRuleEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "category_id", nullable = false)
+    private CategoryEntity category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "match_type")
+    private CategorizationMatchType matchType;
+
+    @Column(length = 200)
+    private String pattern;
+
+    @Column(name = "min_amount")
+    private Double minAmount;
+
+    @Column(name = "max_amount")
+    private Double maxAmount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "account_id")
+    private AccountEntity account;
+
+    @Column(nullable = false)
+    private int priority;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
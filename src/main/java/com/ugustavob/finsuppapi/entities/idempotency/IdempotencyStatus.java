@@ -0,0 +1,6 @@
+package com.ugustavob.finsuppapi.entities.idempotency;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
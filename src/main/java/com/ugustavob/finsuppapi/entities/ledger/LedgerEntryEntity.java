@@ -0,0 +1,48 @@
+package com.ugustavob.finsuppapi.entities.ledger;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One balance effect on an account. {@code seq} numbers the entries of an account without gaps, and the account
+ * balance is the sum of its entries. Rows are only ever inserted, by the statements in
+ * {@link com.ugustavob.finsuppapi.repositories.LedgerEntryRepository}.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries")
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerEntryEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Integer accountId;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false)
+    private LedgerEntryType entryType;
+
+    @Column(name = "transaction_id")
+    private Integer transactionId;
+
+    @Column(name = "counterparty_account_id")
+    private Integer counterpartyAccountId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
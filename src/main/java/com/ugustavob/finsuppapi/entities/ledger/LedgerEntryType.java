@@ -0,0 +1,13 @@
+package com.ugustavob.finsuppapi.entities.ledger;
+
+public enum LedgerEntryType {
+    OPENING,
+    ADJUSTMENT,
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER_OUT,
+    TRANSFER_IN,
+    BILL_PAYMENT,
+    CORRECTION,
+    REVERSAL
+}
@@ -0,0 +1,25 @@
+package com.ugustavob.finsuppapi.entities.ratelimit;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "rate_limit_counters")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RateLimitCounterEntity {
+    @Id
+    @Column(name = "bucket_key", length = 100)
+    private String bucketKey;
+
+    @Column(name = "window_start", nullable = false)
+    private long windowStart;
+
+    @Column(nullable = false)
+    private long consumed;
+}
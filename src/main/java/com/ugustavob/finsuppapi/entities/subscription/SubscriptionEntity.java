@@ -3,6 +3,7 @@ package com.ugustavob.finsuppapi.entities.subscription;
 import com.ugustavob.finsuppapi.dto.subscription.SubscriptionResponseDTO;
 import com.ugustavob.finsuppapi.entities.account.AccountEntity;
 import com.ugustavob.finsuppapi.entities.card.CardEntity;
+import com.ugustavob.finsuppapi.utils.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -26,7 +27,7 @@ public class SubscriptionEntity {
     private String description;
 
     @Column(nullable = false)
-    private Double price;
+    private long price;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -49,7 +50,7 @@ public class SubscriptionEntity {
         return new SubscriptionResponseDTO(
                 this.getId(),
                 this.getDescription(),
-                this.getPrice(),
+                Money.toDecimal(this.getPrice()),
                 this.getInterval(),
                 this.getStatus(),
                 this.getAccount().getId()
@@ -0,0 +1,7 @@
+package com.ugustavob.finsuppapi.entities.transaction;
+
+public enum BillPropagationStatus {
+    PENDING,
+    APPLIED,
+    FAILED
+}
@@ -0,0 +1,26 @@
+package com.ugustavob.finsuppapi.entities.transaction;
+
+import java.time.LocalDate;
+
+public enum RecurrenceFrequency {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    /**
+     * Date of the {@code n}-th occurrence (0-based), or {@code null} when there is no such occurrence. Occurrences
+     * are always computed from the start date, so a schedule starting on the 31st falls back to the last day of
+     * shorter months without drifting to the 28th afterwards.
+     */
+    public LocalDate occurrence(LocalDate start, int interval, long n) {
+        return switch (this) {
+            case ONCE -> n == 0 ? start : null;
+            case DAILY -> start.plusDays(n * interval);
+            case WEEKLY -> start.plusWeeks(n * interval);
+            case MONTHLY -> start.plusMonths(n * interval);
+            case YEARLY -> start.plusYears(n * interval);
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.ugustavob.finsuppapi.entities.transaction;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "recurring_transactions")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurringTransactionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false, length = 20)
+    private TransactionType transactionType;
+
+    @Column(name = "add_to_bill", nullable = false)
+    private boolean addToBill;
+
+    @Column(name = "category_id", nullable = false)
+    private Integer categoryId;
+
+    @Column(name = "account_id", nullable = false)
+    private Integer accountId;
+
+    @Column(name = "recipient_id")
+    private Integer recipientAccountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "interval_count", nullable = false)
+    private int interval;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    /**
+     * Date of the next occurrence to post, {@code null} once the schedule is finished.
+     */
+    @Column(name = "next_date")
+    private LocalDate nextDate;
+
+    @Column(nullable = false)
+    private int occurrences;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurringTransactionStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    /**
+     * Set while a node holds the definition in its timer wheel or is posting it; other nodes only claim it once
+     * this has passed.
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Moves {@link #nextDate} past the occurrence just posted, finishing the schedule after its last occurrence.
+     */
+    public void advance() {
+        occurrences++;
+        nextDate = frequency.occurrence(startDate, interval, occurrences);
+
+        if (nextDate == null || (endDate != null && nextDate.isAfter(endDate))) {
+            nextDate = null;
+            status = RecurringTransactionStatus.FINISHED;
+        }
+    }
+}
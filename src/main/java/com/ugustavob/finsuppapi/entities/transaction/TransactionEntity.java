@@ -1,14 +1,17 @@
 package com.ugustavob.finsuppapi.entities.transaction;
 
 import com.ugustavob.finsuppapi.entities.account.AccountEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillEntity;
 import com.ugustavob.finsuppapi.entities.card.CardEntity;
 import com.ugustavob.finsuppapi.entities.categories.CategoryEntity;
+import com.ugustavob.finsuppapi.utils.TransactionFingerprint;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.Check;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -17,6 +20,7 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "transactions")
 @Check(constraints = "amount > 0")
+@DynamicUpdate
 @Getter
 @Setter
 @AllArgsConstructor
@@ -29,14 +33,19 @@ public class TransactionEntity {
     @Column(nullable = false)
     private String description;
 
+    // In cents, see Money.
     @Column(nullable = false)
-    private double amount;
+    private long amount;
 
     private int installments;
 
     @Column(name = "add_to_bill")
     private boolean isAddToBill = false;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bill_status", length = 20)
+    private BillPropagationStatus billStatus;
+
     @Column(name = "transaction_date", nullable = false)
     private LocalDate transactionDate;
 
@@ -62,4 +71,22 @@ public class TransactionEntity {
     @OnDelete(action = OnDeleteAction.SET_NULL)
     @JoinColumn(name = "recipient_id")
     private AccountEntity recipientAccount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JoinColumn(name = "paid_bill_id")
+    private BillEntity paidBill;
+
+    @Column(length = TransactionFingerprint.LENGTH)
+    private String fingerprint;
+
+    @Column(name = "possible_duplicate", nullable = false)
+    private boolean possibleDuplicate;
+
+    @PrePersist
+    @PreUpdate
+    void updateFingerprint() {
+        fingerprint = TransactionFingerprint.of(account != null ? account.getId() : null, transactionDate,
+                transactionType, description, amount);
+    }
 }
@@ -0,0 +1,6 @@
+package com.ugustavob.finsuppapi.entities.transaction;
+
+public enum TransactionImportFormat {
+    CSV,
+    OFX
+}
@@ -0,0 +1,32 @@
+package com.ugustavob.finsuppapi.entities.transaction;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "transaction_import_rejections")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionImportRejectionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+
+    @Column(name = "row_number", nullable = false)
+    private long rowNumber;
+
+    @Column(nullable = false)
+    private String reason;
+
+    private String content;
+}
@@ -0,0 +1,8 @@
+package com.ugustavob.finsuppapi.entities.transaction;
+
+public enum TransactionImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
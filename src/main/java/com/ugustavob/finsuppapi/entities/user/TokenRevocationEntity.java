@@ -0,0 +1,24 @@
+package com.ugustavob.finsuppapi.entities.user;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "token_revocations")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenRevocationEntity {
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private long revokedBefore;
+}
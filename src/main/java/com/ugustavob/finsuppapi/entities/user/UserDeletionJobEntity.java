@@ -0,0 +1,45 @@
+package com.ugustavob.finsuppapi.entities.user;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_deletion_jobs")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserDeletionJobEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserDeletionStatus status;
+
+    private String phase;
+
+    @Column(name = "deleted_rows", nullable = false)
+    private long deletedRows;
+
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,8 @@
+package com.ugustavob.finsuppapi.entities.user;
+
+public enum UserDeletionStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -31,4 +31,7 @@ public class UserEntity {
     @Column(name = "role")
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Set<String> role;
+
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean disabled;
 }
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class AccountAlreadyExistsException extends RuntimeException {
+public class AccountAlreadyExistsException extends DomainException {
     private static final String defaultMessage = "Account already exists! Please, try again with a different " +
             "description.";
 
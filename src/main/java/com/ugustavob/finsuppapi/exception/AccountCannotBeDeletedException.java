@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class AccountCannotBeDeletedException extends RuntimeException {
+public class AccountCannotBeDeletedException extends DomainException {
     private static final String DEFAULT_MESSAGE = "Account cannot be deleted because it has transactions or subscriptions associated with it.";
 
     public AccountCannotBeDeletedException(String message) {
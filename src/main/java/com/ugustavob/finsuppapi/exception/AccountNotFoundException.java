@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class AccountNotFoundException extends RuntimeException {
+public class AccountNotFoundException extends DomainException {
     private static final String defaultMessage = "Account not found";
 
     public AccountNotFoundException() {
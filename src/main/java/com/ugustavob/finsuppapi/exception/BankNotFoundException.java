@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class BankNotFoundException extends RuntimeException {
+public class BankNotFoundException extends DomainException {
     private static final String DEFAULT_MESSAGE = "Bank not found";
 
     public BankNotFoundException() {
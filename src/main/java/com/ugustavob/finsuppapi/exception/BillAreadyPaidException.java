@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class BillAreadyPaidException extends RuntimeException{
+public class BillAreadyPaidException extends DomainException {
     private static final String DEFAULT_MESSAGE = "Bill already paid";
 
     public BillAreadyPaidException() {
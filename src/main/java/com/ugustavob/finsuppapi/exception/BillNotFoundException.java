@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class BillNotFoundException extends RuntimeException {
+public class BillNotFoundException extends DomainException {
     private static final String DEFAULT_MESSAGE = "Bill not found";
 
     public BillNotFoundException() {
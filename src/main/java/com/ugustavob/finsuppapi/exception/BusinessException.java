@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class BusinessException extends RuntimeException {
+public class BusinessException extends DomainException {
     public BusinessException(String message) {
         super(message);
     }
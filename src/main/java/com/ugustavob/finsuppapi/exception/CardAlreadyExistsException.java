@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class CardAlreadyExistsException extends RuntimeException {
+public class CardAlreadyExistsException extends DomainException {
     private static final String DEFAULT_MESSAGE = "Card already exists";
 
     public CardAlreadyExistsException() {
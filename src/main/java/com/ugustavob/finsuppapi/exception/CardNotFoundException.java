@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class CardNotFoundException extends RuntimeException {
+public class CardNotFoundException extends DomainException {
     private static final String DEFAULT_MESSAGE = "Card not found";
 
     public CardNotFoundException() {
@@ -0,0 +1,13 @@
+package com.ugustavob.finsuppapi.exception;
+
+public class CategorizationRuleNotFoundException extends DomainException {
+    private static final String DEFAULT_MESSAGE = "Categorization rule not found";
+
+    public CategorizationRuleNotFoundException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public CategorizationRuleNotFoundException(String message) {
+        super(message);
+    }
+}
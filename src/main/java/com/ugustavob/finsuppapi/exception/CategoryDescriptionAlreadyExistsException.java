@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class CategoryDescriptionAlreadyExistsException extends RuntimeException {
+public class CategoryDescriptionAlreadyExistsException extends DomainException {
     private static final String defaultMessage = "Category description already exists";
 
     public CategoryDescriptionAlreadyExistsException() {
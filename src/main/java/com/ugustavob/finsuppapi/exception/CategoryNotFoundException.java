@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class CategoryNotFoundException extends RuntimeException {
+public class CategoryNotFoundException extends DomainException {
     private static final String defaultMessage = "Category not found";
 
     public CategoryNotFoundException() {
@@ -0,0 +1,11 @@
+package com.ugustavob.finsuppapi.exception;
+
+/**
+ * Base type for expected business outcomes (not found, conflicts, invalid credentials...). These are reported to the
+ * client and never logged with a trace, so no stack trace is captured when they are created.
+ */
+public abstract class DomainException extends RuntimeException {
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class InvalidCredentialsException extends RuntimeException{
+public class InvalidCredentialsException extends DomainException {
     private static final String defaultMessage = "Invalid credentials";
 
     public InvalidCredentialsException() {
@@ -0,0 +1,13 @@
+package com.ugustavob.finsuppapi.exception;
+
+public class PasswordHashingUnavailableException extends DomainException {
+    private static final String DEFAULT_MESSAGE = "Authentication service is busy, please try again shortly";
+
+    public PasswordHashingUnavailableException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ugustavob.finsuppapi.exception;
+
+public class RecurringTransactionNotFoundException extends DomainException {
+    private static final String DEFAULT_MESSAGE = "Recurring transaction not found";
+
+    public RecurringTransactionNotFoundException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public RecurringTransactionNotFoundException(String message) {
+        super(message);
+    }
+}
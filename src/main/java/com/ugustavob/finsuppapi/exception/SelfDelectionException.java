@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class SelfDelectionException extends RuntimeException {
+public class SelfDelectionException extends DomainException {
     private static final String defaultMessage = "You can't delete yourself";
 
     public SelfDelectionException() {
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class SubscriptionAlreadyExistsException extends RuntimeException {
+public class SubscriptionAlreadyExistsException extends DomainException {
     public static final String DEFAULT_MESSAGE = "Subscription already exists for this card";
 
     public SubscriptionAlreadyExistsException() {
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class SubscriptionNotFoundException extends RuntimeException {
+public class SubscriptionNotFoundException extends DomainException {
     public static final String DEFAULT_MESSAGE = "Subscription not found";
 
     public SubscriptionNotFoundException() {
@@ -0,0 +1,13 @@
+package com.ugustavob.finsuppapi.exception;
+
+public class TransactionImportJobNotFoundException extends DomainException {
+    private static final String DEFAULT_MESSAGE = "Import job not found";
+
+    public TransactionImportJobNotFoundException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public TransactionImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class TransactionNotFoundException extends RuntimeException {
+public class TransactionNotFoundException extends DomainException {
     private static final String defaultMessage = "Transaction not found";
 
     public TransactionNotFoundException() {
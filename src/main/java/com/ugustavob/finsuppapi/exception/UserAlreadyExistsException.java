@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class UserAlreadyExistsException extends RuntimeException {
+public class UserAlreadyExistsException extends DomainException {
     private static final String defaultMessage = "User already exists";
 
     public UserAlreadyExistsException() {
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class UserAlreadyHasRoleException extends RuntimeException{
+public class UserAlreadyHasRoleException extends DomainException {
     public UserAlreadyHasRoleException() {
         super("User already has this role");
     }
@@ -0,0 +1,13 @@
+package com.ugustavob.finsuppapi.exception;
+
+public class UserDeletionJobNotFoundException extends DomainException {
+    private static final String DEFAULT_MESSAGE = "Deletion job not found";
+
+    public UserDeletionJobNotFoundException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public UserDeletionJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.ugustavob.finsuppapi.exception;
 
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends DomainException {
     private static final String defaultMessage = "User not found";
 
     public UserNotFoundException() {
@@ -0,0 +1,60 @@
+package com.ugustavob.finsuppapi.exception.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized error bodies keyed by status and message. Domain exceptions carry a small, fixed set of messages, so
+ * after warm-up a 401 or 404 is written from the same byte array instead of building and encoding a new
+ * {@link ErrorResponseDTO} every time. Messages beyond the cache bound are encoded on the fly.
+ */
+@Component
+@RequiredArgsConstructor
+public class EncodedErrorResponses {
+    private static final int MAX_ENTRIES = 512;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+
+    public ResponseEntity<byte[]> of(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(status, message));
+    }
+
+    public byte[] body(HttpStatus status, String message) {
+        String key = status.value() + ":" + message;
+        byte[] body = bodies.get(key);
+
+        if (body != null) {
+            return body;
+        }
+
+        body = encode(status, message);
+
+        if (bodies.size() < MAX_ENTRIES) {
+            bodies.putIfAbsent(key, body);
+        }
+        return body;
+    }
+
+    private byte[] encode(HttpStatus status, String message) {
+        try {
+            return objectMapper.writeValueAsBytes(ErrorResponseDTO.builder()
+                    .message(message)
+                    .code(status.value())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode error response", e);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
@@ -22,9 +23,11 @@ import java.util.List;
 public class ExceptionHandlerController {
 
     private final MessageSource messageSource;
+    private final EncodedErrorResponses encodedErrorResponses;
 
-    public ExceptionHandlerController(MessageSource messageSource) {
+    public ExceptionHandlerController(MessageSource messageSource, EncodedErrorResponses encodedErrorResponses) {
         this.messageSource = messageSource;
+        this.encodedErrorResponses = encodedErrorResponses;
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -43,125 +46,135 @@ public class ExceptionHandlerController {
     }
 
     @ExceptionHandler(InvalidCredentialsException.class)
-    public ResponseEntity<ErrorResponseDTO> handleInvalidCredentialsException(InvalidCredentialsException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(400).build(),
-                HttpStatus.BAD_REQUEST);
+    public ResponseEntity<byte[]> handleInvalidCredentialsException(InvalidCredentialsException e) {
+        return encodedErrorResponses.of(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler(SelfDelectionException.class)
-    public ResponseEntity<ErrorResponseDTO> handleSelfDelectionException(SelfDelectionException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(403).build(),
-                HttpStatus.FORBIDDEN);
+    public ResponseEntity<byte[]> handleSelfDelectionException(SelfDelectionException e) {
+        return encodedErrorResponses.of(HttpStatus.FORBIDDEN, e.getMessage());
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<byte[]> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(encodedErrorResponses.body(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
     }
 
 //  User Exceptions
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleUserNotFoundException(UserNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleUserNotFoundException(UserNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(UserDeletionJobNotFoundException.class)
+    public ResponseEntity<byte[]> handleUserDeletionJobNotFoundException(UserDeletionJobNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(UserAlreadyHasRoleException.class)
-    public ResponseEntity<ErrorResponseDTO> handleUserAlreadyHasRoleException(UserAlreadyHasRoleException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(400).build(),
-                HttpStatus.BAD_REQUEST);
+    public ResponseEntity<byte[]> handleUserAlreadyHasRoleException(UserAlreadyHasRoleException e) {
+        return encodedErrorResponses.of(HttpStatus.BAD_REQUEST, e.getMessage());
     }
 
     @ExceptionHandler(UserAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponseDTO> handleUserAlreadyExistsException(UserAlreadyExistsException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleUserAlreadyExistsException(UserAlreadyExistsException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
 //  Account Exceptions
     @ExceptionHandler(AccountAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponseDTO> handleAccountAlreadyExistsException(AccountAlreadyExistsException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleAccountAlreadyExistsException(AccountAlreadyExistsException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
     @ExceptionHandler(AccountNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleAccountNotFoundException(AccountNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleAccountNotFoundException(AccountNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(AccountCannotBeDeletedException.class)
-    public ResponseEntity<ErrorResponseDTO> handleAccountCannotBeDeletedException(AccountCannotBeDeletedException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleAccountCannotBeDeletedException(AccountCannotBeDeletedException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
 //  Category Exceptions
     @ExceptionHandler(CategoryDescriptionAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponseDTO> handleCategoryDescriptionAlreadyExistsException(CategoryDescriptionAlreadyExistsException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleCategoryDescriptionAlreadyExistsException(CategoryDescriptionAlreadyExistsException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
     @ExceptionHandler(CategoryNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleCategoryNotFoundException(CategoryNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleCategoryNotFoundException(CategoryNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(CategorizationRuleNotFoundException.class)
+    public ResponseEntity<byte[]> handleCategorizationRuleNotFoundException(CategorizationRuleNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
 //  Transaction Exceptions
     @ExceptionHandler(TransactionNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleTransactionNotFoundException(TransactionNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleTransactionNotFoundException(TransactionNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(RecurringTransactionNotFoundException.class)
+    public ResponseEntity<byte[]> handleRecurringTransactionNotFoundException(RecurringTransactionNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(TransactionImportJobNotFoundException.class)
+    public ResponseEntity<byte[]> handleTransactionImportJobNotFoundException(
+            TransactionImportJobNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
 //  Bill Exceptions
     @ExceptionHandler(BillNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleBillNotFoundException(BillNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleBillNotFoundException(BillNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(BillAreadyPaidException.class)
-    public ResponseEntity<ErrorResponseDTO> handleBillAreadyPaidException(BillAreadyPaidException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleBillAreadyPaidException(BillAreadyPaidException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
 //  Card Exceptions
     @ExceptionHandler(CardNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleCardNotFoundException(CardNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleCardNotFoundException(CardNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(CardAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponseDTO> handleCardAlreadyExistsException(CardAlreadyExistsException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleCardAlreadyExistsException(CardAlreadyExistsException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
 //  Subscription Exceptions
     @ExceptionHandler(SubscriptionNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleSubscriptionNotFoundException(SubscriptionNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleSubscriptionNotFoundException(SubscriptionNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(SubscriptionAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponseDTO> handleSubscriptionAlreadyExistsException(SubscriptionAlreadyExistsException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(409).build(),
-                HttpStatus.CONFLICT);
+    public ResponseEntity<byte[]> handleSubscriptionAlreadyExistsException(SubscriptionAlreadyExistsException e) {
+        return encodedErrorResponses.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
 //  Others Exceptions
     @ExceptionHandler(BankNotFoundException.class)
-    public ResponseEntity<ErrorResponseDTO> handleBankNotFoundException(BankNotFoundException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(404).build(),
-                HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleBankNotFoundException(BankNotFoundException e) {
+        return encodedErrorResponses.of(HttpStatus.NOT_FOUND, e.getMessage());
     }
 
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<ErrorResponseDTO> handleBusinessException(BusinessException e) {
-        return new ResponseEntity<>(ErrorResponseDTO.builder().message(e.getMessage()).code(422).build(),
-                HttpStatus.UNPROCESSABLE_ENTITY);
+    public ResponseEntity<byte[]> handleBusinessException(BusinessException e) {
+        return encodedErrorResponses.of(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
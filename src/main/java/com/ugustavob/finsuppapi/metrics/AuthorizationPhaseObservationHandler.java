@@ -0,0 +1,42 @@
+package com.ugustavob.finsuppapi.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.authorization.AuthorizationObservationContext;
+import org.springframework.security.authorization.method.MethodInvocationResult;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes the time spent evaluating method security (e.g. {@code @PreAuthorize}) to the authorization phase of the
+ * current sampled request. Method security observes each decision through the {@code ObservationRegistry}, so this
+ * only listens to those observations and leaves the framework's interceptors, expression handler and role hierarchy
+ * as they are. Decisions of the filter chain are not counted: they happen before the handler phase.
+ */
+@Component
+public class AuthorizationPhaseObservationHandler implements ObservationHandler<AuthorizationObservationContext<?>> {
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof AuthorizationObservationContext<?> authorization
+                && (authorization.getObject() instanceof MethodInvocation
+                || authorization.getObject() instanceof MethodInvocationResult);
+    }
+
+    @Override
+    public void onStart(AuthorizationObservationContext<?> context) {
+        if (RequestPhases.current() != null) {
+            context.put(RequestPhases.Mark.class, RequestPhases.mark());
+        }
+    }
+
+    @Override
+    public void onStop(AuthorizationObservationContext<?> context) {
+        RequestPhases phases = RequestPhases.current();
+        RequestPhases.Mark start = context.get(RequestPhases.Mark.class);
+
+        if (phases != null && start != null) {
+            phases.record(RequestPhase.AUTHORIZATION, start);
+        }
+    }
+}
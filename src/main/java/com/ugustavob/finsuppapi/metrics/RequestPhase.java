@@ -0,0 +1,19 @@
+package com.ugustavob.finsuppapi.metrics;
+
+public enum RequestPhase {
+    JWT_VERIFICATION("jwt_verification"),
+    USER_LOOKUP("user_lookup"),
+    AUTHORIZATION("authorization"),
+    HANDLER("handler"),
+    TOTAL("total");
+
+    private final String tag;
+
+    RequestPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
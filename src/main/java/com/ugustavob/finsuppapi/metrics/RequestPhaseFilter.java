@@ -0,0 +1,90 @@
+package com.ugustavob.finsuppapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts phase tracking for a sample of requests, ahead of the security filter chain, and publishes the breakdown
+ * once the response is complete. Phases are filled in by {@code SecurityFilter},
+ * {@link AuthorizationPhaseObservationHandler} and {@link RequestPhaseInterceptor}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class RequestPhaseFilter extends OncePerRequestFilter {
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.request-phases.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.metrics.request-phases.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestPhases phases = new RequestPhases();
+        request.setAttribute(RequestPhases.ATTRIBUTE, phases);
+        RequestPhases.Mark start = RequestPhases.mark();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            phases.record(RequestPhase.TOTAL, start);
+            publish(phases, request, response);
+        }
+    }
+
+    private void publish(RequestPhases phases, HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        String status = String.valueOf(response.getStatus());
+
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (!phases.isRecorded(phase)) {
+                continue;
+            }
+
+            Timer.builder("http.server.request.phase")
+                    .description("Time spent per phase of the request, sampled")
+                    .tag("phase", phase.tag())
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(phases.nanos(phase), TimeUnit.NANOSECONDS);
+
+            DistributionSummary.builder("http.server.request.phase.allocated")
+                    .description("Bytes allocated on the request thread per phase, sampled")
+                    .baseUnit("bytes")
+                    .tag("phase", phase.tag())
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(phases.bytes(phase));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ugustavob.finsuppapi.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Measures the handler phase of sampled requests. Method security runs inside the handler invocation, so the time
+ * already attributed to authorization is taken out of the handler phase.
+ */
+@Component
+public class RequestPhaseInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = RequestPhaseInterceptor.class.getName() + ".start";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (RequestPhases.of(request) != null) {
+            request.setAttribute(START_ATTRIBUTE, RequestPhases.mark());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestPhases phases = RequestPhases.of(request);
+
+        if (phases != null && request.getAttribute(START_ATTRIBUTE) instanceof RequestPhases.Mark start) {
+            phases.record(RequestPhase.HANDLER, start);
+            phases.exclude(RequestPhase.HANDLER, RequestPhase.AUTHORIZATION);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ugustavob.finsuppapi.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Time and bytes allocated per phase of a sampled request. Allocation is read from the per-thread counter of the
+ * HotSpot {@code ThreadMXBean}, so a phase only accounts for work done on the request thread. Requests that are not
+ * sampled carry no instance and every hook is a null check.
+ */
+public final class RequestPhases {
+    static final String ATTRIBUTE = RequestPhases.class.getName();
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private final long[] nanos = new long[RequestPhase.values().length];
+    private final long[] bytes = new long[RequestPhase.values().length];
+    private int recorded;
+
+    public static RequestPhases of(HttpServletRequest request) {
+        return (RequestPhases) request.getAttribute(ATTRIBUTE);
+    }
+
+    public static RequestPhases current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+                : (RequestPhases) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public static Mark mark() {
+        return new Mark(System.nanoTime(), allocatedBytes());
+    }
+
+    public void record(RequestPhase phase, Mark start) {
+        nanos[phase.ordinal()] += System.nanoTime() - start.nanos();
+        bytes[phase.ordinal()] += allocatedBytes() - start.bytes();
+        recorded |= 1 << phase.ordinal();
+    }
+
+    void exclude(RequestPhase phase, RequestPhase nested) {
+        nanos[phase.ordinal()] = Math.max(0, nanos[phase.ordinal()] - nanos[nested.ordinal()]);
+        bytes[phase.ordinal()] = Math.max(0, bytes[phase.ordinal()] - bytes[nested.ordinal()]);
+    }
+
+    boolean isRecorded(RequestPhase phase) {
+        return (recorded & (1 << phase.ordinal())) != 0;
+    }
+
+    long nanos(RequestPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    long bytes(RequestPhase phase) {
+        return bytes[phase.ordinal()];
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    public record Mark(long nanos, long bytes) {
+    }
+}
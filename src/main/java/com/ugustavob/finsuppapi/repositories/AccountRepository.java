@@ -5,7 +5,9 @@ import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +24,29 @@ public interface AccountRepository extends JpaRepository<AccountEntity, Integer>
 
     boolean existsByUserId(UUID userId);
 
+    /**
+     * Returns which of the two ids exist, with {@code accountId} only counted when it belongs to {@code userId}: one
+     * statement to resolve both accounts of a new transaction and check the ownership of the source account.
+     */
+    @Query(value = "SELECT id FROM accounts WHERE (id = :accountId AND user_id = :userId) " +
+            "OR id = CAST(:recipientId AS INTEGER)", nativeQuery = true)
+    List<Integer> findTransactionAccountIds(@Param("accountId") Integer accountId,
+                                            @Param("recipientId") Integer recipientId,
+                                            @Param("userId") UUID userId);
+
+    /**
+     * Returns {@code id, owned} for each of the given accounts that exists, where {@code owned} tells whether it
+     * belongs to {@code userId}.
+     */
+    @Query(value = "SELECT id, user_id = :userId FROM accounts WHERE id IN (:ids)", nativeQuery = true)
+    List<Object[]> findOwnership(@Param("ids") Collection<Integer> ids, @Param("userId") UUID userId);
+
+    @Query(value = "SELECT id FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockInIdOrder(@Param("ids") List<Integer> ids);
+
+    @Query(value = "SELECT id, balance FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockBalancesInIdOrder(@Param("ids") Collection<Integer> ids);
+
     default Optional<AccountEntity> deleteByIdAndReturnEntity(Integer id) {
         Optional<AccountEntity> account = findById(id);
 
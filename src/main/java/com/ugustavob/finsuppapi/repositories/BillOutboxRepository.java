@@ -0,0 +1,51 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.bill.BillOutboxEventEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillOutboxStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BillOutboxRepository extends JpaRepository<BillOutboxEventEntity, Long> {
+    /**
+     * Claims up to {@code limit} events, at most one per account: an event is only eligible while no older event of
+     * the same account is still pending or being processed, so the events of an account are applied in order.
+     * Events whose lease expired are claimed again; rows locked by another worker are skipped.
+     */
+    @Transactional
+    @Query(value = "UPDATE bill_outbox SET status = 'PROCESSING', attempts = attempts + 1, locked_until = :until " +
+            "WHERE id IN (SELECT o.id FROM bill_outbox o " +
+            "WHERE ((o.status = 'PENDING' AND o.available_at <= :now) " +
+            "OR (o.status = 'PROCESSING' AND o.locked_until < :now)) " +
+            "AND NOT EXISTS (SELECT 1 FROM bill_outbox e WHERE e.account_id = o.account_id AND e.id < o.id " +
+            "AND e.status IN ('PENDING', 'PROCESSING')) " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *", nativeQuery = true)
+    List<BillOutboxEventEntity> claim(@Param("now") LocalDateTime now, @Param("until") LocalDateTime until,
+                                      @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BillOutboxEventEntity e SET e.status = com.ugustavob.finsuppapi.entities.bill.BillOutboxStatus.DONE, " +
+            "e.error = null, e.lockedUntil = null, e.processedAt = :now WHERE e.id IN :ids")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BillOutboxEventEntity e SET e.status = :status, e.error = :error, e.lockedUntil = null, " +
+            "e.availableAt = :availableAt, e.processedAt = :processedAt WHERE e.id = :id")
+    int release(@Param("id") Long id, @Param("status") BillOutboxStatus status, @Param("error") String error,
+                @Param("availableAt") LocalDateTime availableAt, @Param("processedAt") LocalDateTime processedAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM bill_outbox WHERE id IN (SELECT id FROM bill_outbox WHERE status = 'DONE' " +
+            "AND processed_at < :before LIMIT :limit)", nativeQuery = true)
+    int deleteProcessed(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -61,13 +61,4 @@ public interface BillRepository extends JpaRepository<BillEntity, Integer>, JpaS
         return (bill.getStartDate().getMonthValue() == month && bill.getStartDate().getYear() == year);
     }
 
-    @Query("SELECT b FROM BillEntity b " +
-            "WHERE MONTH(b.startDate) = :month " +
-            "AND YEAR(b.startDate) = :year " +
-            "AND b.account.user.id = :userId")
-    Optional<BillEntity> findByStartDateMonthAndStartDateYearAndUserId(
-            @Param("month") int month,
-            @Param("year") int year,
-            @Param("userId") UUID userId);
-
 }
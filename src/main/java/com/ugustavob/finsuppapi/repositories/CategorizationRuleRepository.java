@@ -0,0 +1,27 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.categories.CategorizationMatchType;
+import com.ugustavob.finsuppapi.entities.categories.CategorizationRuleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CategorizationRuleRepository extends JpaRepository<CategorizationRuleEntity, Integer> {
+    List<CategorizationRuleEntity> findByUserIdOrderById(UUID userId);
+
+    List<CategorizationRuleEntity> findByUserIdIsNullOrderById();
+
+    Optional<CategorizationRuleEntity> findByIdAndUserId(Integer id, UUID userId);
+
+    Optional<CategorizationRuleEntity> findByIdAndUserIdIsNull(Integer id);
+
+    long countByUserIdAndMatchType(UUID userId, CategorizationMatchType matchType);
+
+    @Query("SELECT r FROM CategorizationRuleEntity r WHERE r.userId = :userId OR r.userId IS NULL " +
+            "ORDER BY r.priority DESC, r.id")
+    List<CategorizationRuleEntity> findVisibleToUser(@Param("userId") UUID userId);
+}
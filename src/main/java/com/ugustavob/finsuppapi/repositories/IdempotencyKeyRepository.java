@@ -0,0 +1,64 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.idempotency.IdempotencyKeyEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+    /**
+     * Claims the key for a new execution. An existing row is only taken over when it has expired or when its
+     * execution was abandoned (still in progress with no heartbeat since {@code staleBefore}).
+     */
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (id, user_id, fingerprint, status, created_at, expires_at, " +
+            "heartbeat_at) VALUES (:id, :userId, :fingerprint, 'IN_PROGRESS', :now, :expiresAt, :now) " +
+            "ON CONFLICT (id) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = 'IN_PROGRESS', " +
+            "response_status = NULL, content_type = NULL, location = NULL, response_body = NULL, " +
+            "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at, " +
+            "heartbeat_at = EXCLUDED.heartbeat_at " +
+            "WHERE idempotency_keys.expires_at < :now " +
+            "OR (idempotency_keys.status = 'IN_PROGRESS' AND idempotency_keys.heartbeat_at < :staleBefore) " +
+            "RETURNING id", nativeQuery = true)
+    Optional<String> tryAcquire(@Param("id") String id,
+                                @Param("userId") UUID userId,
+                                @Param("fingerprint") String fingerprint,
+                                @Param("now") LocalDateTime now,
+                                @Param("expiresAt") LocalDateTime expiresAt,
+                                @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Keeps a running execution's claim from being taken over. The claim is identified by its {@code created_at}, so
+     * a claim that was taken over anyway is not refreshed on behalf of its new owner.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET heartbeat_at = :now WHERE id = :id AND created_at = :claimedAt " +
+            "AND status = 'IN_PROGRESS'", nativeQuery = true)
+    int heartbeat(@Param("id") String id,
+                  @Param("claimedAt") LocalDateTime claimedAt,
+                  @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = com.ugustavob.finsuppapi.entities.idempotency.IdempotencyStatus.COMPLETED, " +
+            "k.responseStatus = :responseStatus, k.contentType = :contentType, k.location = :location, " +
+            "k.responseBody = :responseBody WHERE k.id = :id")
+    int complete(@Param("id") String id,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType,
+                 @Param("location") String location,
+                 @Param("responseBody") byte[] responseBody);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE id IN " +
+            "(SELECT id FROM idempotency_keys WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
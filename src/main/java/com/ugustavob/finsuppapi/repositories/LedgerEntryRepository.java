@@ -0,0 +1,90 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.ledger.LedgerEntryEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Each posting is one statement: the {@code UPDATE} of the account keeps {@code accounts.balance} up to date and hands
+ * out the next {@code ledger_seq} under the row lock it already takes, and the entry is inserted from its result.
+ * Postings return the sequence number of the new entry, or nothing when the account does not exist (or, for
+ * {@link #debit}, has insufficient funds). {@link #append} takes a signed amount and does not check the balance.
+ */
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, Long> {
+    @Transactional
+    @Query(value = "WITH account AS (UPDATE accounts SET balance = balance + :amount, ledger_seq = ledger_seq + 1 " +
+            "WHERE id = :accountId RETURNING id, ledger_seq) " +
+            "INSERT INTO ledger_entries (account_id, seq, amount, entry_type, transaction_id, " +
+            "counterparty_account_id, created_at) " +
+            "SELECT id, ledger_seq, :amount, :entryType, CAST(:transactionId AS INTEGER), " +
+            "CAST(:counterpartyId AS INTEGER), :now FROM account RETURNING seq", nativeQuery = true)
+    Optional<Long> append(@Param("accountId") Integer accountId, @Param("amount") long amount,
+                          @Param("entryType") String entryType, @Param("transactionId") Integer transactionId,
+                          @Param("counterpartyId") Integer counterpartyId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Query(value = "WITH account AS (UPDATE accounts SET balance = balance - :amount, ledger_seq = ledger_seq + 1 " +
+            "WHERE id = :accountId AND balance >= :amount RETURNING id, ledger_seq) " +
+            "INSERT INTO ledger_entries (account_id, seq, amount, entry_type, transaction_id, " +
+            "counterparty_account_id, created_at) " +
+            "SELECT id, ledger_seq, -:amount, :entryType, CAST(:transactionId AS INTEGER), " +
+            "CAST(:counterpartyId AS INTEGER), :now FROM account RETURNING seq", nativeQuery = true)
+    Optional<Long> debit(@Param("accountId") Integer accountId, @Param("amount") long amount,
+                         @Param("entryType") String entryType, @Param("transactionId") Integer transactionId,
+                         @Param("counterpartyId") Integer counterpartyId, @Param("now") LocalDateTime now);
+
+    /**
+     * Sets the balance to {@code balance} and records the difference as an {@code ADJUSTMENT}. The old balance is read
+     * under the same row lock, so a concurrent posting is never lost.
+     */
+    @Transactional
+    @Query(value = "WITH old AS (SELECT id, balance FROM accounts WHERE id = :accountId FOR UPDATE), " +
+            "account AS (UPDATE accounts a SET balance = :balance, ledger_seq = a.ledger_seq + 1 FROM old " +
+            "WHERE a.id = old.id RETURNING a.id, a.ledger_seq, :balance - old.balance AS amount) " +
+            "INSERT INTO ledger_entries (account_id, seq, amount, entry_type, created_at) " +
+            "SELECT id, ledger_seq, amount, 'ADJUSTMENT', :now FROM account RETURNING seq", nativeQuery = true)
+    Optional<Long> adjustTo(@Param("accountId") Integer accountId, @Param("balance") long balance,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Records the balance a new account was created with as its first entry.
+     */
+    @Transactional
+    @Query(value = "WITH account AS (UPDATE accounts SET ledger_seq = ledger_seq + 1 WHERE id = :accountId " +
+            "RETURNING id, ledger_seq, balance) " +
+            "INSERT INTO ledger_entries (account_id, seq, amount, entry_type, created_at) " +
+            "SELECT id, ledger_seq, balance, 'OPENING', :now FROM account RETURNING seq", nativeQuery = true)
+    Optional<Long> open(@Param("accountId") Integer accountId, @Param("now") LocalDateTime now);
+
+    /**
+     * Balance of the account over the entries created before {@code until}: the last snapshot whose entries all
+     * precede it, looked up by {@code (account_id, as_of)}, plus the entries that follow it,
+     * which are at most the entries of one snapshot interval.
+     */
+    @Query(value = "SELECT CAST(COALESCE(s.balance, 0) + COALESCE((SELECT SUM(l.amount) " +
+            "FROM ledger_entries l WHERE l.account_id = :accountId AND l.seq > COALESCE(s.seq, 0) " +
+            "AND l.created_at < :until), 0) AS BIGINT) " +
+            "FROM (SELECT 1) one LEFT JOIN LATERAL (SELECT b.seq, b.balance FROM account_balance_snapshots b " +
+            "WHERE b.account_id = :accountId AND b.as_of < :until " +
+            "ORDER BY b.as_of DESC, b.seq DESC LIMIT 1) s ON TRUE", nativeQuery = true)
+    long balanceAt(@Param("accountId") Integer accountId, @Param("until") LocalDateTime until);
+
+    /**
+     * One row of {@code balance, ledger_seq, ledger balance, entries since the last snapshot, seq of the last
+     * snapshot} for the account, read in one statement so all values are consistent with each other.
+     */
+    @Query(value = "SELECT a.balance, a.ledger_seq, " +
+            "COALESCE(s.balance, 0) + COALESCE(SUM(l.amount), 0), COUNT(l.id), COALESCE(s.seq, 0) " +
+            "FROM accounts a " +
+            "LEFT JOIN LATERAL (SELECT b.seq, b.balance FROM account_balance_snapshots b " +
+            "WHERE b.account_id = a.id ORDER BY b.seq DESC LIMIT 1) s ON TRUE " +
+            "LEFT JOIN ledger_entries l ON l.account_id = a.id AND l.seq > COALESCE(s.seq, 0) " +
+            "WHERE a.id = :accountId GROUP BY a.balance, a.ledger_seq, s.balance, s.seq", nativeQuery = true)
+    List<Object[]> reconcile(@Param("accountId") Integer accountId);
+}
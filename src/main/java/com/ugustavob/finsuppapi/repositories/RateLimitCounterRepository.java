@@ -0,0 +1,26 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.ratelimit.RateLimitCounterEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RateLimitCounterRepository extends JpaRepository<RateLimitCounterEntity, String> {
+    @Transactional
+    @Query(value = "INSERT INTO rate_limit_counters (bucket_key, window_start, consumed) " +
+            "VALUES (:key, :window, :batch) " +
+            "ON CONFLICT (bucket_key) DO UPDATE SET " +
+            "window_start = EXCLUDED.window_start, " +
+            "consumed = CASE WHEN rate_limit_counters.window_start = EXCLUDED.window_start " +
+            "THEN rate_limit_counters.consumed + EXCLUDED.consumed ELSE EXCLUDED.consumed END " +
+            "WHERE rate_limit_counters.window_start < EXCLUDED.window_start " +
+            "OR rate_limit_counters.consumed + EXCLUDED.consumed <= :limit " +
+            "RETURNING consumed", nativeQuery = true)
+    Optional<Long> leaseTokens(@Param("key") String key,
+                               @Param("window") long window,
+                               @Param("batch") long batch,
+                               @Param("limit") long limit);
+}
@@ -0,0 +1,53 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RecurringTransactionRepository extends JpaRepository<RecurringTransactionEntity, Integer> {
+    List<RecurringTransactionEntity> findByUserIdOrderById(UUID userId);
+
+    Optional<RecurringTransactionEntity> findByIdAndUserId(Integer id, UUID userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringTransactionEntity r WHERE r.id = :id")
+    Optional<RecurringTransactionEntity> lockById(@Param("id") Integer id);
+
+    /**
+     * Claims up to {@code limit} active definitions whose next occurrence is on or before {@code horizon} and that no
+     * other node holds. Each claimed definition is leased until {@code lease} after its occurrence (or after
+     * {@code now}, when already due), so a node that dies only delays its occurrences by the lease. The subquery has
+     * the shape of the partial {@code idx_recurring_transactions_due} index ({@code next_date, id} of active rows);
+     * rows locked by another node are skipped.
+     */
+    @Transactional
+    @Query(value = "UPDATE recurring_transactions r " +
+            "SET locked_until = GREATEST(CAST(r.next_date AS TIMESTAMP), :now) + :leaseSeconds * INTERVAL '1 second' " +
+            "WHERE r.id IN (SELECT c.id FROM recurring_transactions c " +
+            "WHERE c.status = 'ACTIVE' AND c.next_date <= :horizon " +
+            "AND (c.locked_until IS NULL OR c.locked_until < :now) " +
+            "ORDER BY c.next_date, c.id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *", nativeQuery = true)
+    List<RecurringTransactionEntity> claim(@Param("horizon") LocalDate horizon, @Param("now") LocalDateTime now,
+                                           @Param("leaseSeconds") long leaseSeconds, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RecurringTransactionEntity r SET r.attempts = r.attempts + 1, r.lastError = :error, " +
+            "r.lockedUntil = :retryAt, r.status = CASE WHEN r.attempts + 1 >= :maxAttempts " +
+            "THEN com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionStatus.FAILED " +
+            "ELSE r.status END WHERE r.id = :id")
+    int recordFailure(@Param("id") Integer id, @Param("error") String error,
+                      @Param("retryAt") LocalDateTime retryAt, @Param("maxAttempts") int maxAttempts);
+}
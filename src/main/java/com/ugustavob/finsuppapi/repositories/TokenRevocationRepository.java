@@ -0,0 +1,17 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.user.TokenRevocationEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocationEntity, UUID> {
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocationEntity t WHERE t.revokedBefore < :cutoff")
+    int deleteOlderThan(@Param("cutoff") long cutoff);
+}
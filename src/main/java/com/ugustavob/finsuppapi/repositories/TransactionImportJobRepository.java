@@ -0,0 +1,48 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportJobEntity;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TransactionImportJobRepository extends JpaRepository<TransactionImportJobEntity, UUID> {
+    Optional<TransactionImportJobEntity> findByIdAndUserId(UUID id, UUID userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TransactionImportJobEntity j SET j.status = :status, j.updatedAt = :now WHERE j.id = :id")
+    int updateStatus(@Param("id") UUID id, @Param("status") TransactionImportStatus status,
+                     @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TransactionImportJobEntity j SET j.processedRows = j.processedRows + :processed, " +
+            "j.importedRows = j.importedRows + :imported, j.rejectedRows = j.rejectedRows + :rejected, " +
+            "j.skippedRows = j.skippedRows + :skipped, j.bytesRead = :bytesRead, j.updatedAt = :now " +
+            "WHERE j.id = :id")
+    int recordProgress(@Param("id") UUID id, @Param("processed") long processed, @Param("imported") long imported,
+                       @Param("rejected") long rejected, @Param("skipped") long skipped,
+                       @Param("bytesRead") long bytesRead, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TransactionImportJobEntity j SET j.status = :status, j.error = :error, j.updatedAt = :now " +
+            "WHERE j.id = :id")
+    int finish(@Param("id") UUID id, @Param("status") TransactionImportStatus status, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TransactionImportJobEntity j SET j.status = com.ugustavob.finsuppapi.entities.transaction.TransactionImportStatus.FAILED, " +
+            "j.error = :error, j.updatedAt = :now WHERE j.status IN :statuses")
+    int failAll(@Param("statuses") Collection<TransactionImportStatus> statuses, @Param("error") String error,
+                @Param("now") LocalDateTime now);
+}
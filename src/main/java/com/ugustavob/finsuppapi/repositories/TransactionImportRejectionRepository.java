@@ -0,0 +1,12 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportRejectionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionImportRejectionRepository extends JpaRepository<TransactionImportRejectionEntity, Long> {
+    List<TransactionImportRejectionEntity> findByJobIdOrderByRowNumber(UUID jobId, Pageable pageable);
+}
@@ -1,13 +1,20 @@
 package com.ugustavob.finsuppapi.repositories;
 
+import com.ugustavob.finsuppapi.entities.transaction.BillPropagationStatus;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -42,4 +49,13 @@ public interface TransactionRepository extends JpaRepository<TransactionEntity,
 
     @Query("SELECT COUNT(t) > 0 FROM TransactionEntity t WHERE t.account.id = :accountId")
     boolean existsByAccountId(@Param("accountId") Integer accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TransactionEntity t WHERE t.id IN :ids ORDER BY t.id")
+    List<TransactionEntity> lockAllById(@Param("ids") Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TransactionEntity t SET t.billStatus = :status WHERE t.id = :id")
+    int updateBillStatus(@Param("id") Integer id, @Param("status") BillPropagationStatus status);
 }
@@ -0,0 +1,42 @@
+package com.ugustavob.finsuppapi.repositories;
+
+import com.ugustavob.finsuppapi.entities.user.UserDeletionJobEntity;
+import com.ugustavob.finsuppapi.entities.user.UserDeletionStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserDeletionJobRepository extends JpaRepository<UserDeletionJobEntity, UUID> {
+    Optional<UserDeletionJobEntity> findFirstByUserIdAndStatusIn(UUID userId, Collection<UserDeletionStatus> statuses);
+
+    List<UserDeletionJobEntity> findByStatusInOrderByCreatedAt(Collection<UserDeletionStatus> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeletionJobEntity j SET j.status = com.ugustavob.finsuppapi.entities.user.UserDeletionStatus.RUNNING, " +
+            "j.lockedUntil = :until, j.updatedAt = :now " +
+            "WHERE j.id = :id AND (j.lockedUntil IS NULL OR j.lockedUntil < :now)")
+    int claim(@Param("id") UUID id, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeletionJobEntity j SET j.phase = :phase, j.deletedRows = j.deletedRows + :deleted, " +
+            "j.lockedUntil = :until, j.updatedAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") UUID id, @Param("phase") String phase, @Param("deleted") long deleted,
+                       @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDeletionJobEntity j SET j.status = :status, j.error = :error, j.lockedUntil = null, " +
+            "j.updatedAt = :now WHERE j.id = :id")
+    int finish(@Param("id") UUID id, @Param("status") UserDeletionStatus status, @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
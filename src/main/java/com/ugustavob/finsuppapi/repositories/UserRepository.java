@@ -1,8 +1,14 @@
 package com.ugustavob.finsuppapi.repositories;
 
+import com.ugustavob.finsuppapi.dto.users.GetUserResponseDTO;
 import com.ugustavob.finsuppapi.entities.user.UserEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,6 +18,29 @@ public interface UserRepository extends JpaRepository<UserEntity, String> {
     Optional<UserEntity> findByEmail(String email);
     void deleteById(UUID id);
 
+    @Query("SELECT new com.ugustavob.finsuppapi.dto.users.GetUserResponseDTO(u.id, u.name, u.email) " +
+            "FROM UserEntity u WHERE u.email > :afterEmail AND u.email LIKE :emailPattern ESCAPE '\\' " +
+            "ORDER BY u.email")
+    List<GetUserResponseDTO> findPageOrderedByEmail(@Param("afterEmail") String afterEmail,
+                                                    @Param("emailPattern") String emailPattern,
+                                                    Limit limit);
+
+    @Query("SELECT new com.ugustavob.finsuppapi.dto.users.GetUserResponseDTO(u.id, u.name, u.email) " +
+            "FROM UserEntity u WHERE u.id > :afterId AND u.email LIKE :emailPattern ESCAPE '\\' " +
+            "ORDER BY u.id")
+    List<GetUserResponseDTO> findPageOrderedById(@Param("afterId") UUID afterId,
+                                                 @Param("emailPattern") String emailPattern,
+                                                 Limit limit);
+
+    @Query("SELECT COUNT(u) FROM UserEntity u WHERE u.email LIKE :emailPattern ESCAPE '\\'")
+    long countByEmailPattern(@Param("emailPattern") String emailPattern);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id, r FROM UserEntity u JOIN u.role r WHERE u.id IN :ids")
+    List<Object[]> findRolesByUserIds(@Param("ids") Collection<UUID> ids);
+
     default Optional<UserEntity> deleteByIdAndReturnEntity(UUID uuid) {
         Optional<UserEntity> user = findById(uuid);
 
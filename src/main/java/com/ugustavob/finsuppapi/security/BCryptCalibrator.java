@@ -0,0 +1,47 @@
+package com.ugustavob.finsuppapi.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@Slf4j
+public class BCryptCalibrator {
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private BCryptCalibrator() {
+    }
+
+    /**
+     * Picks the highest BCrypt cost whose hash time stays within the target on this machine. The time is measured
+     * once at the minimum cost and extrapolated, since every extra cost unit doubles the work.
+     */
+    public static int calibrate(long targetLatencyMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        int strength = minStrength;
+        while (strength < maxStrength && elapsedMs * 2 <= targetLatencyMs) {
+            strength++;
+            elapsedMs *= 2;
+        }
+
+        log.info("BCrypt cost calibrated to {} (~{} ms per hash, target {} ms)", strength, Math.round(elapsedMs),
+                targetLatencyMs);
+        return strength;
+    }
+
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.ugustavob.finsuppapi.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.ugustavob.finsuppapi.dto.ErrorResponseDTO;
+import com.ugustavob.finsuppapi.exception.handler.EncodedErrorResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
@@ -11,9 +12,10 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 
 @Component
+@RequiredArgsConstructor
 public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EncodedErrorResponses encodedErrorResponses;
 
     @Override
     public void commence(
@@ -21,15 +23,11 @@ public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint
             HttpServletResponse response,
             AuthenticationException authException
     ) throws IOException {
-
-        ErrorResponseDTO error = ErrorResponseDTO.builder()
-                .message("Unauthorized")
-                .code(401).build();
-
-        String jsonResponse = objectMapper.writeValueAsString(error);
+        byte[] body = encodedErrorResponses.body(HttpStatus.UNAUTHORIZED, "Unauthorized");
 
         response.setContentType("application/json;charset=UTF-8");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.getWriter().write(jsonResponse);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 }
@@ -25,7 +25,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         UserEntity user = userRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("User " +
                 "not found"));
-        return new User(user.getEmail(), user.getPassword(),
+        return new User(user.getEmail(), user.getPassword(), !user.isDisabled(), true, true, true,
                 new ArrayList<>());
     }
 }
@@ -0,0 +1,392 @@
+package com.ugustavob.finsuppapi.security;
+
+import com.ugustavob.finsuppapi.exception.handler.EncodedErrorResponses;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Makes authenticated writes sent with an {@code Idempotency-Key} header safe to retry. The first request with a key
+ * runs normally and its response is stored; retries get the stored status, headers and body back byte-for-byte
+ * (marked with {@code Idempotent-Replayed: true}) without running the handler again. Reusing a key with a different
+ * method, path or body is rejected with 422; for multipart requests the body is compared part by part. Responses with
+ * a 5xx status are not stored, so those can be retried.
+ * <p>
+ * Other bodies are hashed while they are copied aside for the handler, in memory up to
+ * {@code app.idempotency.memory-threshold-bytes} and in a temporary file beyond that, so a large streamed upload does
+ * not sit on the heap. Bodies over {@code app.idempotency.max-body-bytes} are rejected with 413.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final EncodedErrorResponses encodedErrorResponses;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.memory-threshold-bytes:65536}")
+    private int memoryThresholdBytes;
+
+    @Value("${app.idempotency.max-body-bytes:52428800}")
+    private long maxBodyBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+
+        return !enabled || request.getHeader(HEADER) == null || HttpMethod.GET.matches(method)
+                || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UUID userId = (UUID) request.getAttribute("id");
+
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER).trim();
+
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must have between 1 and " +
+                    MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        if (isMultipart(request)) {
+            Collection<Part> parts;
+            try {
+                parts = request.getParts();
+            } catch (IllegalStateException | ServletException e) {
+                // Too large or malformed: the multipart resolver rejects it the same way, and nothing runs.
+                filterChain.doFilter(request, response);
+                return;
+            }
+            handle(request, response, filterChain, userId, key, fingerprint(request, parts));
+            return;
+        }
+
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            writeBodyTooLarge(response);
+            return;
+        }
+
+        MessageDigest digest = requestLineDigest(request);
+        SpooledBody body = spool(request.getInputStream(), digest);
+
+        if (body == null) {
+            writeBodyTooLarge(response);
+            return;
+        }
+
+        try {
+            handle(new CachedBodyRequest(request, body), response, filterChain, userId, key,
+                    HexFormat.of().formatHex(digest.digest()));
+        } finally {
+            body.discard();
+        }
+    }
+
+    private void handle(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                        UUID userId, String key, String fingerprint) throws ServletException, IOException {
+        IdempotencyService.Claim claim;
+        try {
+            claim = idempotencyService.claim(userId, key, fingerprint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+            return;
+        }
+
+        switch (claim.outcome()) {
+            case REPLAY -> replay(response, claim.response());
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+            case EXECUTE -> execute(request, response, filterChain, claim);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyService.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+
+        try {
+            filterChain.doFilter(request, wrapper);
+
+            if (wrapper.getStatus() < 500) {
+                idempotencyService.complete(claim, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray());
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.abandon(claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyService.StoredResponse stored) throws IOException {
+        byte[] body = stored.body() == null ? new byte[0] : stored.body();
+
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void writeBodyTooLarge(HttpServletResponse response) throws IOException {
+        writeError(response, HttpStatus.CONTENT_TOO_LARGE, "Requests with an Idempotency-Key can have at most " +
+                maxBodyBytes + " bytes of body");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = encodedErrorResponses.body(status, message);
+
+        response.setStatus(status.value());
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    /**
+     * Copies the body aside while adding it to {@code digest}, or returns {@code null} once it exceeds
+     * {@code maxBodyBytes}. The copy stays in memory up to {@code memoryThresholdBytes} and moves to a temporary file
+     * past that.
+     */
+    private SpooledBody spool(InputStream in, MessageDigest digest) throws IOException {
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        OutputStream out = memory;
+        Path file = null;
+        byte[] buffer = new byte[8192];
+        long length = 0;
+        boolean complete = false;
+
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                length += read;
+                if (length > maxBodyBytes) {
+                    return null;
+                }
+                digest.update(buffer, 0, read);
+
+                if (file == null && length > memoryThresholdBytes) {
+                    file = Files.createTempFile("idempotency-", ".body");
+                    out = Files.newOutputStream(file);
+                    memory.writeTo(out);
+                }
+                out.write(buffer, 0, read);
+            }
+            complete = true;
+        } finally {
+            out.close();
+            if (!complete && file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        return file == null ? new SpooledBody(memory.toByteArray(), null, length)
+                : new SpooledBody(null, file, length);
+    }
+
+    /**
+     * Multipart bodies are read through the parsed parts instead of the raw stream, which the multipart resolver
+     * still needs. Each part contributes its name, file name, content type and content, in request order, so the
+     * boundary chosen by the client does not change the fingerprint.
+     */
+    private String fingerprint(HttpServletRequest request, Collection<Part> parts) throws IOException {
+        MessageDigest digest = requestLineDigest(request);
+        byte[] buffer = new byte[8192];
+
+        for (Part part : parts) {
+            updateField(digest, part.getName());
+            updateField(digest, part.getSubmittedFileName());
+            updateField(digest, part.getContentType());
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(part.getSize()).array());
+
+            try (InputStream in = part.getInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private MessageDigest requestLineDigest(HttpServletRequest request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ' ');
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+
+        if (request.getQueryString() != null) {
+            digest.update((byte) '?');
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        digest.update((byte) '\n');
+        return digest;
+    }
+
+    private void updateField(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private record SpooledBody(byte[] bytes, Path file, long length) {
+        InputStream open() throws IOException {
+            return file == null ? new ByteArrayInputStream(bytes) : Files.newInputStream(file);
+        }
+
+        void discard() {
+            if (file == null) {
+                return;
+            }
+
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled request body {}", file);
+            }
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final SpooledBody body;
+
+        private CachedBodyRequest(HttpServletRequest request, SpooledBody body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream in = body.open();
+
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() throws IOException {
+                    int read = in.read();
+                    finished = read == -1;
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = in.read(b, off, len);
+                    finished = read == -1;
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    in.close();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(body.open(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length() > Integer.MAX_VALUE ? -1 : (int) body.length();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.ugustavob.finsuppapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ugustavob.finsuppapi.entities.idempotency.IdempotencyKeyEntity;
+import com.ugustavob.finsuppapi.entities.idempotency.IdempotencyStatus;
+import com.ugustavob.finsuppapi.repositories.IdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Remembers the responses of writes sent with an {@code Idempotency-Key}. Keys are scoped per user and stored in
+ * {@code idempotency_keys} until they expire, with recent responses kept in a bounded in-memory cache.
+ * <p>
+ * A key is claimed with a single upsert before the request runs. A duplicate arriving on the same node waits on the
+ * original's future; one arriving on another node polls the row until the original completes. While the request
+ * runs, its claim is refreshed every {@code heartbeat-interval}; a claim is only taken over once it has had no
+ * heartbeat for {@code stale-after}, i.e. when the node running it is gone, however long the request itself takes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${app.idempotency.wait-timeout:PT10S}")
+    private Duration waitTimeout;
+
+    @Value("${app.idempotency.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    @Value("${app.idempotency.stale-after:PT1M}")
+    private Duration staleAfter;
+
+    @Value("${app.idempotency.heartbeat-interval:PT10S}")
+    private Duration heartbeatInterval;
+
+    @Value("${app.idempotency.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    // Claims executing on this node, with the created_at that identifies them.
+    private final Map<String, LocalDateTime> running = new ConcurrentHashMap<>();
+    private Cache<String, StoredResponse> responses;
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    void init() {
+        if (heartbeatInterval.multipliedBy(2).compareTo(staleAfter) > 0) {
+            throw new IllegalStateException("app.idempotency.stale-after must be at least twice " +
+                    "app.idempotency.heartbeat-interval");
+        }
+
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    public Claim claim(UUID userId, String key, String fingerprint) throws InterruptedException {
+        String id = userId + ":" + key;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            StoredResponse cached = responses.getIfPresent(id);
+
+            if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+                return Claim.replay(cached, fingerprint);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+
+            if (running != null) {
+                StoredResponse response;
+                try {
+                    response = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    return Claim.inProgress();
+                } catch (ExecutionException e) {
+                    response = null;
+                }
+
+                if (response != null) {
+                    return Claim.replay(response, fingerprint);
+                }
+                continue;
+            }
+
+            // Truncated to what the column stores, so heartbeats can match the claim on it.
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            Optional<String> acquired;
+            try {
+                acquired = idempotencyKeyRepository.tryAcquire(id, userId, fingerprint, now, now.plus(ttl),
+                        now.minus(staleAfter));
+            } catch (RuntimeException e) {
+                release(id, mine, null);
+                throw e;
+            }
+
+            if (acquired.isPresent()) {
+                running.put(id, now);
+                return Claim.execute(id, fingerprint, mine);
+            }
+
+            Optional<IdempotencyKeyEntity> existing = idempotencyKeyRepository.findById(id);
+
+            if (existing.isPresent() && existing.get().getStatus() == IdempotencyStatus.COMPLETED) {
+                StoredResponse response = toStoredResponse(existing.get());
+                responses.put(id, response);
+                release(id, mine, response);
+                return Claim.replay(response, fingerprint);
+            }
+
+            release(id, mine, null);
+
+            if (System.nanoTime() >= deadline) {
+                return Claim.inProgress();
+            }
+            Thread.sleep(pollIntervalMs);
+        }
+    }
+
+    public void complete(Claim claim, int status, String contentType, String location, byte[] body) {
+        StoredResponse response = new StoredResponse(claim.fingerprint(), status, contentType, location, body,
+                LocalDateTime.now().plus(ttl));
+        running.remove(claim.id());
+
+        try {
+            idempotencyKeyRepository.complete(claim.id(), status, contentType, location, body);
+        } catch (RuntimeException e) {
+            log.error("Could not store response for idempotency key {}", claim.id(), e);
+        }
+
+        responses.put(claim.id(), response);
+        release(claim.id(), claim.future(), response);
+    }
+
+    public void abandon(Claim claim) {
+        running.remove(claim.id());
+
+        try {
+            idempotencyKeyRepository.deleteById(claim.id());
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}: {}", claim.id(), e.getMessage());
+        }
+
+        release(claim.id(), claim.future(), null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int deleted;
+
+        do {
+            deleted = idempotencyKeyRepository.deleteExpired(now, cleanupBatchSize);
+            total += deleted;
+        } while (deleted >= cleanupBatchSize);
+
+        if (total > 0) {
+            log.info("Deleted {} expired idempotency keys", total);
+        }
+    }
+
+    void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+
+        running.forEach((id, claimedAt) -> {
+            try {
+                idempotencyKeyRepository.heartbeat(id, claimedAt, now);
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh idempotency key {}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    private void release(String id, CompletableFuture<StoredResponse> future, StoredResponse response) {
+        inFlight.remove(id, future);
+        future.complete(response);
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyKeyEntity entity) {
+        return new StoredResponse(entity.getFingerprint(), entity.getResponseStatus(), entity.getContentType(),
+                entity.getLocation(), entity.getResponseBody(), entity.getExpiresAt());
+    }
+
+    public record StoredResponse(
+            String fingerprint,
+            int status,
+            String contentType,
+            String location,
+            byte[] body,
+            LocalDateTime expiresAt
+    ) {
+    }
+
+    public enum Outcome {
+        EXECUTE,
+        REPLAY,
+        MISMATCH,
+        IN_PROGRESS
+    }
+
+    public record Claim(
+            Outcome outcome,
+            String id,
+            String fingerprint,
+            CompletableFuture<StoredResponse> future,
+            StoredResponse response
+    ) {
+        private static Claim execute(String id, String fingerprint, CompletableFuture<StoredResponse> future) {
+            return new Claim(Outcome.EXECUTE, id, fingerprint, future, null);
+        }
+
+        private static Claim replay(StoredResponse response, String fingerprint) {
+            return new Claim(response.fingerprint().equals(fingerprint) ? Outcome.REPLAY : Outcome.MISMATCH, null,
+                    fingerprint, null, response);
+        }
+
+        private static Claim inProgress() {
+            return new Claim(Outcome.IN_PROGRESS, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ugustavob.finsuppapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ugustavob.finsuppapi.exception.handler.EncodedErrorResponses;
+import com.ugustavob.finsuppapi.repositories.RateLimitCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client throttling in front of {@link SecurityFilter}. Authenticated calls are keyed by user id and everything
+ * else (including login and register) by client IP.
+ * <p>
+ * Each node keeps a local {@link TokenBucket} per key. With clustering enabled, every accepted request must also be
+ * covered by a token leased in batches from the shared {@code rate_limit_counters} row, so the per-minute budget
+ * holds across replicas while the database is only touched once per batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final long WINDOW_MILLIS = 60_000L;
+
+    private final TokenService tokenService;
+    private final RateLimitCounterRepository rateLimitCounterRepository;
+    private final EncodedErrorResponses encodedErrorResponses;
+
+    @Value("${api.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${api.rate-limit.read.capacity:100}")
+    private long readCapacity;
+
+    @Value("${api.rate-limit.read.per-minute:300}")
+    private long readPerMinute;
+
+    @Value("${api.rate-limit.write.capacity:30}")
+    private long writeCapacity;
+
+    @Value("${api.rate-limit.write.per-minute:60}")
+    private long writePerMinute;
+
+    @Value("${api.rate-limit.auth.capacity:10}")
+    private long authCapacity;
+
+    @Value("${api.rate-limit.auth.per-minute:20}")
+    private long authPerMinute;
+
+    @Value("${api.rate-limit.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${api.rate-limit.cluster.lease-size:10}")
+    private long leaseSize;
+
+    private Cache<String, RateLimitState> states;
+
+    @PostConstruct
+    void init() {
+        states = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Budget budget = resolveBudget(request);
+        String key = budget.name() + ":" + resolveClient(request, budget);
+
+        RateLimitState state = states.get(key, k -> new RateLimitState(new TokenBucket(
+                budget == Budget.AUTH ? authCapacity : budget == Budget.READ ? readCapacity : writeCapacity,
+                perMinute(budget))));
+
+        long waitNanos = state.bucket.tryConsume();
+
+        if (waitNanos == 0 && clusterEnabled) {
+            waitNanos = acquireLeased(key, state, perMinute(budget));
+
+            if (waitNanos > 0) {
+                state.bucket.refund();
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private long acquireLeased(String key, RateLimitState state, long limit) {
+        long window = System.currentTimeMillis() / WINDOW_MILLIS;
+
+        while (true) {
+            if (state.leaseWindow == window && state.leased.decrementAndGet() >= 0) {
+                return 0;
+            }
+
+            synchronized (state) {
+                if (state.leaseWindow == window && state.leased.get() > 0) {
+                    continue;
+                }
+
+                if (state.exhaustedWindow == window) {
+                    return nanosUntilNextWindow();
+                }
+
+                Optional<Long> leased;
+                try {
+                    leased = rateLimitCounterRepository.leaseTokens(key, window, leaseSize, limit);
+                } catch (RuntimeException e) {
+                    log.warn("Rate limit lease failed for {}, allowing request: {}", key, e.getMessage());
+                    return 0;
+                }
+
+                if (leased.isEmpty()) {
+                    state.exhaustedWindow = window;
+                    return nanosUntilNextWindow();
+                }
+
+                state.leased.set(leaseSize);
+                state.leaseWindow = window;
+            }
+        }
+    }
+
+    private Budget resolveBudget(HttpServletRequest request) {
+        String path = request.getServletPath();
+
+        if (path.startsWith("/auth/login") || path.startsWith("/auth/register")) {
+            return Budget.AUTH;
+        }
+
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? Budget.READ : Budget.WRITE;
+    }
+
+    private String resolveClient(HttpServletRequest request, Budget budget) {
+        if (budget != Budget.AUTH) {
+            String authHeader = request.getHeader("Authorization");
+
+            if (authHeader != null) {
+                TokenPrincipal principal = tokenService.decodeToken(
+                        authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader);
+
+                if (principal != null) {
+                    return principal.id() != null ? principal.id().toString() : principal.email();
+                }
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+
+    private long perMinute(Budget budget) {
+        return switch (budget) {
+            case READ -> readPerMinute;
+            case WRITE -> writePerMinute;
+            case AUTH -> authPerMinute;
+        };
+    }
+
+    private long nanosUntilNextWindow() {
+        long now = System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS - now % WINDOW_MILLIS);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        byte[] body = encodedErrorResponses.body(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private enum Budget {
+        READ,
+        WRITE,
+        AUTH
+    }
+
+    private static class RateLimitState {
+        private final TokenBucket bucket;
+        private final AtomicLong leased = new AtomicLong();
+        private volatile long leaseWindow = -1;
+        private volatile long exhaustedWindow = -1;
+
+        private RateLimitState(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
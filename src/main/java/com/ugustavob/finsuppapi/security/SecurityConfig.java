@@ -1,6 +1,7 @@
 package com.ugustavob.finsuppapi.security;
 
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,10 +29,14 @@ import java.util.List;
 public class SecurityConfig {
 
     private final SecurityFilter securityFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
-    public SecurityConfig(SecurityFilter securityFilter, CustomUserDetailsService customUserDetailsService, CustomAuthenticationEntryPoint customAuthenticationEntryPoint) {
+    public SecurityConfig(SecurityFilter securityFilter, RateLimitFilter rateLimitFilter, IdempotencyFilter idempotencyFilter, CustomUserDetailsService customUserDetailsService, CustomAuthenticationEntryPoint customAuthenticationEntryPoint) {
         this.securityFilter = securityFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.idempotencyFilter = idempotencyFilter;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
     }
 
@@ -51,11 +56,16 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                         .requestMatchers(SWAGGER_UI_PATHS).permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        // Metrics expose request volumes and internals, so scrapers authenticate with an admin token.
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(exceptionHandling -> exceptionHandling
                         .authenticationEntryPoint(customAuthenticationEntryPoint))
-                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, SecurityFilter.class)
+                .addFilterAfter(idempotencyFilter, SecurityFilter.class);
         return http.build();
     }
 
@@ -64,8 +74,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:3000")); // Lista de origens permitidas
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type"));
-        configuration.setExposedHeaders(List.of("Authorization")); // Headers expostos ao frontend
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type",
+                IdempotencyFilter.HEADER));
+        configuration.setExposedHeaders(List.of("Authorization", IdempotencyFilter.REPLAYED_HEADER)); // Headers expostos ao frontend
         configuration.setAllowCredentials(true); // Permite credenciais (cookies, auth headers)
         configuration.setMaxAge(3600L); // Tempo que a configuração CORS pode ser cacheada
 
@@ -75,8 +86,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${api.security.password.target-latency-ms:250}") long targetLatencyMs,
+            @Value("${api.security.password.min-strength:10}") int minStrength,
+            @Value("${api.security.password.max-strength:14}") int maxStrength
+    ) {
+        return new BCryptPasswordEncoder(BCryptCalibrator.calibrate(targetLatencyMs, minStrength, maxStrength));
     }
 
     @Bean
@@ -1,12 +1,15 @@
 package com.ugustavob.finsuppapi.security;
 
 import com.ugustavob.finsuppapi.entities.user.UserEntity;
+import com.ugustavob.finsuppapi.metrics.RequestPhase;
+import com.ugustavob.finsuppapi.metrics.RequestPhases;
 import com.ugustavob.finsuppapi.repositories.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,36 +17,100 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class SecurityFilter extends OncePerRequestFilter {
+    private static final List<String> PUBLIC_PATH_PREFIXES = List.of(
+            "/auth/",
+            "/swagger-ui",
+            "/v3/api-docs",
+            "/swagger-resources"
+    );
+
     private final TokenService tokenService;
     private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${api.security.token.revalidate-user:false}")
+    private boolean revalidateUser;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+
+        for (String prefix : PUBLIC_PATH_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
-        var login = tokenService.validateToken(token);
 
-        UserEntity user = userRepository.findByEmail(login).orElse(null);
+        if (token != null) {
+            RequestPhases phases = RequestPhases.of(request);
+            TokenPrincipal principal = resolvePrincipal(decodeToken(token, phases), phases);
 
-        if(login != null && user != null){
-            var authorities = user.getRole().stream()
-                            .map(SimpleGrantedAuthority::new)
-                                    .collect(Collectors.toList());
+            if (principal != null) {
+                var authorities = principal.roles().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .toList();
 
-            request.setAttribute("id", user.getId());
-            var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute("id", principal.id());
+                var authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    private TokenPrincipal decodeToken(String token, RequestPhases phases) {
+        if (phases == null) {
+            return tokenService.decodeToken(token);
+        }
+
+        RequestPhases.Mark start = RequestPhases.mark();
+        try {
+            return tokenService.decodeToken(token);
+        } finally {
+            phases.record(RequestPhase.JWT_VERIFICATION, start);
+        }
+    }
+
+    private TokenPrincipal resolvePrincipal(TokenPrincipal claims, RequestPhases phases) {
+        if (claims == null || tokenRevocationService.isRevoked(claims.id(), claims.issuedAt())) {
+            return null;
+        }
+
+        if (!revalidateUser && claims.id() != null) {
+            return claims;
+        }
+
+        RequestPhases.Mark start = phases == null ? null : RequestPhases.mark();
+        Optional<UserEntity> user = claims.id() != null
+                ? userRepository.findById(claims.id())
+                : userRepository.findByEmail(claims.email());
+
+        if (phases != null) {
+            phases.record(RequestPhase.USER_LOOKUP, start);
+        }
+
+        return user.filter(u -> !u.isDisabled())
+                .map(u -> new TokenPrincipal(u.getId(), u.getEmail(), new ArrayList<>(u.getRole()),
+                        claims.issuedAt()))
+                .orElse(null);
+    }
+
     private String recoverToken(HttpServletRequest request){
         var authHeader = request.getHeader("Authorization");
         if(authHeader == null) return null;
-        return authHeader.replace("Bearer ", "");
+        return authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
     }
-}
\ No newline at end of file
+}
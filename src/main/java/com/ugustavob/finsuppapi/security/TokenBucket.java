@@ -0,0 +1,43 @@
+package com.ugustavob.finsuppapi.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time", so a take is a single
+ * CAS with no allocation.
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, long tokensPerMinute) {
+        this.intervalNanos = 60_000_000_000L / Math.max(1, tokensPerMinute);
+        this.burstNanos = intervalNanos * Math.max(1, capacity);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise how many nanoseconds to wait before one is available.
+     */
+    public long tryConsume() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            long overshoot = newTat - now - burstNanos;
+
+            if (overshoot > 0) {
+                return overshoot;
+            }
+
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    public void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ugustavob.finsuppapi.security;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TokenPrincipal(
+        UUID id,
+        String email,
+        List<String> roles,
+        long issuedAt
+) {
+}
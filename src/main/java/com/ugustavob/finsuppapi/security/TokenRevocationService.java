@@ -0,0 +1,199 @@
+package com.ugustavob.finsuppapi.security;
+
+import com.ugustavob.finsuppapi.entities.user.TokenRevocationEntity;
+import com.ugustavob.finsuppapi.repositories.TokenRevocationRepository;
+import com.ugustavob.finsuppapi.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the token revocation list in memory so the security filter can reject revoked tokens without a database
+ * lookup. A revocation invalidates every token of the user issued before it.
+ * <p>
+ * Lookups go through a Bloom filter first, so the common "not revoked" answer costs a few bit probes and no
+ * allocation; positives are confirmed against the exact map. Nodes learn about new revocations through Postgres
+ * {@code LISTEN/NOTIFY} and reload the full list periodically and after reconnecting.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    private static final String CHANNEL = "token_revocations";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final DataSource dataSource;
+
+    @Value("${api.security.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${api.security.revocation.retention:P8D}")
+    private Duration retention;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile Map<UUID, Long> revokedBefore = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    void init() {
+        reload();
+
+        running = true;
+        listener = new Thread(this::listen, "token-revocation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        listener.interrupt();
+    }
+
+    public boolean isRevoked(UUID userId, long issuedAt) {
+        if (userId == null || !bloomFilter.mightContain(userId)) {
+            return false;
+        }
+
+        Long before = revokedBefore.get(userId);
+        return before != null && issuedAt < before;
+    }
+
+    /**
+     * Stores the revocation and, once the surrounding transaction commits, applies it locally and notifies the other
+     * nodes. A rolled-back revocation (e.g. a failed password change) never reaches the in-memory list. A notification
+     * lost to a failure right after the commit is picked up by the periodic reload.
+     */
+    @Transactional
+    public void revokeUser(UUID userId) {
+        long now = Instant.now().getEpochSecond();
+
+        tokenRevocationRepository.save(new TokenRevocationEntity(userId, now));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, now);
+                }
+            });
+        } else {
+            publish(userId, now);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.revocation.refresh-interval-ms:300000}")
+    public void refresh() {
+        tokenRevocationRepository.deleteOlderThan(Instant.now().minus(retention).getEpochSecond());
+        reload();
+    }
+
+    private synchronized void reload() {
+        List<TokenRevocationEntity> revocations = tokenRevocationRepository.findAll();
+
+        BloomFilter filter = new BloomFilter(Math.max(expectedEntries, revocations.size() * 2),
+                FALSE_POSITIVE_RATE);
+        Map<UUID, Long> entries = new ConcurrentHashMap<>();
+
+        for (TokenRevocationEntity revocation : revocations) {
+            filter.add(revocation.getUserId());
+            entries.put(revocation.getUserId(), revocation.getRevokedBefore());
+        }
+
+        revokedBefore = entries;
+        bloomFilter = filter;
+    }
+
+    private void publish(UUID userId, long before) {
+        apply(userId, before);
+
+        // The transaction's connection is done by now, so notify on a connection of our own.
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, userId + ":" + before);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("Could not notify token revocation of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private synchronized void apply(UUID userId, long before) {
+        revokedBefore.merge(userId, before, Math::max);
+        bloomFilter.add(userId);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                reload();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(5000);
+
+                    if (notifications == null) {
+                        continue;
+                    }
+
+                    for (PGNotification notification : notifications) {
+                        applyPayload(notification.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+
+                log.warn("Token revocation listener disconnected, retrying: {}", e.getMessage());
+
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void applyPayload(String payload) {
+        int separator = payload.indexOf(':');
+
+        if (separator < 0) {
+            return;
+        }
+
+        try {
+            apply(UUID.fromString(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed token revocation payload: {}", payload);
+        }
+    }
+}
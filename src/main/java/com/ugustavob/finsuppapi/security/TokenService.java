@@ -1,30 +1,80 @@
 package com.ugustavob.finsuppapi.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.ugustavob.finsuppapi.entities.user.UserEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 public class TokenService {
+    private static final String ID_CLAIM = "id";
+    private static final String ROLES_CLAIM = "roles";
+
+    private final MeterRegistry meterRegistry;
 
     @Value("${api.security.token.secret}")
     private String secret;
 
+    @Value("${api.security.token.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${api.security.token.cache.ttl:PT1H}")
+    private Duration cacheTtl;
+
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm)
+                .withIssuer("auth0")
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new VerifiedTokenExpiry(cacheTtl.toNanos()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+    }
+
     public String generateToken(UserEntity user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             return JWT.create()
                     .withIssuer("auth0")
                     .withSubject(user.getEmail())
+                    .withClaim(ID_CLAIM, user.getId().toString())
+                    .withClaim(ROLES_CLAIM, user.getRole() != null ? new ArrayList<>(user.getRole()) : List.of())
+                    .withIssuedAt(Instant.now())
                     .withExpiresAt(this.generateExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException e) {
@@ -33,19 +83,103 @@ public class TokenService {
     }
 
     public String validateToken(String token) {
+        TokenPrincipal principal = decodeToken(token);
+
+        return principal != null ? principal.email() : null;
+    }
+
+    /**
+     * Verifies the token and reads the principal from its signed claims. Tokens issued before the id/roles claims
+     * existed come back with a null id and empty roles, so callers must fall back to a user lookup for them.
+     * <p>
+     * Verified tokens are cached by their SHA-256 digest until the earlier of their {@code exp} and the configured
+     * cache TTL, so repeated requests with the same bearer token skip the HMAC check and the claim decoding.
+     */
+    public TokenPrincipal decodeToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+
+        if (cached != null) {
+            return cached.principal();
+        }
+
+        VerifiedToken verified = verify(token);
+
+        if (verified == null) {
+            return null;
+        }
+
+        verifiedTokens.put(key, verified);
+        return verified.principal();
+    }
+
+    public void evictToken(String token) {
+        if (token != null) {
+            verifiedTokens.invalidate(digest(token));
+        }
+    }
+
+    private VerifiedToken verify(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("auth0")
-                    .build()
-                    .verify(token)
-                    .getSubject();
-        } catch (JWTVerificationException e) {
+            DecodedJWT decodedJWT = verifier.verify(token);
+
+            String id = decodedJWT.getClaim(ID_CLAIM).asString();
+            List<String> roles = decodedJWT.getClaim(ROLES_CLAIM).asList(String.class);
+
+            TokenPrincipal principal = new TokenPrincipal(
+                    id != null ? UUID.fromString(id) : null,
+                    decodedJWT.getSubject(),
+                    roles != null ? List.copyOf(roles) : List.of(),
+                    decodedJWT.getIssuedAtAsInstant() != null ? decodedJWT.getIssuedAtAsInstant().getEpochSecond() : 0
+            );
+
+            return new VerifiedToken(principal, decodedJWT.getExpiresAtAsInstant());
+        } catch (JWTVerificationException | IllegalArgumentException e) {
             return null;
         }
     }
 
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private Instant generateExpirationDate() {
         return LocalDateTime.now().plusDays(7).toInstant(ZoneOffset.of("-03:00"));
     }
+
+    private record VerifiedToken(TokenPrincipal principal, Instant expiresAt) {
+    }
+
+    private record VerifiedTokenExpiry(long maxTtlNanos) implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return maxTtlNanos;
+            }
+
+            long untilExpiration = TimeUnit.MILLISECONDS.toNanos(
+                    value.expiresAt().toEpochMilli() - System.currentTimeMillis());
+
+            return Math.max(0, Math.min(untilExpiration, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -10,7 +10,9 @@ import com.ugustavob.finsuppapi.exception.*;
 import com.ugustavob.finsuppapi.repositories.AccountRepository;
 import com.ugustavob.finsuppapi.repositories.UserRepository;
 import com.ugustavob.finsuppapi.specifications.AccountSpecification;
+import com.ugustavob.finsuppapi.utils.Money;
 import com.ugustavob.finsuppapi.utils.StringFormatUtil;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,7 +31,10 @@ public class AccountService {
     private final SubscriptionService subscriptionService;
     private final TransactionService transactionService;
     private final BankService bankService;
+    private final BaseService baseService;
+    private final LedgerService ledgerService;
 
+    @Transactional
     public AccountEntity createAccount(CreateAccountRequestDTO createAccountRequestDTO, UserEntity userEntity) {
         boolean account =
                 accountRepository.existsByDescription(StringFormatUtil.toTitleCase(createAccountRequestDTO.description()),
@@ -46,16 +51,19 @@ public class AccountService {
         newAccount.setBank(bankEntity);
         newAccount.setUser(userEntity);
         if (createAccountRequestDTO.balance() != null) {
-            newAccount.setBalance(createAccountRequestDTO.balance());
+            newAccount.setBalance(Money.ofDecimal(createAccountRequestDTO.balance()));
         } else {
-            newAccount.setBalance(0.0);
+            newAccount.setBalance(0);
         }
         newAccount.setAccountType(createAccountRequestDTO.accountType());
 
         newAccount.setClosingDay(createAccountRequestDTO.closingDay());
         newAccount.setPaymentDueDay(createAccountRequestDTO.paymentDueDay());
 
-        return accountRepository.save(newAccount);
+        AccountEntity savedAccount = accountRepository.save(newAccount);
+        ledgerService.open(savedAccount.getId());
+
+        return savedAccount;
     }
 
     public void deleteAccount(Integer id) {
@@ -65,6 +73,7 @@ public class AccountService {
                 .orElseThrow(AccountNotFoundException::new);
     }
 
+    @Transactional
     public AccountEntity updateAccount(CreateAccountRequestDTO createAccountRequestDTO, AccountEntity account) {
         if (account == null) {
             throw new AccountNotFoundException("Account not found");
@@ -85,14 +94,22 @@ public class AccountService {
         account.setBank(bankEntity);
         account.setAccountType(createAccountRequestDTO.accountType());
 
-        if (createAccountRequestDTO.balance() != null) {
-            account.setBalance(createAccountRequestDTO.balance());
-        }
-
         account.setClosingDay(createAccountRequestDTO.closingDay());
         account.setPaymentDueDay(createAccountRequestDTO.paymentDueDay());
 
-        return accountRepository.save(account);
+        AccountEntity savedAccount = accountRepository.save(account);
+
+        // The balance column is only written through the ledger: a new balance is recorded as an adjustment.
+        if (createAccountRequestDTO.balance() != null) {
+            long balance = Money.ofDecimal(createAccountRequestDTO.balance());
+
+            if (balance != account.getBalance()) {
+                ledgerService.adjustTo(savedAccount.getId(), balance);
+                savedAccount.setBalance(balance);
+            }
+        }
+
+        return savedAccount;
     }
 
     public AccountEntity getAccountByIdAndCompareWithUserId(Integer accountId, UUID userId) {
@@ -118,9 +135,7 @@ public class AccountService {
 
         Page<AccountEntity> accountPage = accountRepository.findAll(specification, pageable);
 
-        if (accountPage.isEmpty()) {
-            throw new AccountNotFoundException("No accounts found");
-        }
+        baseService.checkIfPageIsEmpty(accountPage, () -> new AccountNotFoundException("No accounts found"));
 
         return accountPage.map(this::entityToResponseDto);
     }
@@ -139,7 +154,7 @@ public class AccountService {
                 accountEntity.getAccountType(),
                 accountEntity.getClosingDay(),
                 accountEntity.getPaymentDueDay(),
-                accountEntity.getBalance()
+                Money.toDecimal(accountEntity.getBalance())
         );
     }
 }
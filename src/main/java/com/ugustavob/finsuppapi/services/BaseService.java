@@ -1,13 +1,20 @@
 package com.ugustavob.finsuppapi.services;
 
 import com.ugustavob.finsuppapi.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 public class BaseService {
 
+    @Value("${app.api.empty-list-as-not-found:true}")
+    private boolean emptyListAsNotFound;
+
     public UUID checkIfUuidIsNull(UUID uuid) {
         if (uuid == null) {
             throw new UserNotFoundException();
@@ -15,4 +22,20 @@ public class BaseService {
 
         return uuid;
     }
+
+    public <T> Page<T> checkIfPageIsEmpty(Page<T> page, Supplier<? extends RuntimeException> notFound) {
+        if (emptyListAsNotFound && page.isEmpty()) {
+            throw notFound.get();
+        }
+
+        return page;
+    }
+
+    public <T> List<T> checkIfListIsEmpty(List<T> list, Supplier<? extends RuntimeException> notFound) {
+        if (emptyListAsNotFound && list.isEmpty()) {
+            throw notFound.get();
+        }
+
+        return list;
+    }
 }
@@ -0,0 +1,269 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.entities.account.AccountEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillOutboxEventEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillOutboxStatus;
+import com.ugustavob.finsuppapi.entities.bill.BillStatus;
+import com.ugustavob.finsuppapi.entities.transaction.BillPropagationStatus;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionEntity;
+import com.ugustavob.finsuppapi.repositories.BillOutboxRepository;
+import com.ugustavob.finsuppapi.repositories.TransactionRepository;
+import com.ugustavob.finsuppapi.utils.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves bill propagation of new card transactions off the request path when
+ * {@code app.bills.async-propagation.enabled} is set. The request only writes the transaction and a
+ * {@code bill_outbox} event in the same database transaction; a pool of workers claims events with
+ * {@code FOR UPDATE SKIP LOCKED} and writes the bill items of a whole batch with one JDBC batch insert.
+ * <p>
+ * Events of the same account are applied strictly in order (see {@link BillOutboxRepository#claim}). An event that
+ * fails is retried with a growing delay and, once out of attempts or when its bill is no longer open, marked as
+ * failed together with the transaction's {@code billStatus}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BillOutboxService {
+    private static final String INSERT_BILL_ITEM = "INSERT INTO bill_items (bill_id, transaction_id, amount, " +
+            "installment_number) VALUES (?, ?, ?, ?)";
+
+    private final BillOutboxRepository billOutboxRepository;
+    private final TransactionRepository transactionRepository;
+    private final BillService billService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.bills.async-propagation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.bills.async-propagation.workers:2}")
+    private int workers;
+
+    @Value("${app.bills.async-propagation.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.bills.async-propagation.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${app.bills.async-propagation.lease:PT1M}")
+    private Duration lease;
+
+    @Value("${app.bills.async-propagation.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.bills.async-propagation.retry-backoff:PT5S}")
+    private Duration retryBackoff;
+
+    @Value("${app.bills.async-propagation.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${app.bills.async-propagation.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    private ScheduledExecutorService pool;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newScheduledThreadPool(enabled ? workers : 1, runnable -> {
+            Thread thread = new Thread(runnable, "bill-outbox-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!enabled) {
+            // Still drain what was queued while the mode was on, so no transaction stays pending.
+            pool.execute(this::drain);
+            return;
+        }
+
+        for (int i = 0; i < workers; i++) {
+            pool.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the bill items of a new transaction. Must run in the transaction that inserts it, so both rows are
+     * committed together. The first installment's bill is checked up front, so a purchase on a closed bill is still
+     * rejected by the request.
+     */
+    @Transactional
+    public void enqueue(TransactionEntity transaction) {
+        BillEntity bill = billService.findOrCreateBill(transaction.getAccount(), transaction.getTransactionDate());
+
+        if (bill.getStatus() != BillStatus.OPEN) {
+            throw new IllegalStateException("Bill is not open");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        billOutboxRepository.save(new BillOutboxEventEntity(null, transaction.getId(),
+                transaction.getAccount().getId(), BillOutboxStatus.PENDING, 0, null, now, now, null, null));
+    }
+
+    /**
+     * Queues the bill items of transactions inserted in bulk, keyed by transaction id with their account id as value.
+     * The caller checks their bills up front and runs this in the transaction that inserts them.
+     */
+    @Transactional
+    public void enqueueAll(Map<Integer, Integer> accountIdsByTransactionId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BillOutboxEventEntity> events = new ArrayList<>(accountIdsByTransactionId.size());
+
+        accountIdsByTransactionId.forEach((transactionId, accountId) -> events.add(new BillOutboxEventEntity(null,
+                transactionId, accountId, BillOutboxStatus.PENDING, 0, null, now, now, null, null)));
+        billOutboxRepository.saveAll(events);
+    }
+
+    @Scheduled(fixedDelayString = "${app.bills.async-propagation.cleanup-interval-ms:600000}")
+    public void deleteProcessed() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long total = 0;
+        int deleted;
+
+        do {
+            deleted = billOutboxRepository.deleteProcessed(before, cleanupBatchSize);
+            total += deleted;
+        } while (deleted >= cleanupBatchSize);
+
+        if (total > 0) {
+            log.info("Deleted {} processed bill outbox events", total);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<BillOutboxEventEntity> events;
+
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                events = billOutboxRepository.claim(now, now.plus(lease), batchSize);
+
+                if (!events.isEmpty()) {
+                    process(events);
+                }
+            } while (events.size() >= batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            log.warn("Bill outbox worker failed to poll events: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the whole batch in one transaction; if that fails, every event is retried on its own so one bad event
+     * does not hold back the others.
+     */
+    private void process(List<BillOutboxEventEntity> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(events));
+            return;
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                release(events.get(0), e);
+                return;
+            }
+        }
+
+        for (BillOutboxEventEntity event : events) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(List.of(event)));
+            } catch (RuntimeException e) {
+                release(event, e);
+            }
+        }
+    }
+
+    private void apply(List<BillOutboxEventEntity> events) {
+        List<TransactionEntity> transactions = transactionRepository.lockAllById(events.stream()
+                .map(BillOutboxEventEntity::getTransactionId)
+                .toList());
+
+        Map<String, BillEntity> bills = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (TransactionEntity transaction : transactions) {
+            if (!transaction.isAddToBill() || transaction.getBillStatus() != BillPropagationStatus.PENDING) {
+                continue;
+            }
+
+            AccountEntity account = transaction.getAccount();
+            int installments = transaction.getInstallments();
+
+            for (int i = 0; i < installments; i++) {
+                LocalDate installmentDate = transaction.getTransactionDate().plusMonths(i);
+                long installmentValue = Money.installment(transaction.getAmount(), installments, i + 1);
+                String key = account.getId() + ":" + billService.billingPeriodStart(account, installmentDate);
+                BillEntity bill = bills.computeIfAbsent(key,
+                        ignored -> billService.findOrCreateBill(account, installmentDate));
+
+                if (bill.getStatus() != BillStatus.OPEN) {
+                    throw new IllegalStateException("Bill is not open");
+                }
+
+                bill.setTotalAmount(bill.getTotalAmount() + installmentValue);
+                rows.add(new Object[]{bill.getId(), transaction.getId(), installmentValue, i + 1});
+            }
+
+            transaction.setBillStatus(BillPropagationStatus.APPLIED);
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BILL_ITEM, rows);
+        }
+
+        billOutboxRepository.markDone(events.stream().map(BillOutboxEventEntity::getId).toList(),
+                LocalDateTime.now());
+    }
+
+    private void release(BillOutboxEventEntity event, RuntimeException e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        String error = message.substring(0, Math.min(message.length(), 255));
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            if (!(e instanceof IllegalStateException) && event.getAttempts() < maxAttempts) {
+                billOutboxRepository.release(event.getId(), BillOutboxStatus.PENDING, error,
+                        now.plus(retryBackoff.multipliedBy(event.getAttempts())), null);
+                return;
+            }
+
+            log.error("Bill outbox event {} for transaction {} failed", event.getId(), event.getTransactionId(), e);
+            transactionTemplate.executeWithoutResult(status -> {
+                billOutboxRepository.release(event.getId(), BillOutboxStatus.FAILED, error, now, now);
+                transactionRepository.updateBillStatus(event.getTransactionId(), BillPropagationStatus.FAILED);
+            });
+        } catch (RuntimeException releaseError) {
+            log.warn("Could not release bill outbox event {}: {}", event.getId(), releaseError.getMessage());
+        }
+    }
+}
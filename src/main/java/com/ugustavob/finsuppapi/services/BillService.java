@@ -16,6 +16,7 @@ import com.ugustavob.finsuppapi.exception.BillNotFoundException;
 import com.ugustavob.finsuppapi.repositories.BillItemRepository;
 import com.ugustavob.finsuppapi.repositories.BillRepository;
 import com.ugustavob.finsuppapi.specifications.BillSpecification;
+import com.ugustavob.finsuppapi.utils.Money;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -27,8 +28,9 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -42,7 +44,7 @@ public class BillService {
         return new BillResponseDTO(
                 bill.getId(),
                 bill.getStatus(),
-                bill.getTotalAmount(),
+                Money.toDecimal(bill.getTotalAmount()),
                 bill.getAccount() != null ? bill.getAccount().getId() : null,
                 bill.getStartDate(),
                 bill.getEndDate(),
@@ -55,7 +57,7 @@ public class BillService {
                 billItem.getId(),
                 billItem.getTransaction() != null ? billItem.getTransaction().getDescription() :
                         billItem.getSubscription().getDescription() + " Subscription",
-                billItem.getAmount(),
+                Money.toDecimal(billItem.getAmount()),
                 billItem.getInstallmentNumber(),
                 billItem.getBill().getId(),
                 billItem.getTransaction() != null ? billItem.getTransaction().getId() : null,
@@ -63,9 +65,8 @@ public class BillService {
         );
     }
 
-    public BillEntity findOrCreateBill(AccountEntity account, LocalDate transactionDate) {
+    public LocalDate billingPeriodStart(AccountEntity account, LocalDate transactionDate) {
         int closingDay = account.getClosingDay();
-        int dueDay = account.getPaymentDueDay();
 
         LocalDate closingDate;
         if (transactionDate.getDayOfMonth() < closingDay) {
@@ -74,7 +75,24 @@ public class BillService {
             closingDate = transactionDate.withDayOfMonth(closingDay);
         }
 
-        LocalDate startDate = closingDate.plusDays(1);
+        return closingDate.plusDays(1);
+    }
+
+    /**
+     * The bill of the period {@code transactionDate} falls in, or {@code null} when it was not created yet. Unlike
+     * {@link #findOrCreateBill}, this never writes.
+     */
+    public BillEntity findBill(AccountEntity account, LocalDate transactionDate) {
+        LocalDate startDate = billingPeriodStart(account, transactionDate);
+        return billRepository.findByAccountAndDateRange(account, startDate,
+                startDate.plusMonths(1).withDayOfMonth(account.getClosingDay()));
+    }
+
+    public BillEntity findOrCreateBill(AccountEntity account, LocalDate transactionDate) {
+        int closingDay = account.getClosingDay();
+        int dueDay = account.getPaymentDueDay();
+
+        LocalDate startDate = billingPeriodStart(account, transactionDate);
         LocalDate endDate = startDate.plusMonths(1).withDayOfMonth(closingDay);
         LocalDate dueDate = endDate.withDayOfMonth(dueDay);
 
@@ -86,7 +104,7 @@ public class BillService {
             bill.setStartDate(startDate);
             bill.setEndDate(endDate);
             bill.setDueDate(dueDate);
-            bill.setTotalAmount(0.0);
+            bill.setTotalAmount(0);
             bill.setStatus(BillStatus.OPEN);
 
             billRepository.save(bill);
@@ -102,10 +120,10 @@ public class BillService {
             LocalDate dueDate = transaction.getTransactionDate();
 
             int installments = transaction.getInstallments();
-            double installmentValue = transaction.getAmount() / installments;
 
             for (int i = 0; i < installments; i++) {
                 LocalDate installmentDate = dueDate.plusMonths(i);
+                long installmentValue = Money.installment(transaction.getAmount(), installments, i + 1);
 
                 BillEntity bill = findOrCreateBill(account, installmentDate);
 
@@ -127,6 +145,84 @@ public class BillService {
         }
     }
 
+    /**
+     * Brings the bill items of an updated transaction in line with its current amount, date and installments. Items
+     * that stay in the same bill are adjusted in place, items whose billing period changed are moved and only the
+     * installments that no longer exist are removed.
+     */
+    @Transactional
+    public void syncTransactionBills(TransactionEntity transaction, boolean wasAddedToBill,
+                                     AccountEntity previousAccount) {
+        List<BillItemEntity> items = wasAddedToBill ? billItemRepository.findByTransaction(transaction) :
+                List.of();
+
+        if (!transaction.isAddToBill()) {
+            removeEntityFromBill(items);
+            return;
+        }
+
+        AccountEntity account = transaction.getAccount();
+        Map<Integer, BillItemEntity> itemsByInstallment = new HashMap<>();
+        List<BillItemEntity> removed = new ArrayList<>();
+
+        for (BillItemEntity item : items) {
+            if (previousAccount.getId().equals(account.getId())) {
+                itemsByInstallment.put(item.getInstallmentNumber(), item);
+            } else {
+                removed.add(item);
+            }
+        }
+
+        int installments = transaction.getInstallments();
+
+        for (int i = 0; i < installments; i++) {
+            LocalDate installmentDate = transaction.getTransactionDate().plusMonths(i);
+            long installmentValue = Money.installment(transaction.getAmount(), installments, i + 1);
+            BillItemEntity item = itemsByInstallment.remove(i + 1);
+
+            if (item != null && item.getBill().getStartDate().equals(billingPeriodStart(account, installmentDate))) {
+                if (item.getAmount() != installmentValue) {
+                    BillEntity bill = item.getBill();
+
+                    if (bill.getStatus() != BillStatus.OPEN) {
+                        throw new IllegalStateException("Bill is not open");
+                    }
+
+                    bill.setTotalAmount(bill.getTotalAmount() - item.getAmount() + installmentValue);
+                    item.setAmount(installmentValue);
+
+                    billItemRepository.save(item);
+                    billRepository.save(bill);
+                }
+                continue;
+            }
+
+            if (item != null) {
+                removed.add(item);
+            }
+
+            BillEntity bill = findOrCreateBill(account, installmentDate);
+
+            if (bill.getStatus() != BillStatus.OPEN) {
+                throw new IllegalStateException("Bill is not open");
+            }
+
+            BillItemEntity billItem = new BillItemEntity();
+            billItem.setBill(bill);
+            billItem.setTransaction(transaction);
+            billItem.setInstallmentNumber(i + 1);
+            billItem.setAmount(installmentValue);
+
+            bill.setTotalAmount(bill.getTotalAmount() + installmentValue);
+
+            billItemRepository.save(billItem);
+            billRepository.save(bill);
+        }
+
+        removed.addAll(itemsByInstallment.values());
+        removeEntityFromBill(removed);
+    }
+
     @Transactional
     public void addSubscriptionToBill(SubscriptionEntity subscription) {
         if (subscription == null || subscription.getAccount() == null) {
@@ -304,8 +400,4 @@ public class BillService {
         Page<BillItemEntity> billItems = billItemRepository.findByBillId(bill.getId(), pageable);
         return billItems.map(this::billItemEntityToResponseDto);
     }
-
-    public Optional<BillEntity> findByMonthAndYearAndUser(int month, int year, UUID userId) {
-        return billRepository.findByStartDateMonthAndStartDateYearAndUserId(month, year, userId);
-    }
 }
@@ -23,6 +23,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CardService {
     private final CardRepository cardRepository;
+    private final BaseService baseService;
 
     public CardEntity createCard(CreateCardRequestDTO createCardRequestDTO, AccountEntity account) {
         if (cardRepository.findByDescription(createCardRequestDTO.description()).isPresent()) {
@@ -84,9 +85,7 @@ public class CardService {
 
         Page<CardEntity> cardPage = cardRepository.findAll(specification, pageable);
 
-        if (cardPage.isEmpty()) {
-            throw new CardNotFoundException("No cards found");
-        }
+        baseService.checkIfPageIsEmpty(cardPage, () -> new CardNotFoundException("No cards found"));
 
         return cardPage.map(CardEntity::entityToResponseDTO);
     }
@@ -0,0 +1,258 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ugustavob.finsuppapi.dto.categories.CategorizationRuleResponseDTO;
+import com.ugustavob.finsuppapi.dto.categories.CreateCategorizationRuleRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.entities.account.AccountEntity;
+import com.ugustavob.finsuppapi.entities.categories.CategorizationMatchType;
+import com.ugustavob.finsuppapi.entities.categories.CategorizationRuleEntity;
+import com.ugustavob.finsuppapi.entities.categories.CategoryEntity;
+import com.ugustavob.finsuppapi.exception.AccountNotFoundException;
+import com.ugustavob.finsuppapi.exception.CategorizationRuleNotFoundException;
+import com.ugustavob.finsuppapi.exception.CategoryNotFoundException;
+import com.ugustavob.finsuppapi.repositories.AccountRepository;
+import com.ugustavob.finsuppapi.repositories.CategorizationRuleRepository;
+import com.ugustavob.finsuppapi.repositories.CategoryRepository;
+import com.ugustavob.finsuppapi.utils.CategorizationRuleSet;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Picks a category for transactions created without one, from the user's categorization rules and the global rules.
+ * Each user's rules are compiled once into a {@link CategorizationRuleSet} and cached; creating or deleting a rule
+ * only drops the compiled set of its owner (or every set, for a global rule), which is rebuilt on next use.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategorizationService {
+    private static final String GLOBAL_RULES = "global";
+
+    private final CategorizationRuleRepository categorizationRuleRepository;
+    private final CategoryRepository categoryRepository;
+    private final AccountRepository accountRepository;
+
+    @Value("${app.categorization.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${app.categorization.cache-ttl:PT10M}")
+    private Duration cacheTtl;
+
+    @Value("${app.categorization.max-regex-rules-per-user:20}")
+    private int maxRegexRulesPerUser;
+
+    private Cache<UUID, CategorizationRuleSet> ruleSets;
+    private Cache<String, List<CategorizationRuleSet.Rule>> globalRules;
+
+    @PostConstruct
+    void init() {
+        ruleSets = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        globalRules = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public List<CategorizationRuleResponseDTO> getRules(UUID userId) {
+        return categorizationRuleRepository.findVisibleToUser(userId).stream()
+                .map(this::entityToResponseDto)
+                .toList();
+    }
+
+    /**
+     * Creates a rule owned by {@code userId}, or a global rule when {@code userId} is {@code null}.
+     */
+    public CategorizationRuleEntity createRule(CreateCategorizationRuleRequestDTO createRuleRequestDTO,
+                                               UUID userId) {
+        validate(createRuleRequestDTO);
+
+        if (userId != null && createRuleRequestDTO.matchType() == CategorizationMatchType.REGEX
+                && categorizationRuleRepository.countByUserIdAndMatchType(userId, CategorizationMatchType.REGEX)
+                >= maxRegexRulesPerUser) {
+            throw new IllegalArgumentException("A user can have at most " + maxRegexRulesPerUser +
+                    " regular expression rules");
+        }
+
+        CategoryEntity category = categoryRepository.findById(createRuleRequestDTO.category())
+                .orElseThrow(CategoryNotFoundException::new);
+
+        AccountEntity account = null;
+        if (createRuleRequestDTO.accountId() != null) {
+            if (userId == null) {
+                throw new IllegalArgumentException("Global rules can't be restricted to an account");
+            }
+
+            account = accountRepository.findById(createRuleRequestDTO.accountId())
+                    .filter(found -> found.getUser().getId().equals(userId))
+                    .orElseThrow(AccountNotFoundException::new);
+        }
+
+        CategorizationRuleEntity rule = categorizationRuleRepository.save(new CategorizationRuleEntity(
+                null,
+                userId,
+                category,
+                createRuleRequestDTO.matchType(),
+                createRuleRequestDTO.pattern() != null ? createRuleRequestDTO.pattern().trim() : null,
+                createRuleRequestDTO.minAmount(),
+                createRuleRequestDTO.maxAmount(),
+                account,
+                createRuleRequestDTO.priority() != null ? createRuleRequestDTO.priority() : 0,
+                LocalDateTime.now()
+        ));
+
+        invalidate(userId);
+        return rule;
+    }
+
+    public void deleteRule(Integer id, UUID userId) {
+        CategorizationRuleEntity rule = (userId != null ?
+                categorizationRuleRepository.findByIdAndUserId(id, userId) :
+                categorizationRuleRepository.findByIdAndUserIdIsNull(id))
+                .orElseThrow(CategorizationRuleNotFoundException::new);
+
+        categorizationRuleRepository.delete(rule);
+        invalidate(userId);
+    }
+
+    public Optional<Integer> findCategory(UUID userId, String description, double amount, Integer accountId) {
+        return ruleSet(userId).match(description, amount, accountId).map(CategorizationRuleSet.Rule::categoryId);
+    }
+
+    /**
+     * Returns the request with its category filled in by the first matching rule. Requests that already have a
+     * category, or that no rule matches, are returned unchanged.
+     */
+    public CreateTransactionRequestDTO categorize(CreateTransactionRequestDTO request, UUID userId) {
+        if (request.category() != null) {
+            return request;
+        }
+
+        return categorize(request, ruleSet(userId));
+    }
+
+    public List<CreateTransactionRequestDTO> categorizeAll(List<CreateTransactionRequestDTO> requests,
+                                                           UUID userId) {
+        if (requests.stream().allMatch(request -> request.category() != null)) {
+            return requests;
+        }
+
+        CategorizationRuleSet ruleSet = ruleSet(userId);
+        List<CreateTransactionRequestDTO> categorized = new ArrayList<>(requests.size());
+
+        for (CreateTransactionRequestDTO request : requests) {
+            categorized.add(request.category() != null ? request : categorize(request, ruleSet));
+        }
+        return categorized;
+    }
+
+    public CategorizationRuleResponseDTO entityToResponseDto(CategorizationRuleEntity rule) {
+        return new CategorizationRuleResponseDTO(
+                rule.getId(),
+                rule.getCategory().getId(),
+                rule.getMatchType(),
+                rule.getPattern(),
+                rule.getMinAmount(),
+                rule.getMaxAmount(),
+                rule.getAccount() != null ? rule.getAccount().getId() : null,
+                rule.getPriority(),
+                rule.getUserId() == null
+        );
+    }
+
+    private CreateTransactionRequestDTO categorize(CreateTransactionRequestDTO request,
+                                                   CategorizationRuleSet ruleSet) {
+        Optional<CategorizationRuleSet.Rule> rule = ruleSet.match(request.description(),
+                request.amount() != null ? request.amount() : 0, request.accountId());
+
+        if (rule.isEmpty()) {
+            return request;
+        }
+
+        return new CreateTransactionRequestDTO(
+                request.description(),
+                request.amount(),
+                request.transactionDate(),
+                request.type(),
+                request.addToBill(),
+                request.installments(),
+                rule.get().categoryId(),
+                request.accountId(),
+                request.recipientAccountId()
+        );
+    }
+
+    private CategorizationRuleSet ruleSet(UUID userId) {
+        return ruleSets.get(userId, id -> {
+            List<CategorizationRuleSet.Rule> rules = new ArrayList<>(globalRules.get(GLOBAL_RULES,
+                    ignored -> toRules(categorizationRuleRepository.findByUserIdIsNullOrderById())));
+            rules.addAll(toRules(categorizationRuleRepository.findByUserIdOrderById(id)));
+
+            return rules.isEmpty() ? CategorizationRuleSet.empty() : CategorizationRuleSet.compile(rules);
+        });
+    }
+
+    private void invalidate(UUID userId) {
+        if (userId == null) {
+            globalRules.invalidateAll();
+            ruleSets.invalidateAll();
+        } else {
+            ruleSets.invalidate(userId);
+        }
+    }
+
+    private List<CategorizationRuleSet.Rule> toRules(List<CategorizationRuleEntity> entities) {
+        return entities.stream()
+                .map(rule -> new CategorizationRuleSet.Rule(
+                        rule.getId(),
+                        rule.getCategory().getId(),
+                        rule.getMatchType(),
+                        rule.getPattern(),
+                        rule.getMinAmount(),
+                        rule.getMaxAmount(),
+                        rule.getAccount() != null ? rule.getAccount().getId() : null,
+                        rule.getPriority(),
+                        rule.getUserId() == null
+                ))
+                .toList();
+    }
+
+    private void validate(CreateCategorizationRuleRequestDTO createRuleRequestDTO) {
+        CategorizationMatchType matchType = createRuleRequestDTO.matchType();
+        String pattern = createRuleRequestDTO.pattern();
+
+        if (matchType != null && (pattern == null || pattern.isBlank())) {
+            throw new IllegalArgumentException("Pattern is required for match type " + matchType);
+        }
+        if (matchType == null && pattern != null) {
+            throw new IllegalArgumentException("Match type is required when a pattern is given");
+        }
+        if (matchType == null && createRuleRequestDTO.minAmount() == null
+                && createRuleRequestDTO.maxAmount() == null && createRuleRequestDTO.accountId() == null) {
+            throw new IllegalArgumentException("A rule needs at least one condition");
+        }
+        if (createRuleRequestDTO.minAmount() != null && createRuleRequestDTO.maxAmount() != null
+                && createRuleRequestDTO.minAmount() > createRuleRequestDTO.maxAmount()) {
+            throw new IllegalArgumentException("Minimum amount must not be greater than maximum amount");
+        }
+        if (matchType == CategorizationMatchType.REGEX) {
+            try {
+                CategorizationRuleSet.checkRegex(pattern);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid regular expression: " + e.getDescription());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.entities.categories.CategoryEntity;
+import com.ugustavob.finsuppapi.repositories.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the categories table, used to resolve category ids on transaction writes without a query.
+ * Categories are a small reference table that only changes through {@link CategoryService} and the default
+ * categories seeding, which call {@link #invalidate()}; the map is reloaded with a single query on next use.
+ * <p>
+ * The entities handed out are detached copies: they can be set as the category of a transaction, but must not be
+ * modified.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryCache {
+    private final CategoryRepository categoryRepository;
+
+    private volatile Map<Integer, CategoryEntity> categories;
+
+    public Optional<CategoryEntity> findById(Integer id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(categories().get(id));
+    }
+
+    public boolean existsById(Integer id) {
+        return findById(id).isPresent();
+    }
+
+    public synchronized void invalidate() {
+        categories = null;
+    }
+
+    private Map<Integer, CategoryEntity> categories() {
+        Map<Integer, CategoryEntity> current = categories;
+        return current != null ? current : load();
+    }
+
+    // Synchronized with invalidate(), so a load that overlaps a change can't put the old rows back.
+    private synchronized Map<Integer, CategoryEntity> load() {
+        if (categories == null) {
+            categories = categoryRepository.findAll().stream()
+                    .map(category -> new CategoryEntity(category.getId(), category.getDescription()))
+                    .collect(Collectors.toUnmodifiableMap(CategoryEntity::getId, Function.identity()));
+        }
+        return categories;
+    }
+}
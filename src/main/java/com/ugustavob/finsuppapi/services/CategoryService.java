@@ -23,6 +23,7 @@ import java.util.Optional;
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final TransactionService transactionService;
+    private final CategoryCache categoryCache;
 
     public CategoryEntity getCategoryById(@PathVariable int id) {
         return categoryRepository.findById(id).orElseThrow(CategoryNotFoundException::new);
@@ -45,7 +46,10 @@ public class CategoryService {
         CategoryEntity newCategory = new CategoryEntity();
         newCategory.setDescription(StringFormatUtil.toTitleCase(createCategoryRequestDTO.description()));
 
-        return categoryRepository.save(newCategory);
+        CategoryEntity savedCategory = categoryRepository.save(newCategory);
+        categoryCache.invalidate();
+
+        return savedCategory;
     }
 
     public void deleteCategory(int id) {
@@ -54,6 +58,7 @@ public class CategoryService {
         }
 
         categoryRepository.deleteByIdAndReturnEntity(id).orElseThrow(CategoryNotFoundException::new);
+        categoryCache.invalidate();
     }
 
     public CategoryEntity updateCategory(CreateCategoryRequestDTO updateCategoryRequestDTO,
@@ -66,6 +71,9 @@ public class CategoryService {
 
         oldCategory.setDescription(newDescription);
 
-        return categoryRepository.save(oldCategory);
+        CategoryEntity savedCategory = categoryRepository.save(oldCategory);
+        categoryCache.invalidate();
+
+        return savedCategory;
     }
 }
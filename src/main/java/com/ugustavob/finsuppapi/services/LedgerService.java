@@ -0,0 +1,211 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.accounts.AccountBalanceResponseDTO;
+import com.ugustavob.finsuppapi.dto.accounts.LedgerReconciliationDTO;
+import com.ugustavob.finsuppapi.entities.ledger.LedgerEntryType;
+import com.ugustavob.finsuppapi.exception.AccountNotFoundException;
+import com.ugustavob.finsuppapi.repositories.LedgerEntryRepository;
+import com.ugustavob.finsuppapi.utils.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Every change to an account balance goes through here and is recorded in the append-only {@code ledger_entries}
+ * table, numbered per account by {@code ledger_seq}. {@code accounts.balance} is kept as a projection of the ledger,
+ * updated in the same statement that inserts the entry, because it is what the insufficient funds check reads under
+ * the row lock; {@link #reconcile} checks it against the ledger.
+ * <p>
+ * Every {@code snapshot-interval-ms} the accounts with at least {@code snapshot-min-entries} new entries get a
+ * {@code account_balance_snapshots} row, so {@link #balanceAt} reads one snapshot and the entries after it instead of
+ * the whole history. A snapshot is dated with its last entry, since the account keeps changing while it is taken.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+    private static final String SELECT_ACCOUNT_IDS = "SELECT id FROM accounts WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT_SNAPSHOTS = "INSERT INTO account_balance_snapshots (account_id, seq, balance, " +
+            "as_of) " +
+            "SELECT a.id, a.ledger_seq, COALESCE(s.balance, 0) + (SELECT COALESCE(SUM(l.amount), 0) " +
+            "FROM ledger_entries l WHERE l.account_id = a.id AND l.seq > COALESCE(s.seq, 0) " +
+            "AND l.seq <= a.ledger_seq), " +
+            "(SELECT e.created_at FROM ledger_entries e WHERE e.account_id = a.id AND e.seq = a.ledger_seq) " +
+            "FROM accounts a LEFT JOIN LATERAL (SELECT b.seq, b.balance FROM account_balance_snapshots b " +
+            "WHERE b.account_id = a.id ORDER BY b.seq DESC LIMIT 1) s ON TRUE " +
+            "WHERE a.id > ? AND a.id <= ? AND a.ledger_seq - COALESCE(s.seq, 0) >= ? " +
+            "ON CONFLICT (account_id, seq) DO NOTHING";
+    private static final String RESERVE_SEQ = "UPDATE accounts SET balance = balance + ?, " +
+            "ledger_seq = ledger_seq + ? WHERE id = ? RETURNING ledger_seq";
+    private static final String INSERT_ENTRY = "INSERT INTO ledger_entries (account_id, seq, amount, entry_type, " +
+            "transaction_id, counterparty_account_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] ENTRY_TYPES = {Types.INTEGER, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.INTEGER,
+            Types.INTEGER, Types.TIMESTAMP};
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.ledger.timezone:America/Sao_Paulo}")
+    private ZoneId zone;
+
+    @Value("${app.ledger.snapshot-min-entries:20}")
+    private int snapshotMinEntries;
+
+    @Value("${app.ledger.snapshot-batch-size:500}")
+    private int snapshotBatchSize;
+
+    /**
+     * Posts a signed amount without checking the balance, for credits and for reversals of earlier entries.
+     */
+    public void append(Integer accountId, long amount, LedgerEntryType type, Integer transactionId,
+                       Integer counterpartyId) {
+        ledgerEntryRepository.append(accountId, amount, type.name(), transactionId, counterpartyId, now())
+                .orElseThrow(AccountNotFoundException::new);
+    }
+
+    public void debit(Integer accountId, long amount, LedgerEntryType type, Integer transactionId,
+                      Integer counterpartyId) {
+        if (ledgerEntryRepository.debit(accountId, amount, type.name(), transactionId, counterpartyId, now())
+                .isEmpty()) {
+            throw new IllegalArgumentException("Insufficient funds");
+        }
+    }
+
+    /**
+     * Posts a signed amount, checking only a debit against the balance.
+     */
+    public void post(Integer accountId, long amount, LedgerEntryType type, Integer transactionId) {
+        if (amount > 0) {
+            append(accountId, amount, type, transactionId, null);
+        } else if (amount < 0) {
+            debit(accountId, -amount, type, transactionId, null);
+        }
+    }
+
+    /**
+     * Posts many entries with one balance update per account, in account id order, and one batch insert. Balances are
+     * not checked: the caller must hold the account rows locked and have checked them already.
+     */
+    public void appendAll(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<Posting>> byAccount = new TreeMap<>();
+        for (Posting posting : postings) {
+            byAccount.computeIfAbsent(posting.accountId(), id -> new ArrayList<>()).add(posting);
+        }
+
+        Timestamp now = Timestamp.valueOf(now());
+        List<Object[]> rows = new ArrayList<>(postings.size());
+
+        byAccount.forEach((accountId, accountPostings) -> {
+            long delta = 0;
+            for (Posting posting : accountPostings) {
+                delta += posting.amount();
+            }
+
+            Long lastSeq = jdbcTemplate.queryForObject(RESERVE_SEQ, Long.class, delta, accountPostings.size(),
+                    accountId);
+            long seq = lastSeq - accountPostings.size();
+
+            for (Posting posting : accountPostings) {
+                rows.add(new Object[]{accountId, ++seq, posting.amount(), posting.type().name(),
+                        posting.transactionId(), posting.counterpartyId(), now});
+            }
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, rows, ENTRY_TYPES);
+    }
+
+    public void open(Integer accountId) {
+        ledgerEntryRepository.open(accountId, now()).orElseThrow(AccountNotFoundException::new);
+    }
+
+    public void adjustTo(Integer accountId, long balance) {
+        ledgerEntryRepository.adjustTo(accountId, balance, now()).orElseThrow(AccountNotFoundException::new);
+    }
+
+    /**
+     * Balance at the end of {@code date} (today when null), over the entries posted until then.
+     */
+    public AccountBalanceResponseDTO balanceAt(Integer accountId, LocalDate date) {
+        if (date == null) {
+            date = LocalDate.now(zone);
+        }
+
+        return new AccountBalanceResponseDTO(accountId, date,
+                Money.toDecimal(ledgerEntryRepository.balanceAt(accountId, date.plusDays(1).atStartOfDay())));
+    }
+
+    public LedgerReconciliationDTO reconcile(Integer accountId) {
+        List<Object[]> rows = ledgerEntryRepository.reconcile(accountId);
+
+        if (rows.isEmpty()) {
+            throw new AccountNotFoundException();
+        }
+
+        Object[] row = rows.get(0);
+        long balance = ((Number) row[0]).longValue();
+        long seq = ((Number) row[1]).longValue();
+        long ledgerBalance = ((Number) row[2]).longValue();
+        long entriesSinceSnapshot = ((Number) row[3]).longValue();
+        long snapshotSeq = ((Number) row[4]).longValue();
+
+        boolean consistent = balance == ledgerBalance && snapshotSeq + entriesSinceSnapshot == seq;
+
+        if (!consistent) {
+            log.warn("Account {} does not match its ledger: balance {}, ledger balance {}, seq {}, entries {}",
+                    accountId, balance, ledgerBalance, seq, snapshotSeq + entriesSinceSnapshot);
+        }
+
+        return new LedgerReconciliationDTO(accountId, Money.toDecimal(balance), Money.toDecimal(ledgerBalance), seq,
+                consistent);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ledger.snapshot-interval-ms:3600000}")
+    public void takeSnapshots() {
+        try {
+            long afterId = 0;
+            int total = 0;
+            List<Long> ids;
+
+            do {
+                ids = jdbcTemplate.queryForList(SELECT_ACCOUNT_IDS, Long.class, afterId, snapshotBatchSize);
+
+                if (!ids.isEmpty()) {
+                    long lastId = ids.get(ids.size() - 1);
+                    total += jdbcTemplate.update(INSERT_SNAPSHOTS, afterId, lastId, snapshotMinEntries);
+                    afterId = lastId;
+                }
+            } while (ids.size() >= snapshotBatchSize);
+
+            if (total > 0) {
+                log.info("Took {} account balance snapshots", total);
+            }
+        } catch (Exception e) {
+            log.warn("Ledger snapshots failed: {}", e.getMessage());
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(zone);
+    }
+
+    public record Posting(Integer accountId, long amount, LedgerEntryType type, Integer transactionId,
+                          Integer counterpartyId) {
+    }
+}
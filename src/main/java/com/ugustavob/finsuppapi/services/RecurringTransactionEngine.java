@@ -0,0 +1,227 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionEntity;
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionStatus;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.repositories.RecurringTransactionRepository;
+import com.ugustavob.finsuppapi.utils.Money;
+import com.ugustavob.finsuppapi.utils.TimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Posts the occurrences of recurring transactions as regular transactions, through
+ * {@link TransactionService#createTransaction} and therefore the normal balance and bill logic. An occurrence is
+ * posted at the start of its day in {@code app.recurring-transactions.timezone}.
+ * <p>
+ * Every {@code load-interval-ms} a node claims the definitions due within the next {@code horizon} with
+ * {@code FOR UPDATE SKIP LOCKED} (see {@link RecurringTransactionRepository#claim}). Definitions that are already due,
+ * including anything missed while no node was running, are posted right away in batches; the others wait in an
+ * in-memory {@link TimerWheel} and are posted when their time comes, without polling the database.
+ * <p>
+ * Each occurrence is posted in a database transaction of its own that locks the definition row, creates the
+ * transaction and moves {@code nextDate} forward, so an occurrence is never posted twice and a failure only rolls back
+ * that occurrence. Transfers run through {@link TransferEngine}, which then owns the transaction and retries it after
+ * a deadlock. A failed posting is retried with a growing delay and, once out of attempts, the definition is marked as
+ * failed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringTransactionEngine {
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final TransactionService transactionService;
+    private final TransferEngine transferEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.recurring-transactions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.recurring-transactions.timezone:America/Sao_Paulo}")
+    private ZoneId zone;
+
+    @Value("${app.recurring-transactions.workers:2}")
+    private int workers;
+
+    @Value("${app.recurring-transactions.horizon:PT24H}")
+    private Duration horizon;
+
+    @Value("${app.recurring-transactions.load-interval-ms:600000}")
+    private long loadIntervalMs;
+
+    @Value("${app.recurring-transactions.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${app.recurring-transactions.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.recurring-transactions.lease:PT10M}")
+    private Duration lease;
+
+    @Value("${app.recurring-transactions.max-occurrences-per-run:100}")
+    private int maxOccurrencesPerRun;
+
+    @Value("${app.recurring-transactions.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.recurring-transactions.retry-backoff:PT5M}")
+    private Duration retryBackoff;
+
+    private ScheduledExecutorService pool;
+    private TimerWheel<Integer> wheel;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        pool = Executors.newScheduledThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "recurring-transactions-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // 3 levels of 64 slots cover 64^3 ticks, about 72 hours with the default 1 second tick.
+        wheel = new TimerWheel<>(tickMs, 3, System.currentTimeMillis());
+
+        pool.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        pool.scheduleWithFixedDelay(this::load, 0, loadIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a load pass now instead of waiting for the next one, so a definition created or resumed for today is
+     * posted right away.
+     */
+    public void wakeUp() {
+        if (pool != null) {
+            pool.execute(this::load);
+        }
+    }
+
+    private void tick() {
+        try {
+            wheel.advance(System.currentTimeMillis(), id -> pool.execute(() -> post(id)));
+        } catch (Exception e) {
+            log.warn("Recurring transactions timer failed: {}", e.getMessage());
+        }
+    }
+
+    private void load() {
+        try {
+            List<RecurringTransactionEntity> claimed;
+
+            do {
+                LocalDateTime now = LocalDateTime.now(zone);
+                claimed = recurringTransactionRepository.claim(now.plus(horizon).toLocalDate(), now,
+                        lease.toSeconds(), batchSize);
+
+                for (RecurringTransactionEntity definition : claimed) {
+                    long runAt = definition.getNextDate().atStartOfDay(zone).toInstant().toEpochMilli();
+
+                    if (runAt <= System.currentTimeMillis()) {
+                        post(definition.getId());
+                    } else {
+                        wheel.schedule(runAt, definition.getId());
+                    }
+                }
+            } while (claimed.size() >= batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            log.warn("Recurring transactions failed to load definitions: {}", e.getMessage());
+        }
+    }
+
+    void post(Integer id) {
+        try {
+            int posted = 0;
+
+            while (posted < maxOccurrencesPerRun && postNext(id)) {
+                posted++;
+            }
+        } catch (RuntimeException e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            String error = message.substring(0, Math.min(message.length(), 255));
+
+            try {
+                recurringTransactionRepository.recordFailure(id, error, LocalDateTime.now(zone).plus(retryBackoff),
+                        maxAttempts);
+            } catch (RuntimeException recordError) {
+                log.warn("Could not record failure of recurring transaction {}: {}", id, recordError.getMessage());
+            }
+            log.warn("Recurring transaction {} failed to post: {}", id, error);
+        }
+    }
+
+    private boolean postNext(Integer id) {
+        RecurringTransactionEntity definition = recurringTransactionRepository.findById(id).orElse(null);
+
+        if (definition == null) {
+            return false;
+        }
+
+        Boolean posted;
+        if (definition.getTransactionType() == TransactionType.TRANSFER) {
+            posted = transferEngine.execute(definition.getAccountId(), definition.getRecipientAccountId(),
+                    () -> postDue(id));
+        } else {
+            posted = transactionTemplate.execute(status -> postDue(id));
+        }
+
+        return Boolean.TRUE.equals(posted);
+    }
+
+    /**
+     * Posts the next occurrence if it is due. Runs inside the transaction of {@link #postNext}.
+     */
+    private boolean postDue(Integer id) {
+        RecurringTransactionEntity definition = recurringTransactionRepository.lockById(id).orElse(null);
+
+        // Paused, deleted, rescheduled or already posted since it was claimed: nothing to do.
+        if (definition == null || definition.getStatus() != RecurringTransactionStatus.ACTIVE
+                || definition.getNextDate() == null || definition.getNextDate().isAfter(LocalDate.now(zone))) {
+            return false;
+        }
+
+        transactionService.createTransaction(new CreateTransactionRequestDTO(
+                definition.getDescription(),
+                Money.toDecimal(definition.getAmount()),
+                definition.getNextDate(),
+                definition.getTransactionType(),
+                definition.isAddToBill(),
+                definition.isAddToBill() ? 1 : null,
+                definition.getCategoryId(),
+                definition.getAccountId(),
+                definition.getRecipientAccountId()
+        ), definition.getUserId());
+
+        definition.advance();
+        definition.setAttempts(0);
+        definition.setLastError(null);
+        definition.setLockedUntil(null);
+        return true;
+    }
+}
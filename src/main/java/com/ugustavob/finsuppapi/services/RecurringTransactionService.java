@@ -0,0 +1,167 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.transactions.CreateRecurringTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.RecurringTransactionResponseDTO;
+import com.ugustavob.finsuppapi.entities.transaction.RecurrenceFrequency;
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionEntity;
+import com.ugustavob.finsuppapi.entities.transaction.RecurringTransactionStatus;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.exception.RecurringTransactionNotFoundException;
+import com.ugustavob.finsuppapi.repositories.RecurringTransactionRepository;
+import com.ugustavob.finsuppapi.utils.Money;
+import com.ugustavob.finsuppapi.utils.StringFormatUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class RecurringTransactionService {
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final TransactionValidator transactionValidator;
+    private final RecurringTransactionEngine recurringTransactionEngine;
+
+    @Value("${app.recurring-transactions.timezone:America/Sao_Paulo}")
+    private ZoneId zone;
+
+    public List<RecurringTransactionResponseDTO> getRecurringTransactions(UUID userId) {
+        return recurringTransactionRepository.findByUserIdOrderById(userId).stream()
+                .map(this::entityToResponseDto)
+                .toList();
+    }
+
+    public RecurringTransactionEntity createRecurringTransaction(CreateRecurringTransactionRequestDTO request,
+                                                                 UUID userId) {
+        boolean transfer = request.type() == TransactionType.TRANSFER;
+        Integer recipientAccountId = transfer ? request.recipientAccountId() : null;
+
+        validate(request, recipientAccountId, userId);
+
+        int interval = request.interval() != null ? request.interval() : 1;
+        LocalDate endDate = request.frequency() == RecurrenceFrequency.ONCE ? null : request.endDate();
+
+        RecurringTransactionEntity recurringTransaction = recurringTransactionRepository.save(
+                new RecurringTransactionEntity(
+                        null,
+                        userId,
+                        StringFormatUtil.toTitleCase(request.description()),
+                        Money.ofDecimal(request.amount()),
+                        request.type(),
+                        request.addToBill(),
+                        request.category(),
+                        request.accountId(),
+                        recipientAccountId,
+                        request.frequency(),
+                        interval,
+                        request.startDate(),
+                        endDate,
+                        request.startDate(),
+                        0,
+                        RecurringTransactionStatus.ACTIVE,
+                        0,
+                        null,
+                        null,
+                        LocalDateTime.now(zone)
+                ));
+
+        recurringTransactionEngine.wakeUp();
+        return recurringTransaction;
+    }
+
+    public RecurringTransactionEntity pauseRecurringTransaction(Integer id, UUID userId) {
+        RecurringTransactionEntity recurringTransaction = getRecurringTransaction(id, userId);
+
+        if (recurringTransaction.getStatus() == RecurringTransactionStatus.FINISHED) {
+            throw new IllegalStateException("Recurring transaction is already finished");
+        }
+
+        recurringTransaction.setStatus(RecurringTransactionStatus.PAUSED);
+        return recurringTransactionRepository.save(recurringTransaction);
+    }
+
+    /**
+     * Reactivates a paused or failed definition. Occurrences that fell while it was paused are skipped; the
+     * occurrence that failed is posted again.
+     */
+    public RecurringTransactionEntity resumeRecurringTransaction(Integer id, UUID userId) {
+        RecurringTransactionEntity recurringTransaction = getRecurringTransaction(id, userId);
+
+        if (recurringTransaction.getStatus() == RecurringTransactionStatus.FINISHED) {
+            throw new IllegalStateException("Recurring transaction is already finished");
+        }
+
+        if (recurringTransaction.getStatus() == RecurringTransactionStatus.PAUSED) {
+            LocalDate today = LocalDate.now(zone);
+
+            while (recurringTransaction.getNextDate() != null && recurringTransaction.getNextDate().isBefore(today)) {
+                recurringTransaction.advance();
+            }
+        }
+
+        if (recurringTransaction.getNextDate() != null) {
+            recurringTransaction.setStatus(RecurringTransactionStatus.ACTIVE);
+        }
+        recurringTransaction.setAttempts(0);
+        recurringTransaction.setLastError(null);
+        recurringTransaction.setLockedUntil(null);
+
+        RecurringTransactionEntity saved = recurringTransactionRepository.save(recurringTransaction);
+        recurringTransactionEngine.wakeUp();
+        return saved;
+    }
+
+    public void deleteRecurringTransaction(Integer id, UUID userId) {
+        recurringTransactionRepository.delete(getRecurringTransaction(id, userId));
+    }
+
+    public RecurringTransactionResponseDTO entityToResponseDto(RecurringTransactionEntity recurringTransaction) {
+        return new RecurringTransactionResponseDTO(
+                recurringTransaction.getId(),
+                recurringTransaction.getDescription(),
+                Money.toDecimal(recurringTransaction.getAmount()),
+                recurringTransaction.getTransactionType(),
+                recurringTransaction.isAddToBill(),
+                recurringTransaction.getCategoryId(),
+                recurringTransaction.getAccountId(),
+                recurringTransaction.getRecipientAccountId(),
+                recurringTransaction.getFrequency(),
+                recurringTransaction.getInterval(),
+                recurringTransaction.getStartDate(),
+                recurringTransaction.getEndDate(),
+                recurringTransaction.getNextDate(),
+                recurringTransaction.getOccurrences(),
+                recurringTransaction.getStatus(),
+                recurringTransaction.getLastError()
+        );
+    }
+
+    private RecurringTransactionEntity getRecurringTransaction(Integer id, UUID userId) {
+        return recurringTransactionRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(RecurringTransactionNotFoundException::new);
+    }
+
+    private void validate(CreateRecurringTransactionRequestDTO request, Integer recipientAccountId, UUID userId) {
+        // Each occurrence is posted as a single transaction, so a bill gets one installment.
+        transactionValidator.check(new TransactionValidator.Draft(
+                request.type(),
+                request.addToBill(),
+                request.addToBill() ? 1 : 0,
+                request.accountId(),
+                recipientAccountId,
+                request.category()
+        ), userId);
+
+        if (request.startDate().isBefore(LocalDate.now(zone))) {
+            throw new IllegalArgumentException("Start date must be today or later");
+        }
+        if (request.endDate() != null && request.endDate().isBefore(request.startDate())) {
+            throw new IllegalArgumentException("End date must not be before the start date");
+        }
+    }
+}
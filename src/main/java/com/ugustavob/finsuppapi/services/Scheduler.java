@@ -18,6 +18,7 @@ public class Scheduler {
     private static final Logger log = LoggerFactory.getLogger(Scheduler.class);
     private final BillBatchService billBatchService;
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
 
     @EventListener(ApplicationReadyEvent.class)
     public void onStartup() {
@@ -55,6 +56,7 @@ public class Scheduler {
                     new CategoryEntity("Other")
             );
             categoryRepository.saveAll(defaultCategories);
+            categoryCache.invalidate();
             log.info("Default categories created successfully");
         } else {
             log.info("Default categories already exist");
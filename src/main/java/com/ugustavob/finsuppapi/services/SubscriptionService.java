@@ -9,6 +9,7 @@ import com.ugustavob.finsuppapi.entities.subscription.SubscriptionStatus;
 import com.ugustavob.finsuppapi.exception.SubscriptionNotFoundException;
 import com.ugustavob.finsuppapi.repositories.SubscriptionRepository;
 import com.ugustavob.finsuppapi.specifications.SubscriptionSpecification;
+import com.ugustavob.finsuppapi.utils.Money;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -24,6 +25,7 @@ import java.util.UUID;
 public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final BillService billService;
+    private final BaseService baseService;
 
     public SubscriptionEntity createSubscription(
             CreateSubscriptionRequestDTO createSubscriptionRequestDTO,
@@ -33,7 +35,7 @@ public class SubscriptionService {
 
         SubscriptionEntity subscription = new SubscriptionEntity();
         subscription.setDescription(createSubscriptionRequestDTO.description());
-        subscription.setPrice(createSubscriptionRequestDTO.price());
+        subscription.setPrice(Money.ofDecimal(createSubscriptionRequestDTO.price()));
         subscription.setInterval(createSubscriptionRequestDTO.interval());
         subscription.setStatus(createSubscriptionRequestDTO.status());
         subscription.setAccount(account);
@@ -64,9 +66,7 @@ public class SubscriptionService {
 
         Page<SubscriptionEntity> subscriptionPage = subscriptionRepository.findAll(specification, pageable);
 
-        if (subscriptionPage.isEmpty()) {
-            throw new SubscriptionNotFoundException("No subscriptions found");
-        }
+        baseService.checkIfPageIsEmpty(subscriptionPage, () -> new SubscriptionNotFoundException("No subscriptions found"));
 
         return subscriptionPage.map(SubscriptionEntity::entityToResponseDTO);
     }
@@ -85,7 +85,7 @@ public class SubscriptionService {
         SubscriptionStatus oldStatus = subscription.getStatus();
 
         subscription.setDescription(dto.description());
-        subscription.setPrice(dto.price());
+        subscription.setPrice(Money.ofDecimal(dto.price()));
         subscription.setInterval(dto.interval());
         subscription.setAccount(account);
 
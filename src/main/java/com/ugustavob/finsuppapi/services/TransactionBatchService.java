@@ -0,0 +1,494 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.transactions.BatchItemStatus;
+import com.ugustavob.finsuppapi.dto.transactions.BatchMode;
+import com.ugustavob.finsuppapi.dto.transactions.BatchTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.BatchTransactionResultDTO;
+import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.DuplicatePolicy;
+import com.ugustavob.finsuppapi.entities.account.AccountEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillEntity;
+import com.ugustavob.finsuppapi.entities.bill.BillStatus;
+import com.ugustavob.finsuppapi.entities.ledger.LedgerEntryType;
+import com.ugustavob.finsuppapi.entities.transaction.BillPropagationStatus;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.exception.DomainException;
+import com.ugustavob.finsuppapi.repositories.AccountRepository;
+import com.ugustavob.finsuppapi.utils.Money;
+import com.ugustavob.finsuppapi.utils.StringFormatUtil;
+import com.ugustavob.finsuppapi.utils.TransactionFingerprint;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates many transactions in one request. Every item is validated with the {@link TransactionValidator} before
+ * anything is written, referenced accounts are resolved with one query, balance changes are summed into a single update
+ * per account and transactions, ledger entries and bill items are written with JDBC batch inserts. With
+ * {@code app.bills.async-propagation.enabled}, card purchases are queued on the bill outbox instead, as single creates
+ * are.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (description, amount, installments, " +
+            "add_to_bill, transaction_date, transaction_type, category_id, account_id, recipient_id, bill_status, " +
+            "fingerprint, possible_duplicate) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BILL_ITEM = "INSERT INTO bill_items (bill_id, transaction_id, amount, " +
+            "installment_number) VALUES (?, ?, ?, ?)";
+    private static final String DUPLICATE_SKIPPED = "Skipped: duplicate of an existing transaction";
+    private static final String POSSIBLE_DUPLICATE = "Possible duplicate of an existing transaction";
+
+    private final AccountRepository accountRepository;
+    private final BillService billService;
+    private final BillOutboxService billOutboxService;
+    private final CategorizationService categorizationService;
+    private final LedgerService ledgerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final TransactionValidator transactionValidator;
+
+    @Value("${app.transactions.batch.max-size:500}")
+    private int maxSize;
+
+    public List<BatchTransactionResultDTO> createTransactions(BatchTransactionRequestDTO batchRequest, UUID userId) {
+        return createTransactions(batchRequest, userId, fingerprint -> true);
+    }
+
+    /**
+     * @param mightExist cheap pre-check for the duplicate lookup: only the fingerprints it accepts are looked up in
+     *                   the database, so callers that know most items are new can skip the query entirely
+     */
+    public List<BatchTransactionResultDTO> createTransactions(BatchTransactionRequestDTO batchRequest, UUID userId,
+                                                              Predicate<String> mightExist) {
+        if (batchRequest.transactions().size() > maxSize) {
+            throw new IllegalArgumentException("A batch can have at most " + maxSize + " transactions");
+        }
+
+        List<CreateTransactionRequestDTO> requests = categorizationService.categorizeAll(batchRequest.transactions(),
+                userId);
+        BatchMode mode = batchRequest.mode() == null ? BatchMode.ALL_OR_NOTHING : batchRequest.mode();
+
+        String[] errors = new String[requests.size()];
+
+        TransactionValidator.Accounts accounts = transactionValidator.accounts(requests.stream()
+                .flatMap(request -> Stream.of(request.accountId(), request.recipientAccountId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()), userId);
+
+        for (int i = 0; i < requests.size(); i++) {
+            errors[i] = validate(requests.get(i), accounts);
+        }
+
+        String[] fingerprints = fingerprints(requests, errors);
+        boolean[] flagged = new boolean[requests.size()];
+
+        if (batchRequest.duplicates() != null && batchRequest.duplicates() != DuplicatePolicy.ALLOW) {
+            applyDuplicatePolicy(batchRequest.duplicates(), requests, fingerprints, errors, flagged, mightExist);
+        }
+
+        if (mode == BatchMode.ALL_OR_NOTHING && hasErrors(errors)) {
+            return results(errors, flagged, null);
+        }
+
+        return transactionTemplate.execute(status -> {
+            Integer[] ids = insert(requests, errors, fingerprints, flagged, mode);
+
+            if (ids == null) {
+                status.setRollbackOnly();
+            }
+            return results(errors, flagged, ids);
+        });
+    }
+
+    private String validate(CreateTransactionRequestDTO request, TransactionValidator.Accounts accounts) {
+        Set<ConstraintViolation<CreateTransactionRequestDTO>> violations = validator.validate(request);
+
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+
+        if (request.transactionDate() == null) {
+            return "Transaction date is required";
+        }
+
+        try {
+            transactionValidator.check(new TransactionValidator.Draft(
+                    request.type(),
+                    request.addToBill(),
+                    request.installments() == null ? 0 : request.installments(),
+                    request.accountId(),
+                    request.recipientAccountId(),
+                    request.category()
+            ), accounts);
+        } catch (DomainException | IllegalArgumentException e) {
+            return e.getMessage();
+        }
+
+        return null;
+    }
+
+    private String[] fingerprints(List<CreateTransactionRequestDTO> requests, String[] errors) {
+        String[] fingerprints = new String[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTransactionRequestDTO request = requests.get(i);
+
+            if (errors[i] == null) {
+                fingerprints[i] = TransactionFingerprint.of(request.accountId(), request.transactionDate(),
+                        request.type(), StringFormatUtil.toTitleCase(request.description()), request.amount());
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Looks up the fingerprints of all valid items with a single query and rejects, skips or flags the items that
+     * match an existing transaction.
+     */
+    private void applyDuplicatePolicy(DuplicatePolicy policy, List<CreateTransactionRequestDTO> requests,
+                                      String[] fingerprints, String[] errors, boolean[] flagged,
+                                      Predicate<String> mightExist) {
+        Set<Integer> accountIds = new LinkedHashSet<>();
+        Set<String> candidates = new LinkedHashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] == null && mightExist.test(fingerprints[i])) {
+                accountIds.add(requests.get(i).accountId());
+                candidates.add(fingerprints[i]);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<Object> params = new ArrayList<>(accountIds);
+        params.addAll(candidates);
+
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT fingerprint FROM transactions " +
+                "WHERE account_id IN (" + String.join(", ", Collections.nCopies(accountIds.size(), "?")) + ") " +
+                "AND fingerprint IN (" + String.join(", ", Collections.nCopies(candidates.size(), "?")) + ")",
+                String.class, params.toArray()));
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null || !existing.contains(fingerprints[i])) {
+                continue;
+            }
+
+            switch (policy) {
+                case REJECT -> errors[i] = POSSIBLE_DUPLICATE;
+                case SKIP -> errors[i] = DUPLICATE_SKIPPED;
+                case FLAG -> flagged[i] = true;
+                case ALLOW -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs inside the batch transaction. Returns the generated ids, or {@code null} when an all-or-nothing batch has
+     * to be rolled back.
+     */
+    private Integer[] insert(List<CreateTransactionRequestDTO> requests, String[] errors, String[] fingerprints,
+                             boolean[] flagged, BatchMode mode) {
+        Set<Integer> touchedAccounts = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTransactionRequestDTO request = requests.get(i);
+
+            if (errors[i] == null && !request.addToBill()) {
+                touchedAccounts.add(request.accountId());
+                if (request.type() == TransactionType.TRANSFER) {
+                    touchedAccounts.add(request.recipientAccountId());
+                }
+            }
+        }
+
+        Map<Integer, Long> balances = new HashMap<>();
+        if (!touchedAccounts.isEmpty()) {
+            for (Object[] row : accountRepository.lockBalancesInIdOrder(touchedAccounts)) {
+                balances.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+            }
+        }
+
+        Map<String, Optional<BillEntity>> bills = new HashMap<>();
+        List<List<BillInstallment>> installments = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTransactionRequestDTO request = requests.get(i);
+            installments.add(List.of());
+
+            if (errors[i] != null) {
+                continue;
+            }
+
+            if (request.addToBill()) {
+                List<BillInstallment> itemInstallments = planInstallments(request, bills);
+
+                if (itemInstallments == null) {
+                    errors[i] = "Bill is not open";
+                } else {
+                    installments.set(i, itemInstallments);
+                }
+            } else {
+                errors[i] = applyToBalances(request, balances);
+            }
+
+            if (errors[i] != null && mode == BatchMode.ALL_OR_NOTHING) {
+                return null;
+            }
+        }
+
+        boolean async = billOutboxService.isEnabled();
+        Integer[] ids = insertTransactions(requests, errors, fingerprints, flagged,
+                async ? BillPropagationStatus.PENDING : BillPropagationStatus.APPLIED);
+        ledgerService.appendAll(postings(requests, ids));
+
+        if (async) {
+            enqueueBillItems(requests, ids);
+        } else {
+            insertBillItems(installments, ids, bills);
+        }
+
+        return ids;
+    }
+
+    private String applyToBalances(CreateTransactionRequestDTO request, Map<Integer, Long> balances) {
+        long amount = Money.ofDecimal(request.amount());
+
+        if (request.type() == TransactionType.DEPOSIT) {
+            balances.merge(request.accountId(), amount, Long::sum);
+            return null;
+        }
+
+        if (balances.getOrDefault(request.accountId(), 0L) < amount) {
+            return "Insufficient funds";
+        }
+
+        balances.merge(request.accountId(), -amount, Long::sum);
+
+        if (request.type() == TransactionType.TRANSFER) {
+            balances.merge(request.recipientAccountId(), amount, Long::sum);
+        }
+        return null;
+    }
+
+    private List<LedgerService.Posting> postings(List<CreateTransactionRequestDTO> requests, Integer[] ids) {
+        List<LedgerService.Posting> postings = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTransactionRequestDTO request = requests.get(i);
+
+            if (ids[i] == null || request.addToBill()) {
+                continue;
+            }
+
+            Integer accountId = request.accountId();
+            long amount = Money.ofDecimal(request.amount());
+
+            switch (request.type()) {
+                case DEPOSIT -> postings.add(new LedgerService.Posting(accountId, amount, LedgerEntryType.DEPOSIT,
+                        ids[i], null));
+                case WITHDRAW -> postings.add(new LedgerService.Posting(accountId, -amount, LedgerEntryType.WITHDRAW,
+                        ids[i], null));
+                case TRANSFER -> {
+                    Integer recipientId = request.recipientAccountId();
+
+                    postings.add(new LedgerService.Posting(accountId, -amount, LedgerEntryType.TRANSFER_OUT, ids[i],
+                            recipientId));
+                    postings.add(new LedgerService.Posting(recipientId, amount, LedgerEntryType.TRANSFER_IN, ids[i],
+                            accountId));
+                }
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Plans the bill items of a card purchase with read-only lookups, cached per billing period in {@code bills}, and
+     * returns {@code null} when one of its bills is not open. Nothing is written here: bills that do not exist yet are
+     * only created for items that end up inserted, so a rejected item leaves no empty bill behind.
+     */
+    private List<BillInstallment> planInstallments(CreateTransactionRequestDTO request,
+                                                   Map<String, Optional<BillEntity>> bills) {
+        AccountEntity account = accountRepository.getReferenceById(request.accountId());
+        int count = request.installments();
+        long amount = Money.ofDecimal(request.amount());
+        List<BillInstallment> planned = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            LocalDate installmentDate = request.transactionDate().plusMonths(i);
+            String period = account.getId() + ":" + billService.billingPeriodStart(account, installmentDate);
+            Optional<BillEntity> bill = bills.computeIfAbsent(period,
+                    ignored -> Optional.ofNullable(billService.findBill(account, installmentDate)));
+
+            if (bill.isPresent() && bill.get().getStatus() != BillStatus.OPEN) {
+                return null;
+            }
+
+            planned.add(new BillInstallment(account, installmentDate, period, i + 1,
+                    Money.installment(amount, count, i + 1)));
+        }
+        return planned;
+    }
+
+    private Integer[] insertTransactions(List<CreateTransactionRequestDTO> requests, String[] errors,
+                                         String[] fingerprints, boolean[] flagged,
+                                         BillPropagationStatus billStatus) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] == null) {
+                indexes.add(i);
+            }
+        }
+
+        Integer[] ids = new Integer[requests.size()];
+        if (indexes.isEmpty()) {
+            return ids;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_TRANSACTION, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        CreateTransactionRequestDTO request = requests.get(indexes.get(i));
+                        int installments = request.installments() != null && request.installments() > 0
+                                ? request.installments() : 0;
+
+                        ps.setString(1, StringFormatUtil.toTitleCase(request.description()));
+                        ps.setLong(2, Money.ofDecimal(request.amount()));
+                        ps.setInt(3, installments);
+                        ps.setBoolean(4, request.addToBill());
+                        ps.setDate(5, Date.valueOf(request.transactionDate()));
+                        ps.setString(6, request.type().name());
+                        ps.setInt(7, request.category());
+                        ps.setInt(8, request.accountId());
+                        if (request.recipientAccountId() != null) {
+                            ps.setInt(9, request.recipientAccountId());
+                        } else {
+                            ps.setNull(9, Types.INTEGER);
+                        }
+                        if (request.addToBill()) {
+                            ps.setString(10, billStatus.name());
+                        } else {
+                            ps.setNull(10, Types.VARCHAR);
+                        }
+                        ps.setString(11, fingerprints[indexes.get(i)]);
+                        ps.setBoolean(12, flagged[indexes.get(i)]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return indexes.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < indexes.size(); i++) {
+            ids[indexes.get(i)] = ((Number) keys.get(i).get("id")).intValue();
+        }
+        return ids;
+    }
+
+    /**
+     * Writes the bill items of the inserted card purchases and adds them to their bills' totals, creating the bills
+     * that did not exist when the items were planned.
+     */
+    private void insertBillItems(List<List<BillInstallment>> installments, Integer[] ids,
+                                 Map<String, Optional<BillEntity>> bills) {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 0; i < installments.size(); i++) {
+            if (ids[i] == null) {
+                continue;
+            }
+
+            for (BillInstallment installment : installments.get(i)) {
+                BillEntity bill = bills.get(installment.period()).orElse(null);
+
+                if (bill == null) {
+                    bill = billService.findOrCreateBill(installment.account(), installment.date());
+                    bills.put(installment.period(), Optional.of(bill));
+                }
+
+                bill.setTotalAmount(bill.getTotalAmount() + installment.amount());
+                rows.add(new Object[]{bill.getId(), ids[i], installment.amount(), installment.number()});
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BILL_ITEM, rows);
+        }
+    }
+
+    private void enqueueBillItems(List<CreateTransactionRequestDTO> requests, Integer[] ids) {
+        Map<Integer, Integer> accountIdsByTransactionId = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (ids[i] != null && requests.get(i).addToBill()) {
+                accountIdsByTransactionId.put(ids[i], requests.get(i).accountId());
+            }
+        }
+
+        if (!accountIdsByTransactionId.isEmpty()) {
+            billOutboxService.enqueueAll(accountIdsByTransactionId);
+        }
+    }
+
+    private boolean hasErrors(String[] errors) {
+        return Arrays.stream(errors).anyMatch(error -> error != null && !DUPLICATE_SKIPPED.equals(error));
+    }
+
+    private List<BatchTransactionResultDTO> results(String[] errors, boolean[] flagged, Integer[] ids) {
+        List<BatchTransactionResultDTO> results = new ArrayList<>(errors.length);
+
+        for (int i = 0; i < errors.length; i++) {
+            if (DUPLICATE_SKIPPED.equals(errors[i])) {
+                results.add(new BatchTransactionResultDTO(i, BatchItemStatus.SKIPPED, null, errors[i]));
+            } else if (errors[i] != null) {
+                results.add(new BatchTransactionResultDTO(i, BatchItemStatus.REJECTED, null, errors[i]));
+            } else if (ids == null) {
+                results.add(new BatchTransactionResultDTO(i, BatchItemStatus.NOT_APPLIED, null,
+                        "Batch was not applied because another item failed"));
+            } else {
+                results.add(new BatchTransactionResultDTO(i, BatchItemStatus.CREATED, ids[i],
+                        flagged[i] ? POSSIBLE_DUPLICATE : null));
+            }
+        }
+        return results;
+    }
+
+    private record BillInstallment(AccountEntity account, LocalDate date, String period, int number, long amount) {
+    }
+}
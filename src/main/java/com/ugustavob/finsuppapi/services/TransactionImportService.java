@@ -0,0 +1,410 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.transactions.BatchItemStatus;
+import com.ugustavob.finsuppapi.dto.transactions.BatchMode;
+import com.ugustavob.finsuppapi.dto.transactions.BatchTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.BatchTransactionResultDTO;
+import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.CsvImportMappingDTO;
+import com.ugustavob.finsuppapi.dto.transactions.DuplicatePolicy;
+import com.ugustavob.finsuppapi.dto.transactions.TransactionImportJobDTO;
+import com.ugustavob.finsuppapi.dto.transactions.TransactionImportRejectionDTO;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportFormat;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportJobEntity;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionImportStatus;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.exception.CategoryNotFoundException;
+import com.ugustavob.finsuppapi.exception.TransactionImportJobNotFoundException;
+import com.ugustavob.finsuppapi.repositories.CategoryRepository;
+import com.ugustavob.finsuppapi.repositories.TransactionImportJobRepository;
+import com.ugustavob.finsuppapi.repositories.TransactionImportRejectionRepository;
+import com.ugustavob.finsuppapi.utils.BloomFilter;
+import com.ugustavob.finsuppapi.utils.CsvStatementReader;
+import com.ugustavob.finsuppapi.utils.OfxStatementReader;
+import com.ugustavob.finsuppapi.utils.StatementReader;
+import com.ugustavob.finsuppapi.utils.StatementRow;
+import com.ugustavob.finsuppapi.utils.TransactionFingerprint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Imports bank statements in the background. The upload is spooled to a temporary file and read back as a stream,
+ * one entry at a time; every chunk of entries goes through {@link TransactionBatchService} in best-effort mode, so it
+ * follows the same validation, balance and bill rules as a regular transaction and commits on its own. Progress and
+ * rejected rows are recorded on the job after each chunk.
+ * <p>
+ * Unless duplicates are allowed, the fingerprints of the account's existing transactions are loaded into a Bloom
+ * filter when the job starts, so a chunk only queries the database for entries the filter cannot rule out.
+ * <p>
+ * Spooled files live on the local disk of the node that received the upload, so jobs left active by a restart are
+ * marked as failed on startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+    private static final List<TransactionImportStatus> ACTIVE = List.of(TransactionImportStatus.PENDING,
+            TransactionImportStatus.RUNNING);
+    private static final String INSERT_REJECTION = "INSERT INTO transaction_import_rejections (job_id, row_number, " +
+            "reason, content) VALUES (?, ?, ?, ?)";
+    private static final int MAX_DESCRIPTION_LENGTH = 30;
+    private static final String COUNT_FINGERPRINTS = "SELECT COUNT(*) FROM transactions " +
+            "WHERE account_id = ? AND fingerprint IS NOT NULL";
+    private static final String SELECT_FINGERPRINTS = "SELECT fingerprint FROM transactions " +
+            "WHERE account_id = ? AND fingerprint IS NOT NULL";
+
+    private final TransactionImportJobRepository transactionImportJobRepository;
+    private final TransactionImportRejectionRepository transactionImportRejectionRepository;
+    private final TransactionBatchService transactionBatchService;
+    private final AccountService accountService;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.transactions.import.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.transactions.import.workers:2}")
+    private int workers;
+
+    @Value("${app.transactions.import.max-stored-rejections:1000}")
+    private int maxStoredRejections;
+
+    @Value("${app.transactions.import.duplicate-filter-fpp:0.01}")
+    private double duplicateFilterFpp;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "transaction-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            int interrupted = transactionImportJobRepository.failAll(ACTIVE, "Import interrupted by a restart",
+                    LocalDateTime.now());
+
+            if (interrupted > 0) {
+                log.warn("Marked {} interrupted transaction import(s) as failed", interrupted);
+            }
+        } catch (Exception e) {
+            log.warn("Could not recover interrupted transaction imports: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public TransactionImportJobEntity startImport(MultipartFile file, ImportRequest importRequest, UUID userId)
+            throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        accountService.getAccountByIdAndCompareWithUserId(importRequest.accountId(), userId);
+
+        if (importRequest.category() != null && !categoryRepository.existsById(importRequest.category())) {
+            throw new CategoryNotFoundException();
+        }
+
+        TransactionImportFormat format = importRequest.format() != null ? importRequest.format() :
+                detectFormat(file.getOriginalFilename());
+
+        if (format == TransactionImportFormat.CSV) {
+            DateTimeFormatter.ofPattern(importRequest.mapping().dateFormat());
+        }
+
+        Path spooled = Files.createTempFile("transaction-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TransactionImportJobEntity job = transactionImportJobRepository.save(new TransactionImportJobEntity(null,
+                userId, importRequest.accountId(), format, file.getOriginalFilename(), TransactionImportStatus.PENDING,
+                Files.size(spooled), 0, 0, 0, 0, 0, null, now, now));
+
+        executor.execute(() -> run(job.getId(), userId, format, spooled, importRequest));
+        return job;
+    }
+
+    public TransactionImportJobDTO getJob(UUID jobId, UUID userId, int rejectionLimit) {
+        TransactionImportJobEntity job = transactionImportJobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(TransactionImportJobNotFoundException::new);
+
+        List<TransactionImportRejectionDTO> rejections = rejectionLimit <= 0 ? List.of() :
+                transactionImportRejectionRepository.findByJobIdOrderByRowNumber(jobId,
+                                PageRequest.of(0, rejectionLimit))
+                        .stream()
+                        .map(rejection -> new TransactionImportRejectionDTO(rejection.getRowNumber(),
+                                rejection.getReason(), rejection.getContent()))
+                        .toList();
+
+        return toDTO(job, rejections);
+    }
+
+    public TransactionImportJobDTO toDTO(TransactionImportJobEntity job,
+                                         List<TransactionImportRejectionDTO> rejections) {
+        int progress = 100;
+
+        if (job.getStatus() != TransactionImportStatus.COMPLETED) {
+            progress = job.getTotalBytes() == 0 ? 0 :
+                    (int) Math.min(99, job.getBytesRead() * 100 / job.getTotalBytes());
+        }
+
+        return new TransactionImportJobDTO(job.getId(), job.getAccountId(), job.getFormat(), job.getFileName(),
+                job.getStatus(), progress, job.getProcessedRows(), job.getImportedRows(), job.getRejectedRows(),
+                job.getSkippedRows(), job.getError(), job.getCreatedAt(), job.getUpdatedAt(), rejections);
+    }
+
+    private TransactionImportFormat detectFormat(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".ofx") || name.endsWith(".qfx") ? TransactionImportFormat.OFX :
+                TransactionImportFormat.CSV;
+    }
+
+    private void run(UUID jobId, UUID userId, TransactionImportFormat format, Path spooled,
+                     ImportRequest importRequest) {
+        transactionImportJobRepository.updateStatus(jobId, TransactionImportStatus.RUNNING, LocalDateTime.now());
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(spooled));
+             StatementReader reader = open(format, in, importRequest)) {
+            ImportRun run = new ImportRun(jobId, userId, importRequest, knownFingerprints(importRequest));
+            StatementRow row;
+
+            while ((row = reader.next()) != null) {
+                run.chunk.add(row);
+
+                if (run.chunk.size() >= chunkSize) {
+                    run.flush(in.count);
+                }
+            }
+            run.flush(in.count);
+
+            transactionImportJobRepository.finish(jobId, TransactionImportStatus.COMPLETED, null,
+                    LocalDateTime.now());
+            log.info("Transaction import {} completed: {} imported, {} rejected, {} skipped", jobId, run.imported,
+                    run.rejected, run.skipped);
+        } catch (Exception e) {
+            log.error("Transaction import {} failed", jobId, e);
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            transactionImportJobRepository.finish(jobId, TransactionImportStatus.FAILED, truncate(message, 255),
+                    LocalDateTime.now());
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled import file {}", spooled);
+            }
+        }
+    }
+
+    private Predicate<String> knownFingerprints(ImportRequest importRequest) {
+        if (importRequest.duplicates() == null || importRequest.duplicates() == DuplicatePolicy.ALLOW) {
+            return fingerprint -> true;
+        }
+
+        Long count = jdbcTemplate.queryForObject(COUNT_FINGERPRINTS, Long.class, importRequest.accountId());
+        BloomFilter filter = new BloomFilter(count != null ? count : 0, duplicateFilterFpp);
+
+        jdbcTemplate.query(SELECT_FINGERPRINTS, (RowCallbackHandler) rs -> {
+            String fingerprint = rs.getString(1);
+            filter.add(TransactionFingerprint.high(fingerprint), TransactionFingerprint.low(fingerprint));
+        }, importRequest.accountId());
+        return fingerprint -> filter.mightContain(TransactionFingerprint.high(fingerprint),
+                TransactionFingerprint.low(fingerprint));
+    }
+
+    private StatementReader open(TransactionImportFormat format, InputStream in, ImportRequest importRequest) {
+        InputStreamReader reader = new InputStreamReader(in, importRequest.charset());
+
+        return format == TransactionImportFormat.OFX ? new OfxStatementReader(reader) :
+                new CsvStatementReader(reader, importRequest.mapping());
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    public record ImportRequest(
+            Integer accountId,
+            Integer category,
+            TransactionImportFormat format,
+            boolean addToBill,
+            Charset charset,
+            CsvImportMappingDTO mapping,
+            DuplicatePolicy duplicates
+    ) {
+    }
+
+    private class ImportRun {
+        private final UUID jobId;
+        private final UUID userId;
+        private final ImportRequest importRequest;
+        private final Predicate<String> knownFingerprints;
+        private final List<StatementRow> chunk = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private long skipped;
+        private long storedRejections;
+
+        private ImportRun(UUID jobId, UUID userId, ImportRequest importRequest,
+                          Predicate<String> knownFingerprints) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.importRequest = importRequest;
+            this.knownFingerprints = knownFingerprints;
+        }
+
+        private void flush(long bytesRead) {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<TransactionImportRejectionDTO> rejections = new ArrayList<>();
+            List<StatementRow> submitted = new ArrayList<>();
+            List<CreateTransactionRequestDTO> requests = new ArrayList<>();
+
+            for (StatementRow row : chunk) {
+                if (row.error() != null) {
+                    rejections.add(new TransactionImportRejectionDTO(row.row(), row.error(), row.content()));
+                } else if (row.amount() == 0) {
+                    rejections.add(new TransactionImportRejectionDTO(row.row(), "Amount is zero", row.content()));
+                } else {
+                    submitted.add(row);
+                    requests.add(toRequest(row));
+                }
+            }
+
+            long created = 0;
+            long duplicates = 0;
+            if (!requests.isEmpty()) {
+                for (BatchTransactionResultDTO result : transactionBatchService.createTransactions(
+                        new BatchTransactionRequestDTO(requests, BatchMode.BEST_EFFORT, importRequest.duplicates()),
+                        userId, knownFingerprints)) {
+                    if (result.status() == BatchItemStatus.CREATED) {
+                        created++;
+                    } else if (result.status() == BatchItemStatus.SKIPPED) {
+                        duplicates++;
+                    } else {
+                        StatementRow row = submitted.get(result.index());
+                        rejections.add(new TransactionImportRejectionDTO(row.row(), result.message(),
+                                row.content()));
+                    }
+                }
+            }
+
+            storeRejections(rejections);
+            transactionImportJobRepository.recordProgress(jobId, chunk.size(), created, rejections.size(),
+                    duplicates, bytesRead, LocalDateTime.now());
+
+            imported += created;
+            rejected += rejections.size();
+            skipped += duplicates;
+            chunk.clear();
+        }
+
+        private CreateTransactionRequestDTO toRequest(StatementRow row) {
+            boolean withdraw = row.amount() < 0;
+            boolean addToBill = importRequest.addToBill() && withdraw;
+
+            return new CreateTransactionRequestDTO(
+                    truncate(row.description(), MAX_DESCRIPTION_LENGTH),
+                    Math.abs(row.amount()),
+                    row.date(),
+                    withdraw ? TransactionType.WITHDRAW : TransactionType.DEPOSIT,
+                    addToBill,
+                    addToBill ? 1 : null,
+                    importRequest.category(),
+                    importRequest.accountId(),
+                    null
+            );
+        }
+
+        private void storeRejections(List<TransactionImportRejectionDTO> rejections) {
+            List<Object[]> rows = new ArrayList<>();
+
+            for (TransactionImportRejectionDTO rejection : rejections) {
+                if (storedRejections >= maxStoredRejections) {
+                    break;
+                }
+
+                rows.add(new Object[]{jobId, rejection.row(), truncate(rejection.reason(), 255),
+                        truncate(rejection.content(), 255)});
+                storedRejections++;
+            }
+
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_REJECTION, rows);
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -1,22 +1,23 @@
 package com.ugustavob.finsuppapi.services;
 
 import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.dto.transactions.PatchTransactionRequestDTO;
 import com.ugustavob.finsuppapi.dto.transactions.TransactionFilterDTO;
 import com.ugustavob.finsuppapi.dto.transactions.TransactionResponseDTO;
 import com.ugustavob.finsuppapi.entities.account.AccountEntity;
 import com.ugustavob.finsuppapi.entities.bill.BillEntity;
-import com.ugustavob.finsuppapi.entities.card.CardEntity;
-import com.ugustavob.finsuppapi.entities.card.CardType;
 import com.ugustavob.finsuppapi.entities.categories.CategoryEntity;
+import com.ugustavob.finsuppapi.entities.ledger.LedgerEntryType;
+import com.ugustavob.finsuppapi.entities.transaction.BillPropagationStatus;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionEntity;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionEntityFinder;
 import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
 import com.ugustavob.finsuppapi.exception.*;
 import com.ugustavob.finsuppapi.repositories.AccountRepository;
-import com.ugustavob.finsuppapi.repositories.CardRepository;
 import com.ugustavob.finsuppapi.repositories.CategoryRepository;
 import com.ugustavob.finsuppapi.repositories.TransactionRepository;
-import com.ugustavob.finsuppapi.specifications.TransactionSpecification;
+import com.ugustavob.finsuppapi.specifications.TransactionQueryTemplates;
+import com.ugustavob.finsuppapi.utils.Money;
 import com.ugustavob.finsuppapi.utils.StringFormatUtil;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -24,15 +25,22 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -41,58 +49,53 @@ public class TransactionService {
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
     private final BillService billService;
-    private final CardRepository cardRepository;
+    private final BillOutboxService billOutboxService;
+    private final CategorizationService categorizationService;
+    private final BaseService baseService;
+    private final TransferEngine transferEngine;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionValidator transactionValidator;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     public TransactionEntity getTransactionById(int id) {
         return transactionRepository.findById(id).orElseThrow(TransactionNotFoundException::new);
     }
 
-    public TransactionEntityFinder getAndValidateTransactionEntities(
-            AccountEntity account,
-            AccountEntity recipientAccount
-    ) {
-        return new TransactionEntityFinder(account, recipientAccount);
-    }
-
-    public TransactionEntityFinder getAndValidateTransactionEntities(CreateTransactionRequestDTO createTransactionRequestDTO) {
-
-        AccountEntity account = accountRepository.findById(createTransactionRequestDTO.accountId())
-                .orElseThrow(AccountNotFoundException::new);
-
-        AccountEntity recipientAccount = null;
-
-        if (createTransactionRequestDTO.recipientAccountId() != null) {
-            recipientAccount = accountRepository.findById(createTransactionRequestDTO.recipientAccountId())
-                    .orElseThrow(() -> new AccountNotFoundException("Recipient account not found"));
-
-            if (createTransactionRequestDTO.recipientAccountId().equals(account.getId())) {
-                throw new IllegalArgumentException("You can't transfer to the same account");
-            }
-        }
-
-        int installments = createTransactionRequestDTO.installments() == null ? 0 :
-                createTransactionRequestDTO.installments();
-
-        if (!createTransactionRequestDTO.addToBill() && installments >= 2) {
-            throw new IllegalArgumentException("You can't create installments without add to a bill");
-        }
-
-        CategoryEntity category = categoryRepository.findById(createTransactionRequestDTO.category())
-                .orElseThrow(CategoryNotFoundException::new);
-
-        return new TransactionEntityFinder(account, recipientAccount, category);
+    /**
+     * Checks a new transaction with the {@link TransactionValidator} and returns its accounts as references and its
+     * category from the {@link CategoryCache}.
+     */
+    public TransactionEntityFinder getAndValidateTransactionEntities(CreateTransactionRequestDTO createTransactionRequestDTO,
+                                                                     UUID userId) {
+        Integer accountId = createTransactionRequestDTO.accountId();
+        Integer recipientAccountId = createTransactionRequestDTO.recipientAccountId();
+
+        CategoryEntity category = transactionValidator.check(new TransactionValidator.Draft(
+                createTransactionRequestDTO.type(),
+                createTransactionRequestDTO.addToBill(),
+                createTransactionRequestDTO.installments() == null ? 0 : createTransactionRequestDTO.installments(),
+                accountId,
+                recipientAccountId,
+                createTransactionRequestDTO.category()
+        ), userId);
+
+        return new TransactionEntityFinder(
+                accountRepository.getReferenceById(accountId),
+                recipientAccountId != null ? accountRepository.getReferenceById(recipientAccountId) : null,
+                category
+        );
     }
 
     public TransactionEntity getTransactionEntity(CreateTransactionRequestDTO createTransactionRequestDTO,
                                                   TransactionEntityFinder transactionEntityFinder) {
         TransactionEntity newTransaction = new TransactionEntity();
         newTransaction.setDescription(StringFormatUtil.toTitleCase(createTransactionRequestDTO.description()));
-        newTransaction.setAmount(createTransactionRequestDTO.amount());
+        newTransaction.setAmount(Money.ofDecimal(createTransactionRequestDTO.amount()));
         newTransaction.setTransactionDate(createTransactionRequestDTO.transactionDate());
         newTransaction.setTransactionType(createTransactionRequestDTO.type());
         newTransaction.setCategory(transactionEntityFinder.getCategory());
         newTransaction.setAccount(transactionEntityFinder.getAccount());
-        System.out.println(createTransactionRequestDTO.addToBill());
         newTransaction.setAddToBill(createTransactionRequestDTO.addToBill());
         newTransaction.setRecipientAccount(transactionEntityFinder.getRecipientAccount());
 
@@ -108,74 +111,98 @@ public class TransactionService {
     }
 
     public Page<TransactionResponseDTO> getAllTransactionsFromUser(TransactionFilterDTO filter, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "transactionDate"));
+        Pageable pageable = PageRequest.of(page, size);
 
-        Specification<TransactionEntity> specification = TransactionSpecification.filter(filter);
+        TransactionQueryTemplates.Query query = TransactionQueryTemplates.compile(filter);
+        MapSqlParameterSource params = new MapSqlParameterSource(query.params())
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
 
-        Page<TransactionEntity> transactionsPage = transactionRepository.findAll(specification, pageable);
+        List<TransactionResponseDTO> transactions = namedParameterJdbcTemplate.query(query.sql(), params,
+                (rs, rowNum) -> rowToResponseDto(rs));
 
-        if (transactionsPage.isEmpty()) {
-            throw new TransactionNotFoundException("Transactions not found");
-        }
+        Page<TransactionResponseDTO> transactionsPage = PageableExecutionUtils.getPage(transactions, pageable,
+                () -> namedParameterJdbcTemplate.queryForObject(query.countSql(), params, Long.class));
+
+        baseService.checkIfPageIsEmpty(transactionsPage, () -> new TransactionNotFoundException("Transactions not found"));
+
+        return transactionsPage;
+    }
+
+    private TransactionResponseDTO rowToResponseDto(ResultSet rs) throws SQLException {
+        String billStatus = rs.getString("bill_status");
 
-        return transactionsPage.map(this::entityToResponseDto);
+        return new TransactionResponseDTO(
+                rs.getInt("id"),
+                rs.getString("description"),
+                Money.toDecimal(rs.getLong("amount")),
+                rs.getBoolean("add_to_bill"),
+                rs.getInt("installments"),
+                rs.getObject("transaction_date", LocalDate.class),
+                TransactionType.valueOf(rs.getString("transaction_type")),
+                rs.getObject("category_id", Integer.class),
+                rs.getObject("account_id", Integer.class),
+                rs.getObject("recipient_id", Integer.class),
+                billStatus != null ? BillPropagationStatus.valueOf(billStatus) : null,
+                rs.getBoolean("possible_duplicate")
+        );
     }
 
     public TransactionResponseDTO entityToResponseDto(TransactionEntity transaction) {
         return new TransactionResponseDTO(
                 transaction.getId(),
                 transaction.getDescription(),
-                transaction.getAmount(),
+                Money.toDecimal(transaction.getAmount()),
                 transaction.isAddToBill(),
                 transaction.getInstallments(),
                 transaction.getTransactionDate(),
                 transaction.getTransactionType(),
                 transaction.getCategory().getId(),
                 transaction.getAccount() != null ? transaction.getAccount().getId() : null,
-                transaction.getRecipientAccount() != null ? transaction.getRecipientAccount().getId() : null
+                transaction.getRecipientAccount() != null ? transaction.getRecipientAccount().getId() : null,
+                transaction.getBillStatus(),
+                transaction.isPossibleDuplicate()
         );
     }
 
-    @Transactional
     public TransactionEntity createTransaction(
             @Valid CreateTransactionRequestDTO createTransactionRequestDTO,
             UUID userId
     ) {
-        TransactionEntityFinder transactionEntityFinder =
-                getAndValidateTransactionEntities(createTransactionRequestDTO);
+        CreateTransactionRequestDTO request = categorizationService.categorize(createTransactionRequestDTO, userId);
 
-        TransactionEntity newTransaction = getTransactionEntity(createTransactionRequestDTO,
-                transactionEntityFinder);
-
-        if (!newTransaction.getAccount().getUser().getId().equals(userId)) {
-            throw new AccountNotFoundException();
+        if (request.type() == TransactionType.TRANSFER
+                && request.accountId() != null
+                && request.recipientAccountId() != null) {
+            return transferEngine.execute(request.accountId(), request.recipientAccountId(),
+                    () -> insertTransaction(request, userId));
         }
 
-        TransactionType type = createTransactionRequestDTO.type();
-        Double accountBalance = transactionEntityFinder.getAccount().getBalance();
-        Double transactionAmount = createTransactionRequestDTO.amount();
+        return transactionTemplate.execute(status -> insertTransaction(request, userId));
+    }
 
-        if (type == TransactionType.TRANSFER && accountBalance.compareTo(transactionAmount) < 0) {
-            throw new IllegalArgumentException("Insufficient funds");
-        }
+    private TransactionEntity insertTransaction(CreateTransactionRequestDTO createTransactionRequestDTO, UUID userId) {
+        TransactionEntityFinder transactionEntityFinder =
+                getAndValidateTransactionEntities(createTransactionRequestDTO, userId);
 
-        if (newTransaction.isAddToBill() && type == TransactionType.DEPOSIT) {
-            throw new IllegalArgumentException("You can't add a deposit to a bill");
-        }
-        if (newTransaction.isAddToBill() && type == TransactionType.TRANSFER) {
-            throw new IllegalArgumentException("You can't add a transfer to a bill");
-        }
+        TransactionEntity newTransaction = getTransactionEntity(createTransactionRequestDTO,
+                transactionEntityFinder);
 
-        if (newTransaction.isAddToBill() && newTransaction.getInstallments() < 1) {
-            throw new IllegalArgumentException("You can't add a bill with less than 1 installments");
-        }
+        boolean asyncBill = newTransaction.isAddToBill() && billOutboxService.isEnabled();
 
-        transactionEntityFinder = updateAccountBalance(newTransaction, transactionEntityFinder);
-        saveAccounts(transactionEntityFinder, type);
+        if (newTransaction.isAddToBill()) {
+            newTransaction.setBillStatus(asyncBill ? BillPropagationStatus.PENDING : BillPropagationStatus.APPLIED);
+        }
 
         TransactionEntity transaction = transactionRepository.save(newTransaction);
 
-        billService.addTransactionToBill(transaction);
+        applyAccountBalance(transaction);
+
+        if (asyncBill) {
+            billOutboxService.enqueue(transaction);
+        } else {
+            billService.addTransactionToBill(transaction);
+        }
 
         return transaction;
     }
@@ -183,56 +210,150 @@ public class TransactionService {
     @Transactional
     public TransactionEntity updateTransaction(Integer id, CreateTransactionRequestDTO createTransactionRequestDTO,
                                                UUID userId) {
+        Integer installments = createTransactionRequestDTO.installments() != null
+                && createTransactionRequestDTO.installments() > 0 ? createTransactionRequestDTO.installments() : 0;
+
+        return applyChanges(id, new PatchTransactionRequestDTO(
+                createTransactionRequestDTO.description(),
+                createTransactionRequestDTO.amount(),
+                createTransactionRequestDTO.transactionDate(),
+                createTransactionRequestDTO.type(),
+                createTransactionRequestDTO.addToBill(),
+                installments,
+                createTransactionRequestDTO.category(),
+                createTransactionRequestDTO.accountId(),
+                createTransactionRequestDTO.recipientAccountId()
+        ), true, userId);
+    }
+
+    @Transactional
+    public TransactionEntity patchTransaction(Integer id, PatchTransactionRequestDTO patchTransactionRequestDTO,
+                                              UUID userId) {
+        return applyChanges(id, patchTransactionRequestDTO, false, userId);
+    }
+
+    /**
+     * Applies only the effects of the fields that actually changed: balance changes are the difference between the
+     * old and the new effect per account, and bill items are adjusted or moved in place. A change to description or
+     * category is a plain update of the transaction row.
+     */
+    private TransactionEntity applyChanges(Integer id, PatchTransactionRequestDTO changes, boolean replace,
+                                           UUID userId) {
         TransactionEntity transaction =
                 transactionRepository.findById(id).orElseThrow(TransactionNotFoundException::new);
 
-        TransactionEntityFinder transactionEntityFinder =
-                getAndValidateTransactionEntities(createTransactionRequestDTO);
+        if (!transaction.getAccount().getUser().getId().equals(userId)) {
+            throw new BusinessException("Transaction does not belong to the user");
+        }
 
-        transactionEntityFinder = revertAccountBalance(transaction, transactionEntityFinder);
-        billService.revertTransactionBills(transaction);
+        boolean wasAddedToBill = transaction.isAddToBill();
+        TransactionType oldType = transaction.getTransactionType();
+        AccountEntity oldAccount = transaction.getAccount();
+        AccountEntity oldRecipient = transaction.getRecipientAccount();
+        long oldAmount = transaction.getAmount();
+        LocalDate oldDate = transaction.getTransactionDate();
+        int oldInstallments = transaction.getInstallments();
+
+        TransactionType type = changes.type() != null ? changes.type() : oldType;
+        boolean addToBill = changes.addToBill() != null ? changes.addToBill() : wasAddedToBill;
+        long amount = changes.amount() != null ? Money.ofDecimal(changes.amount()) : oldAmount;
+        LocalDate date = changes.transactionDate() != null ? changes.transactionDate() : oldDate;
+        int installments = changes.installments() != null ? changes.installments() : oldInstallments;
+
+        Integer accountId = changes.accountId() != null ? changes.accountId() : oldAccount.getId();
+        Integer recipientId = null;
+        if (type == TransactionType.TRANSFER) {
+            recipientId = changes.recipientAccountId() != null ? changes.recipientAccountId() :
+                    !replace && oldRecipient != null ? oldRecipient.getId() : null;
+        }
 
-        transaction.setDescription(StringFormatUtil.toTitleCase(createTransactionRequestDTO.description()));
-        transaction.setAmount(createTransactionRequestDTO.amount());
-        transaction.setTransactionType(createTransactionRequestDTO.type());
-        transaction.setTransactionDate(createTransactionRequestDTO.transactionDate());
-        transaction.setCategory(transactionEntityFinder.getCategory());
-        transaction.setAccount(transactionEntityFinder.getAccount());
-        transaction.setAddToBill(createTransactionRequestDTO.addToBill());
-        transaction.setRecipientAccount(transactionEntityFinder.getRecipientAccount());
-
-        if (createTransactionRequestDTO.installments() != null || createTransactionRequestDTO.installments() > 0) {
-            transaction.setInstallments(createTransactionRequestDTO.installments());
+        transaction.setCategory(transactionValidator.check(new TransactionValidator.Draft(
+                type,
+                addToBill,
+                installments,
+                accountId,
+                recipientId,
+                changes.category() != null ? changes.category() : transaction.getCategory().getId()
+        ), userId));
+
+        AccountEntity account = accountId.equals(oldAccount.getId()) ? oldAccount :
+                accountRepository.getReferenceById(accountId);
+        AccountEntity recipient = null;
+        if (recipientId != null) {
+            recipient = oldRecipient != null && recipientId.equals(oldRecipient.getId()) ? oldRecipient :
+                    accountRepository.getReferenceById(recipientId);
         }
 
-        if (!transaction.getAccount().getUser().getId().equals(userId)) {
-            throw new AccountNotFoundException();
+        if (changes.description() != null) {
+            transaction.setDescription(StringFormatUtil.toTitleCase(changes.description()));
         }
 
-        TransactionType type = createTransactionRequestDTO.type();
-        Double accountBalance = transactionEntityFinder.getAccount().getBalance();
-        Double transactionAmount = createTransactionRequestDTO.amount();
+        applyBalanceChanges(
+                transaction.getId(),
+                balanceEffects(wasAddedToBill, oldType, oldAccount, oldRecipient, oldAmount),
+                balanceEffects(addToBill, type, account, recipient, amount)
+        );
+
+        transaction.setTransactionType(type);
+        transaction.setAddToBill(addToBill);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(date);
+        transaction.setInstallments(installments);
+        transaction.setAccount(account);
+        transaction.setRecipientAccount(recipient);
+
+        boolean billAffected = wasAddedToBill != addToBill || (addToBill && (amount != oldAmount
+                || !date.equals(oldDate) || installments != oldInstallments || account != oldAccount));
 
-        if (type == TransactionType.TRANSFER && accountBalance.compareTo(transactionAmount) < 0) {
-            throw new IllegalArgumentException("Insufficient funds");
+        if (billAffected) {
+            checkBillNotPending(transaction);
+            billService.syncTransactionBills(transaction, wasAddedToBill, oldAccount);
+            transaction.setBillStatus(addToBill ? BillPropagationStatus.APPLIED : null);
         }
 
-        if (transaction.isAddToBill() && type == TransactionType.DEPOSIT) {
-            throw new IllegalArgumentException("You can't add a deposit to a bill");
+        return transactionRepository.save(transaction);
+    }
+
+    private void checkBillNotPending(TransactionEntity transaction) {
+        if (transaction.getBillStatus() == BillPropagationStatus.PENDING) {
+            throw new IllegalStateException("The bill of this transaction is still being updated, try again shortly");
         }
-        if (transaction.isAddToBill() && type == TransactionType.TRANSFER) {
-            throw new IllegalArgumentException("You can't add a transfer to a bill");
+    }
+
+    private Map<Integer, Long> balanceEffects(boolean addToBill, TransactionType type, AccountEntity account,
+                                              AccountEntity recipient, long amount) {
+        Map<Integer, Long> effects = new TreeMap<>();
+
+        if (addToBill) {
+            return effects;
         }
-        if (transaction.isAddToBill() && transaction.getInstallments() < 1) {
-            throw new IllegalArgumentException("You can't add a bill with less than 1 installments");
+
+        switch (type) {
+            case DEPOSIT -> effects.merge(account.getId(), amount, Long::sum);
+            case WITHDRAW -> effects.merge(account.getId(), -amount, Long::sum);
+            case TRANSFER -> {
+                effects.merge(account.getId(), -amount, Long::sum);
+                if (recipient != null) {
+                    effects.merge(recipient.getId(), amount, Long::sum);
+                }
+            }
         }
+        return effects;
+    }
 
-        transactionEntityFinder = updateAccountBalance(transaction, transactionEntityFinder);
-        billService.addTransactionToBill(transaction);
+    /**
+     * Applies the net difference per account, in account id order, as {@code CORRECTION} entries. Only a net debit is
+     * checked against the balance.
+     */
+    private void applyBalanceChanges(Integer transactionId, Map<Integer, Long> before, Map<Integer, Long> after) {
+        Set<Integer> accountIds = new TreeSet<>(before.keySet());
+        accountIds.addAll(after.keySet());
 
-        saveAccounts(transactionEntityFinder, type);
+        for (Integer accountId : accountIds) {
+            long delta = after.getOrDefault(accountId, 0L) - before.getOrDefault(accountId, 0L);
 
-        return transactionRepository.save(transaction);
+            ledgerService.post(accountId, delta, LedgerEntryType.CORRECTION, transactionId);
+        }
     }
 
     @Transactional
@@ -248,87 +369,75 @@ public class TransactionService {
             throw new BusinessException("Transaction cannot be deleted");
         }
 
-        if (transaction.getDescription().startsWith("Payment of the bill: ")) {
-            String description = transaction.getDescription().replace("Payment of the bill: ", "");
-            Matcher matcher = Pattern.compile("(\\d{2})/(\\d{4})$").matcher(description);
-            if (matcher.find()) {
-                int month = Integer.parseInt(matcher.group(1));
-                int year = Integer.parseInt(matcher.group(2));
+        checkBillNotPending(transaction);
 
-                BillEntity bill = billService.findByMonthAndYearAndUser(month, year, userId)
-                        .orElseThrow(() -> new BillNotFoundException("Bill not found"));
-
-                billService.revertPayment(bill);
-            }
+        if (transaction.getPaidBill() != null) {
+            billService.revertPayment(transaction.getPaidBill());
         }
 
         billService.revertTransactionBills(transaction);
         transactionRepository.delete(transaction);
 
-        TransactionEntityFinder transactionEntityFinder =
-                getAndValidateTransactionEntities(transaction.getAccount(),
-                        transaction.getRecipientAccount());
-
-        transactionEntityFinder = revertAccountBalance(transaction, transactionEntityFinder);
-
-        saveAccounts(transactionEntityFinder, transaction.getTransactionType());
+        revertAccountBalance(transaction);
     }
 
     @Transactional
-    public TransactionEntityFinder updateAccountBalance(
-            TransactionEntity transaction,
-            TransactionEntityFinder transactionEntityFinder
-    ) {
+    public void applyAccountBalance(TransactionEntity transaction) {
+        if (transaction.isAddToBill()) {
+            return;
+        }
+
+        Integer accountId = transaction.getAccount().getId();
+        Integer transactionId = transaction.getId();
+        long amount = transaction.getAmount();
 
         switch (transaction.getTransactionType()) {
-            case DEPOSIT:
-                if (!transactionEntityFinder.isAddToBill()) {
-                    transactionEntityFinder.getAccount().setBalance(transactionEntityFinder.getAccount().getBalance() + transaction.getAmount());
-                }
-                break;
-            case WITHDRAW:
-                if (!transaction.isAddToBill()) {
-                    System.out.println("WITHDRAW");
-                    transactionEntityFinder.getAccount().setBalance(transactionEntityFinder.getAccount().getBalance() - transaction.getAmount());
-                }
-                break;
-            case TRANSFER:
-                if (!transaction.isAddToBill()) {
-                    transactionEntityFinder.getAccount().setBalance(transactionEntityFinder.getAccount().getBalance() - transaction.getAmount());
-                    transactionEntityFinder.getRecipientAccount().setBalance(transactionEntityFinder.getRecipientAccount().getBalance() + transaction.getAmount());
-                }
-                break;
+            case DEPOSIT -> ledgerService.append(accountId, amount, LedgerEntryType.DEPOSIT, transactionId, null);
+            case WITHDRAW -> ledgerService.debit(accountId, amount, LedgerEntryType.WITHDRAW, transactionId, null);
+            case TRANSFER -> {
+                Integer recipientId = transaction.getRecipientAccount().getId();
+
+                ledgerService.debit(accountId, amount, LedgerEntryType.TRANSFER_OUT, transactionId, recipientId);
+                ledgerService.append(recipientId, amount, LedgerEntryType.TRANSFER_IN, transactionId, accountId);
+            }
         }
-        return transactionEntityFinder;
     }
 
+    /**
+     * Reverses the balance effect of a transaction. Both accounts of a transfer are locked in id order first, as
+     * {@link TransferEngine} does, and the two reversal entries are appended in that order.
+     */
     @Transactional
-    public TransactionEntityFinder revertAccountBalance(
-            TransactionEntity transaction,
-            TransactionEntityFinder transactionEntityFinder
-    ) {
-
+    public void revertAccountBalance(TransactionEntity transaction) {
         if (transaction.isAddToBill()) {
-            return transactionEntityFinder;
+            return;
         }
 
+        Integer accountId = transaction.getAccount().getId();
+        Integer transactionId = transaction.getId();
+        long amount = transaction.getAmount();
+
         switch (transaction.getTransactionType()) {
-            case DEPOSIT:
-                transactionEntityFinder.getAccount().setBalance(transactionEntityFinder.getAccount().getBalance() - transaction.getAmount());
-                break;
-            case WITHDRAW:
-                transactionEntityFinder.getAccount().setBalance(transactionEntityFinder.getAccount().getBalance() + transaction.getAmount());
-                break;
-            case TRANSFER:
-                transactionEntityFinder.getAccount().setBalance(transactionEntityFinder.getAccount().getBalance() + transaction.getAmount());
-                if (transaction.getRecipientAccount() != null) {
-                    transactionEntityFinder.setRecipientAccount(transaction.getRecipientAccount());
-                    transactionEntityFinder.getRecipientAccount().setBalance(transactionEntityFinder.getRecipientAccount().getBalance() - transaction.getAmount());
+            case DEPOSIT -> ledgerService.append(accountId, -amount, LedgerEntryType.REVERSAL, transactionId, null);
+            case WITHDRAW -> ledgerService.append(accountId, amount, LedgerEntryType.REVERSAL, transactionId, null);
+            case TRANSFER -> {
+                Integer recipientId = transaction.getRecipientAccount() != null
+                        ? transaction.getRecipientAccount().getId() : null;
+
+                if (recipientId == null) {
+                    ledgerService.append(accountId, amount, LedgerEntryType.REVERSAL, transactionId, null);
+                    return;
                 }
-                break;
-        }
 
-        return transactionEntityFinder;
+                accountRepository.lockInIdOrder(List.of(accountId, recipientId));
+                ledgerService.appendAll(List.of(
+                        new LedgerService.Posting(accountId, amount, LedgerEntryType.REVERSAL, transactionId,
+                                recipientId),
+                        new LedgerService.Posting(recipientId, -amount, LedgerEntryType.REVERSAL, transactionId,
+                                accountId)
+                ));
+            }
+        }
     }
 
     @Transactional
@@ -345,23 +454,16 @@ public class TransactionService {
         transaction.setCategory(category);
         transaction.setRecipientAccount(null);
         transaction.setInstallments(1);
+        transaction.setPaidBill(bill);
 
         transactionRepository.save(transaction);
 
-        account.setBalance(account.getBalance() - bill.getTotalAmount());
-        accountRepository.save(account);
+        ledgerService.debit(account.getId(), bill.getTotalAmount(), LedgerEntryType.BILL_PAYMENT, transaction.getId(),
+                null);
 
         return billService.payBill(bill);
     }
 
-    public void saveAccounts(TransactionEntityFinder transactionEntityFinder, TransactionType type) {
-        accountRepository.save(transactionEntityFinder.getAccount());
-
-        if (type == TransactionType.TRANSFER) {
-            accountRepository.save(transactionEntityFinder.getRecipientAccount());
-        }
-    }
-
     public boolean isCategoryAssociatedWithTransaction(int id) {
         return transactionRepository.existsByCategoryId(id);
     }
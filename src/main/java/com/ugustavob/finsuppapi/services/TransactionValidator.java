@@ -0,0 +1,119 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.entities.categories.CategoryEntity;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.exception.AccountNotFoundException;
+import com.ugustavob.finsuppapi.exception.CategoryNotFoundException;
+import com.ugustavob.finsuppapi.repositories.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The rules a transaction must satisfy to be created or changed, shared by the single, patch, batch and recurring
+ * paths. Ownership is checked with {@code accounts.user_id} in the query that resolves the accounts, so no user (and
+ * its roles) is loaded. Failures are thrown as {@link AccountNotFoundException}, {@link CategoryNotFoundException} or
+ * {@link IllegalArgumentException}, whose messages the batch reports per item.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionValidator {
+    private final AccountRepository accountRepository;
+    private final CategoryCache categoryCache;
+
+    /**
+     * What the rules look at. {@code installments} is 0 when not given.
+     */
+    public record Draft(TransactionType type, boolean addToBill, int installments, Integer accountId,
+                        Integer recipientAccountId, Integer categoryId) {
+    }
+
+    /**
+     * Accounts referenced by some transactions: the ones that exist, and whether each belongs to the user.
+     */
+    public record Accounts(Map<Integer, Boolean> owned) {
+        public boolean isOwned(Integer id) {
+            return id != null && Boolean.TRUE.equals(owned.get(id));
+        }
+
+        public boolean exists(Integer id) {
+            return id != null && owned.containsKey(id);
+        }
+    }
+
+    /**
+     * Checks a single transaction, resolving its accounts with one query.
+     *
+     * @return the category of the transaction
+     */
+    public CategoryEntity check(Draft draft, UUID userId) {
+        List<Integer> found = accountRepository.findTransactionAccountIds(draft.accountId(),
+                draft.recipientAccountId(), userId);
+
+        // findTransactionAccountIds only returns the source account when the user owns it.
+        Map<Integer, Boolean> owned = new HashMap<>();
+        for (Integer id : found) {
+            owned.put(id, id.equals(draft.accountId()));
+        }
+        return check(draft, new Accounts(owned));
+    }
+
+    /**
+     * Checks a transaction against accounts resolved beforehand, see {@link #accounts}.
+     *
+     * @return the category of the transaction
+     */
+    public CategoryEntity check(Draft draft, Accounts accounts) {
+        if (!accounts.isOwned(draft.accountId())) {
+            throw new AccountNotFoundException();
+        }
+
+        if (draft.type() == TransactionType.TRANSFER && draft.recipientAccountId() == null) {
+            throw new AccountNotFoundException("Recipient account not found");
+        }
+        if (draft.recipientAccountId() != null) {
+            if (!accounts.exists(draft.recipientAccountId())) {
+                throw new AccountNotFoundException("Recipient account not found");
+            }
+            if (draft.recipientAccountId().equals(draft.accountId())) {
+                throw new IllegalArgumentException("You can't transfer to the same account");
+            }
+        }
+
+        if (!draft.addToBill() && draft.installments() >= 2) {
+            throw new IllegalArgumentException("You can't create installments without add to a bill");
+        }
+        if (draft.addToBill() && draft.type() == TransactionType.DEPOSIT) {
+            throw new IllegalArgumentException("You can't add a deposit to a bill");
+        }
+        if (draft.addToBill() && draft.type() == TransactionType.TRANSFER) {
+            throw new IllegalArgumentException("You can't add a transfer to a bill");
+        }
+        if (draft.addToBill() && draft.installments() < 1) {
+            throw new IllegalArgumentException("You can't add a bill with less than 1 installments");
+        }
+
+        if (draft.categoryId() == null) {
+            throw new IllegalArgumentException("Transaction category is required: no categorization rule matched");
+        }
+        return categoryCache.findById(draft.categoryId()).orElseThrow(CategoryNotFoundException::new);
+    }
+
+    /**
+     * Resolves many accounts with one query, for checking a batch of transactions.
+     */
+    public Accounts accounts(Collection<Integer> ids, UUID userId) {
+        if (ids.isEmpty()) {
+            return new Accounts(Map.of());
+        }
+
+        return new Accounts(accountRepository.findOwnership(ids, userId).stream()
+                .collect(Collectors.toMap(row -> ((Number) row[0]).intValue(), row -> (Boolean) row[1])));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.repositories.AccountRepository;
+import com.ugustavob.finsuppapi.utils.StripedLock;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs work that moves money between two accounts. Both account rows are locked in ascending id order before the
+ * work runs ({@code SELECT ... FOR UPDATE}), or, with {@code app.transfers.lock-mode=local} on a single node, a
+ * striped in-process lock is taken instead. Each attempt is one short transaction; deadlocks and serialization
+ * failures are retried with jittered exponential backoff.
+ * <p>
+ * When called inside a transaction that is already open, the work joins it and is not retried here: a failed
+ * attempt has aborted that transaction, so only its owner can retry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferEngine {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.transfers.lock-mode:database}")
+    private String lockMode;
+
+    @Value("${app.transfers.lock-stripes:256}")
+    private int lockStripes;
+
+    @Value("${app.transfers.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.transfers.backoff-ms:10}")
+    private long backoffMs;
+
+    private StripedLock stripedLock;
+
+    @PostConstruct
+    void init() {
+        stripedLock = "local".equalsIgnoreCase(lockMode) ? new StripedLock(lockStripes) : null;
+    }
+
+    public <T> T execute(Integer fromAccountId, Integer toAccountId, Supplier<T> work) {
+        int attempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : maxAttempts;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return stripedLock != null
+                        ? stripedLock.withLocks(fromAccountId, toAccountId, () -> runInTransaction(work))
+                        : runInTransaction(() -> {
+                            accountRepository.lockInIdOrder(List.of(fromAccountId, toAccountId));
+                            return work.get();
+                        });
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+
+                log.debug("Transfer {} -> {} failed on attempt {}, retrying: {}", fromAccountId, toAccountId,
+                        attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private <T> T runInTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 6);
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transfer interrupted");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.users.UserDeletionJobDTO;
+import com.ugustavob.finsuppapi.entities.user.UserDeletionJobEntity;
+import com.ugustavob.finsuppapi.entities.user.UserDeletionStatus;
+import com.ugustavob.finsuppapi.entities.user.UserEntity;
+import com.ugustavob.finsuppapi.exception.UserDeletionJobNotFoundException;
+import com.ugustavob.finsuppapi.exception.UserNotFoundException;
+import com.ugustavob.finsuppapi.repositories.UserDeletionJobRepository;
+import com.ugustavob.finsuppapi.repositories.UserRepository;
+import com.ugustavob.finsuppapi.security.TokenRevocationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes users in the background. Instead of a single cascading delete, the user's data is removed bottom-up in
+ * bounded chunks, each in its own short transaction, so no statement holds locks across the large tables for long.
+ * Every phase is idempotent: a job interrupted by a restart is picked up again once its lease expires.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDeletionService {
+    private static final List<UserDeletionStatus> ACTIVE = List.of(UserDeletionStatus.PENDING,
+            UserDeletionStatus.RUNNING);
+
+    private static final String OWNED_ACCOUNTS = "SELECT a.id FROM accounts a WHERE a.user_id = :userId";
+    private static final String OWNED_CARDS = "SELECT c.id FROM cards c JOIN accounts a ON a.id = c.account_id " +
+            "WHERE a.user_id = :userId";
+
+    private static final Map<String, String> PHASES = new LinkedHashMap<>();
+
+    static {
+        PHASES.put("bill_items", "DELETE FROM bill_items WHERE id IN (SELECT bi.id FROM bill_items bi " +
+                "JOIN bills b ON b.id = bi.bill_id WHERE b.account_id IN (" + OWNED_ACCOUNTS + ") " +
+                "OR b.card_id IN (" + OWNED_CARDS + ") LIMIT :limit)");
+        PHASES.put("bills", "DELETE FROM bills WHERE id IN (SELECT b.id FROM bills b " +
+                "WHERE b.account_id IN (" + OWNED_ACCOUNTS + ") OR b.card_id IN (" + OWNED_CARDS + ") LIMIT :limit)");
+        PHASES.put("transactions", "DELETE FROM transactions WHERE id IN (SELECT t.id FROM transactions t " +
+                "WHERE t.account_id IN (" + OWNED_ACCOUNTS + ") OR t.card_id IN (" + OWNED_CARDS + ") LIMIT :limit)");
+        PHASES.put("subscriptions", "DELETE FROM subscriptions WHERE id IN (SELECT s.id FROM subscriptions s " +
+                "WHERE s.account_id IN (" + OWNED_ACCOUNTS + ") OR s.card_id IN (" + OWNED_CARDS + ") LIMIT :limit)");
+        PHASES.put("cards", "DELETE FROM cards WHERE id IN (" + OWNED_CARDS + " LIMIT :limit)");
+        // Both cascade from accounts, but an account's ledger grows with every posting, so it is removed in chunks too.
+        PHASES.put("ledger_entries", "DELETE FROM ledger_entries WHERE id IN (SELECT l.id FROM ledger_entries l " +
+                "WHERE l.account_id IN (" + OWNED_ACCOUNTS + ") LIMIT :limit)");
+        PHASES.put("balance_snapshots", "DELETE FROM account_balance_snapshots WHERE id IN (SELECT s.id " +
+                "FROM account_balance_snapshots s WHERE s.account_id IN (" + OWNED_ACCOUNTS + ") LIMIT :limit)");
+        PHASES.put("accounts", "DELETE FROM accounts WHERE id IN (" + OWNED_ACCOUNTS + " LIMIT :limit)");
+        PHASES.put("user", "DELETE FROM users WHERE id = :userId");
+    }
+
+    private final UserRepository userRepository;
+    private final UserDeletionJobRepository userDeletionJobRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.users.deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.users.deletion.throttle-ms:50}")
+    private long throttleMs;
+
+    @Value("${app.users.deletion.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${app.users.deletion.lease:PT2M}")
+    private Duration lease;
+
+    private ScheduledExecutorService worker;
+
+    @PostConstruct
+    void init() {
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-deletion-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::processPendingJobs, pollIntervalMs, pollIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    @Transactional
+    public UserDeletionJobEntity scheduleDeletion(UUID userId) {
+        UserEntity user = userRepository.findById(userId).orElseThrow(UserNotFoundException::new);
+
+        Optional<UserDeletionJobEntity> activeJob = userDeletionJobRepository.findFirstByUserIdAndStatusIn(userId,
+                ACTIVE);
+
+        if (activeJob.isPresent()) {
+            return activeJob.get();
+        }
+
+        user.setDisabled(true);
+        userRepository.save(user);
+        tokenRevocationService.revokeUser(userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        return userDeletionJobRepository.save(new UserDeletionJobEntity(null, userId, UserDeletionStatus.PENDING,
+                null, 0, null, now, now, null));
+    }
+
+    public UserDeletionJobEntity getJob(UUID jobId) {
+        return userDeletionJobRepository.findById(jobId).orElseThrow(UserDeletionJobNotFoundException::new);
+    }
+
+    public UserDeletionJobDTO toDTO(UserDeletionJobEntity job) {
+        return new UserDeletionJobDTO(job.getId(), job.getUserId(), job.getStatus(), job.getPhase(),
+                job.getDeletedRows(), job.getError(), job.getCreatedAt(), job.getUpdatedAt());
+    }
+
+    private void processPendingJobs() {
+        try {
+            for (UserDeletionJobEntity job : userDeletionJobRepository.findByStatusInOrderByCreatedAt(ACTIVE)) {
+                LocalDateTime now = LocalDateTime.now();
+
+                if (userDeletionJobRepository.claim(job.getId(), now, now.plus(lease)) == 0) {
+                    continue;
+                }
+
+                run(job);
+            }
+        } catch (Exception e) {
+            log.warn("User deletion worker failed to poll jobs: {}", e.getMessage());
+        }
+    }
+
+    private void run(UserDeletionJobEntity job) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", job.getUserId())
+                .addValue("limit", chunkSize);
+
+        try {
+            for (Map.Entry<String, String> phase : PHASES.entrySet()) {
+                int deleted;
+
+                do {
+                    deleted = transactionTemplate.execute(status -> jdbcTemplate.update(phase.getValue(), params));
+
+                    LocalDateTime now = LocalDateTime.now();
+                    userDeletionJobRepository.recordProgress(job.getId(), phase.getKey(), deleted, now,
+                            now.plus(lease));
+
+                    if (deleted > 0 && throttleMs > 0) {
+                        Thread.sleep(throttleMs);
+                    }
+                } while (deleted >= chunkSize);
+            }
+
+            userDeletionJobRepository.finish(job.getId(), UserDeletionStatus.COMPLETED, null, LocalDateTime.now());
+            log.info("Deleted user {} (job {})", job.getUserId(), job.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("User deletion job {} failed", job.getId(), e);
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            userDeletionJobRepository.finish(job.getId(), UserDeletionStatus.FAILED,
+                    message.substring(0, Math.min(message.length(), 255)), LocalDateTime.now());
+        }
+    }
+}
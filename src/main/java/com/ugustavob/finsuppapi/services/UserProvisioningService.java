@@ -0,0 +1,218 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ugustavob.finsuppapi.dto.users.BulkUserResultDTO;
+import com.ugustavob.finsuppapi.dto.users.BulkUserStatus;
+import com.ugustavob.finsuppapi.dto.users.RegisterRequestDTO;
+import com.ugustavob.finsuppapi.repositories.UserRepository;
+import com.ugustavob.finsuppapi.utils.StringFormatUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Imports users in bulk. The body is read as a stream and handled in chunks: each chunk costs one {@code IN} query
+ * for existing emails, one parallel hashing pass on a dedicated ForkJoin pool and two JDBC batch inserts (users and
+ * roles) in a single short transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserProvisioningService {
+    private static final String INSERT_USER = "INSERT INTO users (id, name, email, password) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ROLE = "INSERT INTO roles (user_id, role) VALUES (?, ?)";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.users.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.users.bulk.max-rows:50000}")
+    private int maxRows;
+
+    @Value("${app.users.bulk.hashing-parallelism:0}")
+    private int hashingParallelism;
+
+    private ForkJoinPool hashingPool;
+
+    @PostConstruct
+    void init() {
+        hashingPool = new ForkJoinPool(hashingParallelism > 0 ? hashingParallelism :
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public List<BulkUserResultDTO> importJson(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Body must be a JSON array of users");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                run.add(objectMapper.readValue(parser, RegisterRequestDTO.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON at row " + (run.row + 1));
+        }
+
+        run.flush();
+        return run.results;
+    }
+
+    public List<BulkUserResultDTO> importCsv(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+
+            if (header == null || !header.trim().equalsIgnoreCase("name,email,password")) {
+                throw new IllegalArgumentException("CSV header must be: name,email,password");
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                String[] columns = line.split(",", 3);
+                run.add(new RegisterRequestDTO(
+                        columns[0].trim(),
+                        columns.length > 1 ? columns[1].trim() : null,
+                        columns.length > 2 ? columns[2] : null
+                ));
+            }
+        }
+
+        run.flush();
+        return run.results;
+    }
+
+    private class ImportRun {
+        private final List<BulkUserResultDTO> results = new ArrayList<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<PendingUser> chunk = new ArrayList<>();
+        private int row;
+
+        private void add(RegisterRequestDTO request) {
+            row++;
+
+            if (row > maxRows) {
+                throw new IllegalArgumentException("Bulk import is limited to " + maxRows + " users");
+            }
+
+            Set<ConstraintViolation<RegisterRequestDTO>> violations = validator.validate(request);
+
+            if (!violations.isEmpty()) {
+                results.add(new BulkUserResultDTO(row, request.email(), BulkUserStatus.INVALID,
+                        violations.iterator().next().getMessage(), null));
+                return;
+            }
+
+            if (!seenEmails.add(request.email())) {
+                results.add(new BulkUserResultDTO(row, request.email(), BulkUserStatus.DUPLICATE,
+                        "Email repeated in this import", null));
+                return;
+            }
+
+            chunk.add(new PendingUser(row, request));
+
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                    chunk.stream().map(pending -> pending.request().email()).toList()));
+
+            List<PendingUser> toCreate = new ArrayList<>();
+            for (PendingUser pending : chunk) {
+                if (existing.contains(pending.request().email())) {
+                    results.add(new BulkUserResultDTO(pending.row(), pending.request().email(),
+                            BulkUserStatus.DUPLICATE, "User already exists", null));
+                } else {
+                    toCreate.add(pending);
+                }
+            }
+
+            List<String> hashes = hashAll(toCreate);
+            List<UUID> ids = toCreate.stream().map(pending -> UUID.randomUUID()).toList();
+
+            List<Object[]> users = new ArrayList<>(toCreate.size());
+            List<Object[]> roles = new ArrayList<>(toCreate.size());
+            for (int i = 0; i < toCreate.size(); i++) {
+                RegisterRequestDTO request = toCreate.get(i).request();
+                users.add(new Object[]{ids.get(i), StringFormatUtil.toTitleCase(request.name()), request.email(),
+                        hashes.get(i)});
+                roles.add(new Object[]{ids.get(i), "ROLE_USER"});
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, users);
+                jdbcTemplate.batchUpdate(INSERT_ROLE, roles);
+            });
+
+            for (int i = 0; i < toCreate.size(); i++) {
+                PendingUser pending = toCreate.get(i);
+                results.add(new BulkUserResultDTO(pending.row(), pending.request().email(), BulkUserStatus.CREATED,
+                        null, ids.get(i)));
+            }
+
+            chunk.clear();
+        }
+
+        private List<String> hashAll(List<PendingUser> pendingUsers) {
+            try {
+                return hashingPool.submit(() -> pendingUsers.parallelStream()
+                        .map(pending -> passwordEncoder.encode(pending.request().password()))
+                        .toList()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bulk import interrupted");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to hash passwords", e.getCause());
+            }
+        }
+    }
+
+    private record PendingUser(int row, RegisterRequestDTO request) {
+    }
+}
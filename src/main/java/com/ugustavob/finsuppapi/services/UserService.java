@@ -2,25 +2,32 @@ package com.ugustavob.finsuppapi.services;
 
 import com.ugustavob.finsuppapi.dto.roles.AssignRoleRequestDTO;
 import com.ugustavob.finsuppapi.dto.users.GetAllUsersResponseDTO;
+import com.ugustavob.finsuppapi.dto.users.GetUserResponseDTO;
 import com.ugustavob.finsuppapi.dto.users.LoginRequestDTO;
 import com.ugustavob.finsuppapi.dto.users.RegisterRequestDTO;
+import com.ugustavob.finsuppapi.dto.users.UserCursorPageDTO;
+import com.ugustavob.finsuppapi.dto.users.UserSortField;
 import com.ugustavob.finsuppapi.entities.user.UserEntity;
 import com.ugustavob.finsuppapi.exception.InvalidCredentialsException;
 import com.ugustavob.finsuppapi.exception.UserAlreadyExistsException;
 import com.ugustavob.finsuppapi.exception.UserAlreadyHasRoleException;
 import com.ugustavob.finsuppapi.exception.UserNotFoundException;
 import com.ugustavob.finsuppapi.repositories.UserRepository;
+import com.ugustavob.finsuppapi.security.PasswordHashingService;
+import com.ugustavob.finsuppapi.security.TokenRevocationService;
 import com.ugustavob.finsuppapi.security.TokenService;
 import com.ugustavob.finsuppapi.utils.StringFormatUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -29,8 +36,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final TokenService tokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     public UserEntity validateUserByIdAndReturn(UUID userId) {
         Optional<UserEntity> userEntity = userRepository.findById(userId);
@@ -46,16 +54,64 @@ public class UserService {
                 .orElseThrow(UserNotFoundException::new);
     }
 
-    public Page<GetAllUsersResponseDTO> getAllUsers(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<UserEntity> usersPage = userRepository.findAll(pageable);
+    public UserCursorPageDTO getAllUsers(String cursor, int size, UserSortField sortBy, String emailPrefix,
+                                         boolean withTotal) {
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Size must be between 1 and 100");
+        }
+
+        String emailPattern = emailPrefix == null || emailPrefix.isBlank() ? "%" :
+                emailPrefix.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        String after = decodeCursor(cursor);
+
+        List<GetUserResponseDTO> users = sortBy == UserSortField.ID
+                ? userRepository.findPageOrderedById(
+                        after != null ? UUID.fromString(after) : new UUID(0L, 0L), emailPattern, Limit.of(size))
+                : userRepository.findPageOrderedByEmail(after != null ? after : "", emailPattern, Limit.of(size));
+
+        Map<UUID, Set<String>> roles = new HashMap<>();
+
+        if (!users.isEmpty()) {
+            for (Object[] row : userRepository.findRolesByUserIds(users.stream().map(GetUserResponseDTO::id).toList())) {
+                roles.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((String) row[1]);
+            }
+        }
+
+        List<GetAllUsersResponseDTO> page = users.stream()
+                .map(user -> new GetAllUsersResponseDTO(
+                        user.id(),
+                        user.name(),
+                        user.email(),
+                        roles.getOrDefault(user.id(), Set.of())
+                ))
+                .toList();
+
+        String nextCursor = null;
+
+        if (users.size() == size) {
+            GetUserResponseDTO last = users.get(users.size() - 1);
+            nextCursor = encodeCursor(sortBy == UserSortField.ID ? last.id().toString() : last.email());
+        }
+
+        Long total = withTotal ? userRepository.countByEmailPattern(emailPattern) : null;
+
+        return new UserCursorPageDTO(page, nextCursor, total);
+    }
+
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
 
-        return usersPage.map(user -> new GetAllUsersResponseDTO(
-                user.getId(),
-                user.getName(),
-                user.getEmail(),
-                user.getRole()
-        ));
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     public UserEntity createUser(@Valid RegisterRequestDTO registerRequest) {
@@ -68,7 +124,7 @@ public class UserService {
         UserEntity newUser = new UserEntity();
         newUser.setName(StringFormatUtil.toTitleCase(registerRequest.name()));
         newUser.setEmail(registerRequest.email());
-        newUser.setPassword(passwordEncoder.encode(registerRequest.password()));
+        newUser.setPassword(passwordHashingService.encode(registerRequest.password()));
 
         Set<String> roles = new HashSet<>();
         roles.add("ROLE_USER");
@@ -92,23 +148,46 @@ public class UserService {
             throw new UserAlreadyExistsException("Email already exists");
         }
 
+        boolean credentialsChanged = !userEntity.getEmail().equals(user.getEmail())
+                || !passwordHashingService.matches(user.getPassword(), userEntity.getPassword());
+
         userEntity.setName(StringFormatUtil.toTitleCase(user.getName()));
         userEntity.setEmail(user.getEmail());
-        userEntity.setPassword(passwordEncoder.encode(user.getPassword()));
+        userEntity.setPassword(passwordHashingService.encode(user.getPassword()));
+
+        UserEntity savedUser = userRepository.save(userEntity);
+
+        if (credentialsChanged) {
+            tokenRevocationService.revokeUser(savedUser.getId());
+        }
 
-        return userRepository.save(userEntity);
+        return savedUser;
     }
 
     public void deleteUser(UUID id) {
         userRepository.deleteByIdAndReturnEntity(id)
                 .orElseThrow(UserNotFoundException::new);
+
+        tokenRevocationService.revokeUser(id);
+    }
+
+    public void logoutUser(UUID id) {
+        tokenRevocationService.revokeUser(id);
     }
 
     public UserEntity loginUser(@Valid LoginRequestDTO loginRequest) {
         Optional<UserEntity> user = userRepository.findByEmail(loginRequest.email());
 
-        if (user.isPresent() && passwordEncoder.matches(loginRequest.password(), user.get().getPassword())) {
-            return user.get();
+        if (user.isPresent() && !user.get().isDisabled()
+                && passwordHashingService.matches(loginRequest.password(), user.get().getPassword())) {
+            UserEntity userEntity = user.get();
+
+            if (passwordHashingService.needsRehash(userEntity.getPassword())) {
+                userEntity.setPassword(passwordHashingService.encode(loginRequest.password()));
+                userRepository.save(userEntity);
+            }
+
+            return userEntity;
         }
 
         throw new InvalidCredentialsException();
@@ -122,6 +201,9 @@ public class UserService {
         }
         user.getRole().add(StringFormatUtil.formatRole(assignRoleRequestDTO.role()));
 
-        return userRepository.save(user);
+        UserEntity savedUser = userRepository.save(user);
+        tokenRevocationService.revokeUser(savedUser.getId());
+
+        return savedUser;
     }
 }
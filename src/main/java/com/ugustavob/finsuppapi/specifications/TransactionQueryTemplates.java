@@ -0,0 +1,140 @@
+package com.ugustavob.finsuppapi.specifications;
+
+import com.ugustavob.finsuppapi.dto.transactions.TransactionFilterDTO;
+import com.ugustavob.finsuppapi.dto.transactions.TransactionSortKey;
+import com.ugustavob.finsuppapi.utils.Money;
+import org.springframework.data.domain.Sort;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQL for the transaction search. Each combination of present filters, sort key and direction has one
+ * parameterized template, built on first use and cached, so a search only collects its bind values.
+ * <p>
+ * Every template restricts {@code account_id} to the user's accounts with a subquery on {@code accounts.user_id}, and
+ * puts the range filters and the ORDER BY of its sort key on one column. V21 adds the matching
+ * {@code (account_id, transaction_date, id)} and {@code (account_id, amount, id)} indexes; whether the planner reads
+ * them in order, or has to sort rows merged from several accounts, depends on the data and is not assumed here.
+ */
+public final class TransactionQueryTemplates {
+    private static final String COLUMNS = "t.id, t.description, t.amount, t.add_to_bill, t.installments, " +
+            "t.transaction_date, t.transaction_type, t.category_id, t.account_id, t.recipient_id, t.bill_status, " +
+            "t.possible_duplicate";
+
+    private static final Map<Integer, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    private TransactionQueryTemplates() {
+    }
+
+    public record Query(String sql, String countSql, Map<String, Object> params) {
+    }
+
+    private record Template(String sql, String countSql) {
+    }
+
+    private enum Filter {
+        ACCOUNTS("a.id IN (:accountIds)"),
+        START_DATE("t.transaction_date >= :startDate"),
+        END_DATE("t.transaction_date <= :endDate"),
+        MIN_AMOUNT("t.amount >= :minAmount"),
+        MAX_AMOUNT("t.amount <= :maxAmount"),
+        TYPE("t.transaction_type = :transactionType"),
+        CATEGORIES("t.category_id IN (:categoryIds)"),
+        CARD("t.card_id = :cardId"),
+        INSTALLMENTS("t.installments = :installments"),
+        DESCRIPTION("LOWER(t.description) LIKE :description ESCAPE '\\'");
+
+        private final String condition;
+
+        Filter(String condition) {
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * Returns the template for the filters present in {@code filter} and their bind values. Paging is left to the
+     * caller, which binds {@code :limit} and {@code :offset}.
+     */
+    public static Query compile(TransactionFilterDTO filter) {
+        Map<String, Object> params = new HashMap<>();
+        int mask = 0;
+
+        params.put("userId", filter.getUserId());
+        mask |= bind(params, Filter.ACCOUNTS, "accountIds", nullIfEmpty(filter.getAccountIds()));
+        mask |= bind(params, Filter.START_DATE, "startDate", filter.getStartDate());
+        mask |= bind(params, Filter.END_DATE, "endDate", filter.getEndDate());
+        mask |= bind(params, Filter.MIN_AMOUNT, "minAmount",
+                filter.getMinAmount() != null ? Money.ofDecimal(filter.getMinAmount()) : null);
+        mask |= bind(params, Filter.MAX_AMOUNT, "maxAmount",
+                filter.getMaxAmount() != null ? Money.ofDecimal(filter.getMaxAmount()) : null);
+        mask |= bind(params, Filter.TYPE, "transactionType",
+                filter.getTransactionType() != null ? filter.getTransactionType().name() : null);
+        mask |= bind(params, Filter.CATEGORIES, "categoryIds", nullIfEmpty(filter.getCategoryIds()));
+        mask |= bind(params, Filter.CARD, "cardId", filter.getCardId());
+        mask |= bind(params, Filter.INSTALLMENTS, "installments", filter.getInstallments());
+        mask |= bind(params, Filter.DESCRIPTION, "description",
+                filter.getDescription() != null && !filter.getDescription().isBlank() ?
+                        "%" + escapeLike(filter.getDescription().trim().toLowerCase(Locale.ROOT)) + "%" : null);
+
+        TransactionSortKey sort = filter.getSort() != null ? filter.getSort() : TransactionSortKey.DATE;
+        Sort.Direction direction = filter.getDirection() != null ? filter.getDirection() : Sort.Direction.DESC;
+        int key = mask | sort.ordinal() << Filter.values().length | direction.ordinal() << Filter.values().length + 4;
+
+        int filters = mask;
+        Template template = TEMPLATES.computeIfAbsent(key, ignored -> build(filters, sort, direction));
+
+        return new Query(template.sql(), template.countSql(), params);
+    }
+
+    private static Template build(int mask, TransactionSortKey sort, Sort.Direction direction) {
+        StringBuilder where = new StringBuilder(" FROM transactions t WHERE t.account_id IN " +
+                "(SELECT a.id FROM accounts a WHERE a.user_id = :userId");
+
+        if (isSet(mask, Filter.ACCOUNTS)) {
+            where.append(" AND ").append(Filter.ACCOUNTS.condition);
+        }
+        where.append(')');
+
+        for (Filter filter : Filter.values()) {
+            if (filter != Filter.ACCOUNTS && isSet(mask, filter)) {
+                where.append(" AND ").append(filter.condition);
+            }
+        }
+
+        String column = switch (sort) {
+            case DATE -> "t.transaction_date";
+            case AMOUNT -> "t.amount";
+        };
+
+        return new Template(
+                "SELECT " + COLUMNS + where + " ORDER BY " + column + " " + direction.name() + ", t.id " +
+                        direction.name() + " LIMIT :limit OFFSET :offset",
+                "SELECT COUNT(*)" + where
+        );
+    }
+
+    private static int bind(Map<String, Object> params, Filter filter, String name, Object value) {
+        if (value == null) {
+            return 0;
+        }
+
+        params.put(name, value);
+        return 1 << filter.ordinal();
+    }
+
+    private static boolean isSet(int mask, Filter filter) {
+        return (mask & 1 << filter.ordinal()) != 0;
+    }
+
+    private static List<Integer> nullIfEmpty(List<Integer> values) {
+        return values == null || values.isEmpty() ? null : values;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
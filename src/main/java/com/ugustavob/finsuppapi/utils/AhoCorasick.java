@@ -0,0 +1,164 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns. A search reports every occurrence of every pattern in a
+ * single pass over the text, so its cost is linear in the text length plus the number of occurrences, however many
+ * patterns were added. Instances are immutable and safe to share between threads.
+ */
+public final class AhoCorasick {
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    private final int[] outputLink;
+    private final int[][] outputs;
+
+    private AhoCorasick(char[][] labels, int[][] targets, int[][] outputs) {
+        this.labels = labels;
+        this.targets = targets;
+        this.outputs = outputs;
+        this.fail = new int[labels.length];
+        this.outputLink = new int[labels.length];
+        linkStates();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Calls {@code listener} for each occurrence, in the order the occurrences end in {@code text}.
+     */
+    public void search(CharSequence text, MatchListener listener) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+
+            for (int s = state; s > 0; s = outputLink[s]) {
+                for (int id : outputs[s]) {
+                    listener.onMatch(id, i + 1);
+                }
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int child = child(state, c);
+
+            if (child >= 0) {
+                return child;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int child(int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private void linkStates() {
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                int suffix = next(fail[state], labels[state][i]);
+
+                fail[child] = suffix;
+                outputLink[child] = outputs[suffix].length > 0 ? suffix : outputLink[suffix];
+                queue.add(child);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * @param id  the id the matched pattern was added with
+         * @param end index just past the last character of the occurrence
+         */
+        void onMatch(int id, int end);
+    }
+
+    public static final class Builder {
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> ids = new ArrayList<>();
+
+        private Builder() {
+            addState();
+        }
+
+        public Builder add(CharSequence pattern, int id) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern must not be empty");
+            }
+
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer child = children.get(state).get(pattern.charAt(i));
+
+                if (child == null) {
+                    child = addState();
+                    children.get(state).put(pattern.charAt(i), child);
+                }
+                state = child;
+            }
+
+            ids.get(state).add(id);
+            return this;
+        }
+
+        public AhoCorasick build() {
+            int size = children.size();
+            char[][] labels = new char[size][];
+            int[][] targets = new int[size][];
+            int[][] outputs = new int[size][];
+
+            for (int state = 0; state < size; state++) {
+                Map<Character, Integer> edges = children.get(state);
+                labels[state] = new char[edges.size()];
+                targets[state] = new int[edges.size()];
+
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    labels[state][i] = edge.getKey();
+                    targets[state][i] = edge.getValue();
+                    i++;
+                }
+
+                List<Integer> stateIds = ids.get(state);
+                outputs[state] = stateIds.isEmpty() ? NO_OUTPUTS :
+                        stateIds.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            return new AhoCorasick(labels, targets, outputs);
+        }
+
+        private int addState() {
+            children.add(new TreeMap<>());
+            ids.add(new ArrayList<>());
+            return children.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over 128-bit keys given as two longs, such as a UUID or a hash prefix.
+ * {@link #mightContain} never returns {@code false} for a key that was added, and returns {@code true} for one that
+ * was not with roughly the false positive rate it was sized for. Probing works on the two longs directly, so a lookup
+ * does not allocate.
+ */
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long entries = Math.max(1, expectedEntries);
+        long optimalBits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+    }
+
+    public void add(UUID value) {
+        add(value.getMostSignificantBits(), value.getLeastSignificantBits());
+    }
+
+    public boolean mightContain(UUID value) {
+        return mightContain(value.getMostSignificantBits(), value.getLeastSignificantBits());
+    }
+
+    public void add(long high, long low) {
+        long h1 = mix(high ^ low * 0x9E3779B97F4A7C15L);
+        long h2 = mix(low) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long high, long low) {
+        long h1 = mix(high ^ low * 0x9E3779B97F4A7C15L);
+        long h2 = mix(low) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
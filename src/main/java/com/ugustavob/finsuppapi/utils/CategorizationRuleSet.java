@@ -0,0 +1,290 @@
+package com.ugustavob.finsuppapi.utils;
+
+import com.ugustavob.finsuppapi.entities.categories.CategorizationMatchType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled set of categorization rules. Substring and prefix rules share one {@link AhoCorasick} automaton, so a
+ * description is scanned once whatever the number of rules; only regex rules and rules without a text condition are
+ * checked one by one. A regex rule reads the description through a step budget, so a pattern that backtracks
+ * catastrophically stops early and counts as not matching instead of holding the thread.
+ * <p>
+ * When several rules match, the one with the highest priority wins, then user rules over global ones, then the
+ * oldest rule. Rules are stored in that order, so the winner is simply the matching rule with the lowest index.
+ */
+public final class CategorizationRuleSet {
+    private static final Comparator<Rule> PRECEDENCE = Comparator.comparingInt(Rule::priority).reversed()
+            .thenComparing(Rule::global)
+            .thenComparingLong(Rule::id);
+
+    private static final CategorizationRuleSet EMPTY = compile(List.of());
+
+    private static final int REGEX_STEPS_PER_CHAR = 1_000;
+    private static final int REGEX_MIN_STEPS = 10_000;
+
+    private final Rule[] rules;
+    private final Pattern[] regexes;
+    private final int[] patternLengths;
+    private final int[] residual;
+    private final AhoCorasick automaton;
+
+    private CategorizationRuleSet(Rule[] rules, Pattern[] regexes, int[] patternLengths, int[] residual,
+                                  AhoCorasick automaton) {
+        this.rules = rules;
+        this.regexes = regexes;
+        this.patternLengths = patternLengths;
+        this.residual = residual;
+        this.automaton = automaton;
+    }
+
+    public static CategorizationRuleSet empty() {
+        return EMPTY;
+    }
+
+    public static CategorizationRuleSet compile(Collection<Rule> source) {
+        Rule[] rules = source.stream().sorted(PRECEDENCE).toArray(Rule[]::new);
+        Pattern[] regexes = new Pattern[rules.length];
+        int[] patternLengths = new int[rules.length];
+        List<Integer> residual = new ArrayList<>();
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        boolean hasPatterns = false;
+
+        for (int i = 0; i < rules.length; i++) {
+            Rule rule = rules[i];
+
+            if (rule.matchType() == null) {
+                residual.add(i);
+            } else if (rule.matchType() == CategorizationMatchType.REGEX) {
+                regexes[i] = compileRegex(rule.pattern());
+                residual.add(i);
+            } else {
+                String pattern = normalize(rule.pattern());
+                builder.add(pattern, i);
+                patternLengths[i] = pattern.length();
+                hasPatterns = true;
+            }
+        }
+
+        return new CategorizationRuleSet(rules, regexes, patternLengths, residual.stream().mapToInt(Integer::intValue).toArray(),
+                hasPatterns ? builder.build() : null);
+    }
+
+    public static Pattern compileRegex(String regex) {
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * Checks a regex before it is saved as a rule. Besides the syntax, rejects the constructs that make a backtracking
+     * matcher exponential on a short text: backreferences and a repeated group that contains a repeated element,
+     * such as {@code (a+)+}. Patterns that are slow in other ways are still cut off by the step budget.
+     *
+     * @throws java.util.regex.PatternSyntaxException when the syntax is invalid
+     * @throws IllegalArgumentException               when the pattern uses one of the rejected constructs
+     */
+    public static void checkRegex(String regex) {
+        compileRegex(regex);
+
+        // One entry per open group: whether it contains a repeated element.
+        Deque<Boolean> groups = new ArrayDeque<>();
+        boolean repeatedInsideLastGroup = false;
+        boolean inClass = false;
+
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+
+            if (c == '\\' && i + 1 < regex.length()) {
+                char escaped = regex.charAt(++i);
+
+                if (!inClass && (escaped >= '1' && escaped <= '9' || escaped == 'k')) {
+                    throw new IllegalArgumentException("Backreferences are not allowed in regular expressions");
+                }
+                if (escaped == 'Q') {
+                    int end = regex.indexOf("\\E", i);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else if ("pPxN".indexOf(escaped) >= 0 && i + 1 < regex.length() && regex.charAt(i + 1) == '{') {
+                    i = regex.indexOf('}', i);
+                }
+                repeatedInsideLastGroup = false;
+                continue;
+            }
+
+            if (inClass) {
+                inClass = c != ']';
+                continue;
+            }
+
+            switch (c) {
+                case '[' -> {
+                    inClass = true;
+                    if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                        i++;
+                    }
+                    if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                        i++;
+                    }
+                    repeatedInsideLastGroup = false;
+                }
+                case '(' -> {
+                    groups.push(false);
+                    repeatedInsideLastGroup = false;
+                }
+                case ')' -> {
+                    repeatedInsideLastGroup = !groups.isEmpty() && groups.pop();
+                    if (repeatedInsideLastGroup && !groups.isEmpty()) {
+                        groups.pop();
+                        groups.push(true);
+                    }
+                }
+                case '*', '+', '{' -> {
+                    boolean repeats = true;
+                    if (c == '{') {
+                        int end = regex.indexOf('}', i);
+                        String bounds = regex.substring(i + 1, end);
+                        repeats = bounds.contains(",");
+                        i = end;
+                    }
+
+                    if (repeats) {
+                        if (repeatedInsideLastGroup) {
+                            throw new IllegalArgumentException(
+                                    "Nested quantifiers such as (a+)+ are not allowed in regular expressions");
+                        }
+                        if (!groups.isEmpty()) {
+                            groups.pop();
+                            groups.push(true);
+                        }
+                    }
+                    // Lazy and possessive forms: a+? or a++.
+                    if (i + 1 < regex.length() && (regex.charAt(i + 1) == '?' || regex.charAt(i + 1) == '+')) {
+                        i++;
+                    }
+                    repeatedInsideLastGroup = false;
+                }
+                case '?' -> {
+                }
+                default -> repeatedInsideLastGroup = false;
+            }
+        }
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    public Optional<Rule> match(String description, double amount, Integer accountId) {
+        String text = normalize(description);
+        int[] best = {rules.length};
+
+        if (automaton != null) {
+            automaton.search(text, (index, end) -> {
+                Rule rule = rules[index];
+
+                if (index < best[0] && accepts(rule, amount, accountId)
+                        && (rule.matchType() != CategorizationMatchType.PREFIX
+                        || end == patternLengths[index])) {
+                    best[0] = index;
+                }
+            });
+        }
+
+        for (int index : residual) {
+            if (index >= best[0]) {
+                break;
+            }
+
+            if (accepts(rules[index], amount, accountId)
+                    && (regexes[index] == null || find(regexes[index], text))) {
+                best[0] = index;
+                break;
+            }
+        }
+
+        return best[0] < rules.length ? Optional.of(rules[best[0]]) : Optional.empty();
+    }
+
+    private static boolean find(Pattern regex, String text) {
+        try {
+            return regex.matcher(new BudgetedText(text, REGEX_MIN_STEPS + (long) REGEX_STEPS_PER_CHAR * text.length()))
+                    .find();
+        } catch (StepBudgetExceeded e) {
+            return false;
+        }
+    }
+
+    private static boolean accepts(Rule rule, double amount, Integer accountId) {
+        return (rule.minAmount() == null || amount >= rule.minAmount())
+                && (rule.maxAmount() == null || amount <= rule.maxAmount())
+                && (rule.accountId() == null || rule.accountId().equals(accountId));
+    }
+
+    /**
+     * The matcher reads the text one character at a time, including every retry while backtracking, so the number of
+     * reads bounds the work of a match.
+     */
+    private static final class BudgetedText implements CharSequence {
+        private final String text;
+        private long remaining;
+
+        private BudgetedText(String text, long steps) {
+            this.text = text;
+            this.remaining = steps;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining < 0) {
+                throw StepBudgetExceeded.INSTANCE;
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final class StepBudgetExceeded extends RuntimeException {
+        private static final StepBudgetExceeded INSTANCE = new StepBudgetExceeded();
+
+        private StepBudgetExceeded() {
+            super("Regular expression step budget exceeded", null, false, false);
+        }
+    }
+
+    public record Rule(
+            long id,
+            int categoryId,
+            CategorizationMatchType matchType,
+            String pattern,
+            Double minAmount,
+            Double maxAmount,
+            Integer accountId,
+            int priority,
+            boolean global
+    ) {
+    }
+}
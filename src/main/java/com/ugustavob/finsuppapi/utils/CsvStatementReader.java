@@ -0,0 +1,188 @@
+package com.ugustavob.finsuppapi.utils;
+
+import com.ugustavob.finsuppapi.dto.transactions.CsvImportMappingDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: quoted fields may contain the delimiter, doubled quotes and line breaks. Columns are
+ * resolved once from the mapping and the header, then every record is turned into a {@link StatementRow}.
+ */
+public class CsvStatementReader implements StatementReader {
+    private static final int MAX_FIELD_LENGTH = 1024;
+
+    private final BufferedReader reader;
+    private final CsvImportMappingDTO mapping;
+    private final DateTimeFormatter dateFormatter;
+    private final char delimiter;
+
+    private int dateIndex = -1;
+    private int descriptionIndex = -1;
+    private int amountIndex = -1;
+    private long line = 1;
+    private boolean started;
+
+    public CsvStatementReader(Reader reader, CsvImportMappingDTO mapping) {
+        this.reader = new BufferedReader(reader);
+        this.mapping = mapping;
+        this.dateFormatter = DateTimeFormatter.ofPattern(mapping.dateFormat());
+        this.delimiter = mapping.delimiter();
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        if (!started) {
+            start();
+        }
+
+        List<String> fields;
+        long row;
+
+        do {
+            row = line;
+            fields = readRecord();
+
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        String content = String.join(String.valueOf(delimiter), fields);
+        int required = Math.max(dateIndex, Math.max(descriptionIndex, amountIndex));
+
+        if (fields.size() <= required) {
+            return StatementRow.rejected(row, content, "Expected at least " + (required + 1) + " columns");
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(fields.get(dateIndex).trim(), dateFormatter);
+        } catch (DateTimeParseException e) {
+            return StatementRow.rejected(row, content, "Invalid date: " + fields.get(dateIndex).trim());
+        }
+
+        Double amount = parseAmount(fields.get(amountIndex));
+        if (amount == null) {
+            return StatementRow.rejected(row, content, "Invalid amount: " + fields.get(amountIndex).trim());
+        }
+
+        return new StatementRow(row, date, fields.get(descriptionIndex).trim(),
+                mapping.invertSign() ? -amount : amount, content, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void start() throws IOException {
+        started = true;
+
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+
+        List<String> header = mapping.header() ? readRecord() : null;
+
+        if (mapping.header() && header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+
+        dateIndex = resolve(mapping.dateColumn(), header);
+        descriptionIndex = resolve(mapping.descriptionColumn(), header);
+        amountIndex = resolve(mapping.amountColumn(), header);
+    }
+
+    private int resolve(String column, List<String> header) {
+        if (column.chars().allMatch(Character::isDigit)) {
+            return Integer.parseInt(column);
+        }
+
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equalsIgnoreCase(column)) {
+                    return i;
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("CSV column not found: " + column);
+    }
+
+    private Double parseAmount(String value) {
+        String amount = value.trim().replace(" ", "");
+        boolean negative = amount.startsWith("(") && amount.endsWith(")");
+
+        if (negative) {
+            amount = amount.substring(1, amount.length() - 1);
+        }
+
+        amount = amount.replaceAll("[^0-9,.+-]", "");
+        amount = mapping.decimalComma() ? amount.replace(".", "").replace(',', '.') : amount.replace(",", "");
+
+        try {
+            double parsed = Double.parseDouble(amount);
+            return negative ? -parsed : parsed;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append(field, c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(field, c);
+            }
+
+            c = reader.read();
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() < MAX_FIELD_LENGTH) {
+            field.append((char) c);
+        }
+    }
+}
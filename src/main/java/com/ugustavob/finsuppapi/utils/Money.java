@@ -0,0 +1,100 @@
+package com.ugustavob.finsuppapi.utils;
+
+/**
+ * An amount as a {@code long} number of cents. Amounts are stored and computed in cents; the API keeps exchanging
+ * decimal amounts ({@code 12.34}), which are converted here, once, when a request comes in and when a response goes
+ * out. In between, sums and comparisons are exact.
+ * <p>
+ * The static methods work on plain {@code long} cents, which is what entities and aggregation loops hold. The record
+ * wraps the same {@code long} for code that passes amounts around as a type; it has a single primitive field, so the
+ * JIT scalar-replaces instances that do not escape and arithmetic on it allocates nothing.
+ */
+public record Money(long cents) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final double CENTS_PER_UNIT = 100.0;
+    // Keeps 2 * cents + 1 exact in a double, well above any real amount.
+    private static final double MAX_DECIMAL = (1L << 52) / CENTS_PER_UNIT;
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    public static Money of(double amount) {
+        return new Money(ofDecimal(amount));
+    }
+
+    /**
+     * Cents of a decimal amount, rounding half up (away from zero) at the second decimal place of its shortest
+     * decimal form, so {@code 1.005} gives 101 although the double is slightly below 1.005. Allocation-free.
+     */
+    public static long ofDecimal(double amount) {
+        if (!Double.isFinite(amount) || Math.abs(amount) > MAX_DECIMAL) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+
+        double magnitude = Math.abs(amount);
+        double scaled = magnitude * CENTS_PER_UNIT;
+        long lower = (long) Math.floor(scaled);
+
+        // The double nearest to lower + 0.5 cents is the one the literal "x.xx5" parses to: round it up.
+        long cents = (2 * lower + 1) / (2 * CENTS_PER_UNIT) == magnitude ? lower + 1 : Math.round(scaled);
+
+        return amount < 0 ? -cents : cents;
+    }
+
+    public static double toDecimal(long cents) {
+        return cents / CENTS_PER_UNIT;
+    }
+
+    /**
+     * Amount of installment {@code number} (1-based) when {@code total} is split into {@code count} installments. Every
+     * installment gets {@code total / count}, and the last one also gets the remainder, so the installments always add
+     * up to the total.
+     */
+    public static long installment(long total, int count, int number) {
+        if (count < 1 || number < 1 || number > count) {
+            throw new IllegalArgumentException("Invalid installment " + number + " of " + count);
+        }
+
+        long base = total / count;
+        return number == count ? total - base * (count - 1) : base;
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents));
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public Money installment(int count, int number) {
+        return new Money(installment(cents, count, number));
+    }
+
+    public double toDecimal() {
+        return toDecimal(cents);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        long units = Math.abs(cents / 100);
+        long rest = Math.abs(cents % 100);
+        return (cents < 0 ? "-" : "") + units + (rest < 10 ? ".0" : ".") + rest;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for the {@code <STMTTRN>} entries of an OFX statement. It only tokenizes tags and their text, so
+ * it accepts both OFX 1.x (SGML, elements without closing tags) and OFX 2.x (XML) files.
+ */
+public class OfxStatementReader implements StatementReader {
+    private static final int MAX_TEXT_LENGTH = 1024;
+
+    private final BufferedReader reader;
+    private int lookahead = -2;
+    private long row;
+
+    public OfxStatementReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        Map<String, String> fields = null;
+        String tag;
+
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                fields = new HashMap<>();
+            } else if (tag.equals("/STMTTRN") && fields != null) {
+                return toRow(++row, fields);
+            } else if (fields != null && !tag.startsWith("/")) {
+                String text = readText();
+
+                if (!text.isEmpty()) {
+                    fields.put(tag, text);
+                }
+            }
+        }
+
+        return fields != null ? toRow(++row, fields) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private StatementRow toRow(long row, Map<String, String> fields) {
+        String content = fields.getOrDefault("FITID", "") + " " + fields.getOrDefault("DTPOSTED", "") + " " +
+                fields.getOrDefault("TRNAMT", "") + " " + description(fields);
+        String posted = fields.get("DTPOSTED");
+
+        if (posted == null || posted.length() < 8) {
+            return StatementRow.rejected(row, content.trim(), "Missing DTPOSTED");
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return StatementRow.rejected(row, content.trim(), "Invalid DTPOSTED: " + posted);
+        }
+
+        String amount = fields.get("TRNAMT");
+        if (amount == null) {
+            return StatementRow.rejected(row, content.trim(), "Missing TRNAMT");
+        }
+
+        try {
+            double parsed = Double.parseDouble(amount.indexOf('.') < 0 ? amount.replace(',', '.') : amount);
+            return new StatementRow(row, date, description(fields), parsed, content.trim(), null);
+        } catch (NumberFormatException e) {
+            return StatementRow.rejected(row, content.trim(), "Invalid TRNAMT: " + amount);
+        }
+    }
+
+    private String description(Map<String, String> fields) {
+        String name = fields.get("NAME");
+        return name != null ? name : fields.getOrDefault("MEMO", "");
+    }
+
+    /**
+     * Skips to the next {@code <...>} and returns its upper-cased name, including the leading slash of closing tags.
+     */
+    private String nextTag() throws IOException {
+        int c;
+
+        while ((c = read()) != '<') {
+            if (c == -1) {
+                return null;
+            }
+        }
+
+        StringBuilder tag = new StringBuilder();
+        while ((c = read()) != '>' && c != -1) {
+            if (tag.length() < MAX_TEXT_LENGTH) {
+                tag.append((char) c);
+            }
+        }
+
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the text of an element up to the next tag, which is left unread.
+     */
+    private String readText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+
+        while ((c = read()) != '<' && c != -1) {
+            if (text.length() < MAX_TEXT_LENGTH) {
+                text.append((char) c);
+            }
+        }
+        lookahead = c;
+
+        return text.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
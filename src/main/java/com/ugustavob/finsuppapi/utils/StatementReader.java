@@ -0,0 +1,14 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads statement entries one at a time, so a file is never held in memory as a whole.
+ */
+public interface StatementReader extends Closeable {
+    /**
+     * @return the next entry, or {@code null} at the end of the statement
+     */
+    StatementRow next() throws IOException;
+}
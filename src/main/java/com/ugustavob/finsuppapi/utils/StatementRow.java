@@ -0,0 +1,20 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.time.LocalDate;
+
+/**
+ * One entry read from a bank statement. A row that could not be parsed carries the reason in {@code error} and the
+ * raw content for the rejection report.
+ */
+public record StatementRow(
+        long row,
+        LocalDate date,
+        String description,
+        Double amount,
+        String content,
+        String error
+) {
+    public static StatementRow rejected(long row, String content, String error) {
+        return new StatementRow(row, null, null, null, content, error);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of locks shared by hashing the key. Pairs of keys are always locked in stripe order, so two threads
+ * working on the same pair in opposite directions cannot deadlock.
+ */
+public class StripedLock {
+    private final ReentrantLock[] locks;
+
+    public StripedLock(int stripes) {
+        locks = new ReentrantLock[stripes];
+
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLocks(Object first, Object second, Supplier<T> action) {
+        int a = index(first);
+        int b = index(second);
+        ReentrantLock lower = locks[Math.min(a, b)];
+        ReentrantLock upper = locks[Math.max(a, b)];
+
+        lower.lock();
+        try {
+            if (a != b) {
+                upper.lock();
+            }
+            try {
+                return action.get();
+            } finally {
+                if (a != b) {
+                    upper.unlock();
+                }
+            }
+        } finally {
+            lower.unlock();
+        }
+    }
+
+    private int index(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % locks.length;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel. Level 0 has one slot per tick; each higher level has one slot per full turn of the level
+ * below, so {@code levels} wheels of 64 slots cover {@code 64^levels} ticks. Scheduling and expiring a timer are
+ * constant time: a timer is moved down one level each time the wheel reaches its slot, and fires from level 0.
+ * Timers further away than the wheel covers wait in an overflow list until they come into range.
+ * <p>
+ * Timers cannot be cancelled; callers re-check their state when a timer fires. All methods are synchronized, and
+ * {@link #advance} hands the expired timers to the consumer after releasing the lock.
+ */
+public final class TimerWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<Entry<T>>[][] wheels;
+    private List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    private record Entry<T>(long deadlineTick, T task) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels * BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timer wheel configuration");
+        }
+
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.wheels = new List[levels][SLOTS];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code task} to expire at the first {@link #advance} that reaches {@code deadlineMillis}. A deadline
+     * in the past expires on the next tick.
+     */
+    public synchronized void schedule(long deadlineMillis, T task) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        insert(new Entry<>(deadlineTick, task));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and passes every timer whose deadline was reached to {@code expired}.
+     */
+    public void advance(long nowMillis, Consumer<? super T> expired) {
+        List<T> due = new ArrayList<>();
+
+        synchronized (this) {
+            long targetTick = nowMillis / tickMillis;
+
+            while (currentTick < targetTick && size > 0) {
+                currentTick++;
+                cascade();
+
+                List<Entry<T>> slot = take(0, (int) (currentTick & MASK));
+                if (slot != null) {
+                    for (Entry<T> entry : slot) {
+                        due.add(entry.task());
+                    }
+                    size -= slot.size();
+                }
+            }
+
+            // Nothing left to expire: jump straight to the target instead of walking the empty ticks.
+            currentTick = Math.max(currentTick, targetTick);
+        }
+
+        due.forEach(expired);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade() {
+        if ((currentTick & (1L << BITS * levels) - 1) == 0 && !overflow.isEmpty()) {
+            List<Entry<T>> waiting = overflow;
+            overflow = new ArrayList<>();
+            waiting.forEach(this::insert);
+        }
+
+        for (int level = levels - 1; level > 0; level--) {
+            if ((currentTick & (1L << BITS * level) - 1) == 0) {
+                List<Entry<T>> slot = take(level, (int) (currentTick >>> BITS * level & MASK));
+                if (slot != null) {
+                    slot.forEach(this::insert);
+                }
+            }
+        }
+    }
+
+    private void insert(Entry<T> entry) {
+        long differing = entry.deadlineTick() ^ currentTick;
+        int level = 0;
+
+        while (level < levels && differing >>> BITS * (level + 1) != 0) {
+            level++;
+        }
+
+        if (level == levels) {
+            overflow.add(entry);
+            return;
+        }
+
+        int index = (int) (entry.deadlineTick() >>> BITS * level & MASK);
+        if (wheels[level][index] == null) {
+            wheels[level][index] = new ArrayList<>();
+        }
+        wheels[level][index].add(entry);
+    }
+
+    private List<Entry<T>> take(int level, int index) {
+        List<Entry<T>> slot = wheels[level][index];
+        wheels[level][index] = null;
+        return slot;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
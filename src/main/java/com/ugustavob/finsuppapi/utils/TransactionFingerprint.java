@@ -0,0 +1,61 @@
+package com.ugustavob.finsuppapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies a transaction by what a bank statement shows about it: account, date, type, amount in cents and
+ * description. Descriptions are compared without accents, case or punctuation, so the same entry imported twice, or
+ * typed slightly differently, gets the same fingerprint.
+ */
+public final class TransactionFingerprint {
+    public static final int LENGTH = 32;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TransactionFingerprint() {
+    }
+
+    public static String of(Integer accountId, LocalDate date, Enum<?> type, String description, double amount) {
+        return of(accountId, date, type, description, Money.ofDecimal(amount));
+    }
+
+    public static String of(Integer accountId, LocalDate date, Enum<?> type, String description, long amountCents) {
+        String canonical = accountId + "|" + date + "|" + (type != null ? type.name() : "") + "|" +
+                amountCents + "|" + normalize(description);
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, LENGTH / 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The two halves of a fingerprint as longs, e.g. to key a {@link BloomFilter} without keeping the strings.
+     */
+    public static long high(String fingerprint) {
+        return HexFormat.fromHexDigitsToLong(fingerprint, 0, LENGTH / 2);
+    }
+
+    public static long low(String fingerprint) {
+        return HexFormat.fromHexDigitsToLong(fingerprint, LENGTH / 2, LENGTH);
+    }
+
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+
+        String stripped = MARKS.matcher(Normalizer.normalize(description, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
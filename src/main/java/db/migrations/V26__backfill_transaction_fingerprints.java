@@ -0,0 +1,51 @@
+package db.migrations;
+
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.utils.TransactionFingerprint;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills {@code transactions.fingerprint} for rows written before the column existed, so duplicate checks also see
+ * them. The fingerprint normalizes descriptions in Java ({@link TransactionFingerprint}), so this is a Java migration
+ * rather than SQL; Flyway runs it once, on one node. Rows are walked in id order in batches; new and updated rows get
+ * their fingerprint from the entity.
+ */
+public class V26__backfill_transaction_fingerprints extends BaseJavaMigration {
+    private static final int BATCH_SIZE = 500;
+    private static final String SELECT_MISSING = "SELECT id, account_id, transaction_date, transaction_type, " +
+            "description, amount FROM transactions WHERE fingerprint IS NULL AND id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_FINGERPRINT = "UPDATE transactions SET fingerprint = ? WHERE id = ?";
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        long afterId = 0;
+
+        while (true) {
+            List<Object[]> rows = new ArrayList<>();
+
+            jdbcTemplate.query(SELECT_MISSING, rs -> {
+                Integer accountId = (Integer) rs.getObject("account_id");
+                String type = rs.getString("transaction_type");
+
+                rows.add(new Object[]{TransactionFingerprint.of(accountId,
+                        rs.getDate("transaction_date").toLocalDate(),
+                        type != null ? TransactionType.valueOf(type) : null,
+                        rs.getString("description"), rs.getLong("amount")), rs.getInt("id")});
+            }, afterId, BATCH_SIZE);
+
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate(UPDATE_FINGERPRINT, rows);
+            afterId = (Integer) rows.get(rows.size() - 1)[1];
+        }
+    }
+}
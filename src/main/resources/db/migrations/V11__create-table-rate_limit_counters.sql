@@ -0,0 +1,7 @@
+CREATE TABLE rate_limit_counters
+(
+    bucket_key   VARCHAR(100) NOT NULL,
+    window_start BIGINT       NOT NULL,
+    consumed     BIGINT       NOT NULL,
+    CONSTRAINT pk_rate_limit_counters PRIMARY KEY (bucket_key)
+);
@@ -0,0 +1,6 @@
+CREATE TABLE token_revocations
+(
+    user_id        UUID   NOT NULL,
+    revoked_before BIGINT NOT NULL,
+    CONSTRAINT pk_token_revocations PRIMARY KEY (user_id)
+);
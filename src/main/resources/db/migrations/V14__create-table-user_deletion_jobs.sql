@@ -0,0 +1,17 @@
+ALTER TABLE users
+    ADD disabled BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE TABLE user_deletion_jobs
+(
+    id           UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id      UUID        NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    phase        VARCHAR(20),
+    deleted_rows BIGINT      NOT NULL DEFAULT 0,
+    error        VARCHAR(255),
+    created_at   TIMESTAMP   NOT NULL,
+    updated_at   TIMESTAMP   NOT NULL,
+    locked_until TIMESTAMP
+);
+
+CREATE INDEX idx_user_deletion_jobs_status ON user_deletion_jobs (status);
@@ -0,0 +1,31 @@
+CREATE TABLE transaction_import_jobs
+(
+    id             UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id        UUID         NOT NULL,
+    account_id     INTEGER      NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    format         VARCHAR(10)  NOT NULL,
+    file_name      VARCHAR(255),
+    status         VARCHAR(20)  NOT NULL,
+    total_bytes    BIGINT       NOT NULL DEFAULT 0,
+    bytes_read     BIGINT       NOT NULL DEFAULT 0,
+    processed_rows BIGINT       NOT NULL DEFAULT 0,
+    imported_rows  BIGINT       NOT NULL DEFAULT 0,
+    rejected_rows  BIGINT       NOT NULL DEFAULT 0,
+    error          VARCHAR(255),
+    created_at     TIMESTAMP    NOT NULL,
+    updated_at     TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_transaction_import_jobs_user_id ON transaction_import_jobs (user_id);
+CREATE INDEX idx_transaction_import_jobs_status ON transaction_import_jobs (status);
+
+CREATE TABLE transaction_import_rejections
+(
+    id         BIGSERIAL PRIMARY KEY,
+    job_id     UUID         NOT NULL REFERENCES transaction_import_jobs (id) ON DELETE CASCADE,
+    row_number BIGINT       NOT NULL,
+    reason     VARCHAR(255) NOT NULL,
+    content    VARCHAR(255)
+);
+
+CREATE INDEX idx_transaction_import_rejections_job_id ON transaction_import_rejections (job_id, row_number);
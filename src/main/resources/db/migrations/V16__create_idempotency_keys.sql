@@ -0,0 +1,15 @@
+CREATE TABLE idempotency_keys
+(
+    id              VARCHAR(300) PRIMARY KEY,
+    user_id         UUID        NOT NULL,
+    fingerprint     VARCHAR(64) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    response_status INTEGER,
+    content_type    VARCHAR(100),
+    location        VARCHAR(255),
+    response_body   BYTEA,
+    created_at      TIMESTAMP   NOT NULL,
+    expires_at      TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
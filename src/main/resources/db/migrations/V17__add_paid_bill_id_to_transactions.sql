@@ -0,0 +1,4 @@
+ALTER TABLE transactions
+    ADD paid_bill_id INTEGER REFERENCES bills (id) ON DELETE SET NULL;
+
+CREATE INDEX idx_transactions_paid_bill_id ON transactions (paid_bill_id) WHERE paid_bill_id IS NOT NULL;
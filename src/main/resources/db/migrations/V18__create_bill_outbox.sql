@@ -0,0 +1,21 @@
+ALTER TABLE transactions
+    ADD bill_status VARCHAR(20);
+
+UPDATE transactions SET bill_status = 'APPLIED' WHERE add_to_bill = TRUE;
+
+CREATE TABLE bill_outbox
+(
+    id             BIGSERIAL PRIMARY KEY,
+    transaction_id INTEGER     NOT NULL REFERENCES transactions (id) ON DELETE CASCADE,
+    account_id     INTEGER     NOT NULL,
+    status         VARCHAR(20) NOT NULL,
+    attempts       INTEGER     NOT NULL DEFAULT 0,
+    error          VARCHAR(255),
+    created_at     TIMESTAMP   NOT NULL,
+    available_at   TIMESTAMP   NOT NULL,
+    locked_until   TIMESTAMP,
+    processed_at   TIMESTAMP
+);
+
+CREATE INDEX idx_bill_outbox_active ON bill_outbox (account_id, id) WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX idx_bill_outbox_transaction_id ON bill_outbox (transaction_id);
@@ -0,0 +1,15 @@
+CREATE TABLE categorization_rules
+(
+    id          SERIAL PRIMARY KEY,
+    user_id     UUID REFERENCES users (id) ON DELETE CASCADE,
+    category_id INTEGER      NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    match_type  VARCHAR(20),
+    pattern     VARCHAR(200),
+    min_amount  DOUBLE PRECISION,
+    max_amount  DOUBLE PRECISION,
+    account_id  INTEGER REFERENCES accounts (id) ON DELETE CASCADE,
+    priority    INTEGER      NOT NULL DEFAULT 0,
+    created_at  TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_categorization_rules_user_id ON categorization_rules (user_id);
@@ -0,0 +1,9 @@
+ALTER TABLE transactions
+    ADD fingerprint        VARCHAR(32),
+    ADD possible_duplicate BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_transactions_account_id_fingerprint ON transactions (account_id, fingerprint)
+    WHERE fingerprint IS NOT NULL;
+
+ALTER TABLE transaction_import_jobs
+    ADD skipped_rows BIGINT NOT NULL DEFAULT 0;
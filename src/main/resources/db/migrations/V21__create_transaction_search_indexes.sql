@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_accounts_user_id ON accounts (user_id);
+
+CREATE INDEX idx_transactions_account_id_transaction_date ON transactions (account_id, transaction_date, id);
+CREATE INDEX idx_transactions_account_id_amount ON transactions (account_id, amount, id);
+CREATE INDEX idx_transactions_category_id ON transactions (category_id);
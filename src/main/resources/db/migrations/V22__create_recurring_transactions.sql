@@ -0,0 +1,26 @@
+CREATE TABLE recurring_transactions
+(
+    id               SERIAL PRIMARY KEY,
+    user_id          UUID             NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    description      VARCHAR(255)     NOT NULL,
+    amount           DOUBLE PRECISION NOT NULL CHECK (amount > 0),
+    transaction_type VARCHAR(20)      NOT NULL,
+    add_to_bill      BOOLEAN          NOT NULL DEFAULT FALSE,
+    category_id      INTEGER          NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    account_id       INTEGER          NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    recipient_id     INTEGER REFERENCES accounts (id) ON DELETE CASCADE,
+    frequency        VARCHAR(20)      NOT NULL,
+    interval_count   INTEGER          NOT NULL DEFAULT 1 CHECK (interval_count > 0),
+    start_date       DATE             NOT NULL,
+    end_date         DATE,
+    next_date        DATE,
+    occurrences      INTEGER          NOT NULL DEFAULT 0,
+    status           VARCHAR(20)      NOT NULL,
+    attempts         INTEGER          NOT NULL DEFAULT 0,
+    last_error       VARCHAR(255),
+    locked_until     TIMESTAMP,
+    created_at       TIMESTAMP        NOT NULL
+);
+
+CREATE INDEX idx_recurring_transactions_due ON recurring_transactions (next_date, id) WHERE status = 'ACTIVE';
+CREATE INDEX idx_recurring_transactions_user_id ON recurring_transactions (user_id);
@@ -0,0 +1,56 @@
+ALTER TABLE accounts
+    ADD ledger_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE ledger_entries
+(
+    id                      BIGSERIAL PRIMARY KEY,
+    account_id              INTEGER          NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    seq                     BIGINT           NOT NULL,
+    amount                  DOUBLE PRECISION NOT NULL,
+    entry_type              VARCHAR(20)      NOT NULL,
+    transaction_id          INTEGER,
+    counterparty_account_id INTEGER,
+    created_at              TIMESTAMP        NOT NULL,
+    CONSTRAINT uk_ledger_entries_account_seq UNIQUE (account_id, seq)
+);
+
+CREATE INDEX idx_ledger_entries_transaction_id ON ledger_entries (transaction_id) WHERE transaction_id IS NOT NULL;
+
+CREATE TABLE account_balance_snapshots
+(
+    id         BIGSERIAL PRIMARY KEY,
+    account_id INTEGER          NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    seq        BIGINT           NOT NULL,
+    balance    DOUBLE PRECISION NOT NULL,
+    as_of      TIMESTAMP        NOT NULL,
+    CONSTRAINT uk_account_balance_snapshots_account_seq UNIQUE (account_id, seq)
+);
+
+-- as_of is the time of the last entry a snapshot covers.
+CREATE INDEX idx_account_balance_snapshots_account_as_of ON account_balance_snapshots (account_id, as_of);
+
+-- Entries are never changed: corrections are new entries. Deleting an account still removes its entries.
+CREATE FUNCTION ledger_entries_append_only() RETURNS TRIGGER AS
+$$
+BEGIN
+    RAISE EXCEPTION 'ledger_entries is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_ledger_entries_append_only
+    BEFORE UPDATE
+    ON ledger_entries
+    FOR EACH ROW
+EXECUTE FUNCTION ledger_entries_append_only();
+
+-- Existing balances become the opening entry and first snapshot of each account.
+INSERT INTO ledger_entries (account_id, seq, amount, entry_type, created_at)
+SELECT id, 1, balance, 'OPENING', LOCALTIMESTAMP
+FROM accounts;
+
+INSERT INTO account_balance_snapshots (account_id, seq, balance, as_of)
+SELECT id, 1, balance, LOCALTIMESTAMP
+FROM accounts;
+
+UPDATE accounts
+SET ledger_seq = 1;
@@ -0,0 +1,27 @@
+-- Amounts are stored as whole cents (see Money). Decimal columns are multiplied by 100 and rounded half away from
+-- zero; a column that is already BIGINT (created by Hibernate from the current entities) holds cents and is left as is.
+DO
+$$
+    DECLARE
+        money_column RECORD;
+    BEGIN
+        FOR money_column IN
+            SELECT c.table_name, c.column_name
+            FROM information_schema.columns c
+                     JOIN (VALUES ('accounts', 'balance'),
+                                  ('transactions', 'amount'),
+                                  ('bills', 'total_amount'),
+                                  ('bill_items', 'amount'),
+                                  ('subscriptions', 'price'),
+                                  ('recurring_transactions', 'amount'),
+                                  ('ledger_entries', 'amount'),
+                                  ('account_balance_snapshots', 'balance')) AS m (table_name, column_name)
+                          ON m.table_name = c.table_name AND m.column_name = c.column_name
+            WHERE c.table_schema = current_schema()
+              AND c.data_type IN ('double precision', 'real', 'numeric')
+            LOOP
+                EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE BIGINT USING CAST(ROUND(CAST(%I AS NUMERIC) * 100) AS BIGINT)',
+                               money_column.table_name, money_column.column_name, money_column.column_name);
+            END LOOP;
+    END
+$$;
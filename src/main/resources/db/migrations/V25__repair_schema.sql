@@ -0,0 +1,363 @@
+-- Brings every database to the schema the entities map, whatever state it starts from:
+--   * an empty database, baselined at 23 by FlywayConfig, gets every table here;
+--   * a database Hibernate built before Flyway ran (baselined at 23) gets what ddl-auto cannot create: constraints,
+--     indexes, the ledger trigger and the opening ledger entries;
+--   * a database that ran V11-V24 only picks up what is missing.
+-- V1-V10 predate the entities (UUID account ids, columns altered before they exist) and are never run; they are kept
+-- unchanged so recorded checksums stay valid. Money columns are BIGINT cents, see V24.
+
+CREATE TABLE IF NOT EXISTS users
+(
+    id       UUID DEFAULT gen_random_uuid() NOT NULL PRIMARY KEY,
+    name     VARCHAR(255)                   NOT NULL,
+    email    VARCHAR(255)                   NOT NULL UNIQUE,
+    password VARCHAR(255)                   NOT NULL
+);
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS disabled BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE TABLE IF NOT EXISTS roles
+(
+    role    VARCHAR(50) NOT NULL,
+    user_id UUID        NOT NULL,
+    CONSTRAINT fk_user
+        FOREIGN KEY (user_id)
+            REFERENCES users (id)
+            ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS categories
+(
+    id          SERIAL PRIMARY KEY,
+    description VARCHAR(20) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS banks
+(
+    id   SERIAL PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS accounts
+(
+    id              SERIAL PRIMARY KEY,
+    description     VARCHAR(255) NOT NULL,
+    balance         BIGINT       NOT NULL,
+    bank            INTEGER      NOT NULL,
+    account_type    VARCHAR(20),
+    closing_day     INTEGER      NOT NULL DEFAULT 0,
+    payment_due_day INTEGER      NOT NULL DEFAULT 0,
+    user_id         UUID         NOT NULL,
+    CONSTRAINT fk_accounts_bank FOREIGN KEY (bank) REFERENCES banks (id) ON DELETE CASCADE,
+    CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+ALTER TABLE accounts
+    ADD COLUMN IF NOT EXISTS ledger_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS cards
+(
+    id           INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    description  VARCHAR(255)                             NOT NULL,
+    last_numbers VARCHAR(4)                               NOT NULL,
+    card_limit   INTEGER,
+    type         VARCHAR(20)                              NOT NULL,
+    account_id   INTEGER                                  NOT NULL,
+    CONSTRAINT pk_cards PRIMARY KEY (id),
+    CONSTRAINT FK_CARDS_ON_ACCOUNT FOREIGN KEY (account_id) REFERENCES accounts (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS transactions
+(
+    id               SERIAL PRIMARY KEY,
+    description      VARCHAR(255) NOT NULL,
+    amount           BIGINT       NOT NULL CHECK (amount > 0),
+    installments     INTEGER      NOT NULL DEFAULT 0,
+    add_to_bill      BOOLEAN      NOT NULL DEFAULT FALSE,
+    transaction_date DATE         NOT NULL,
+    transaction_type VARCHAR(20),
+    category_id      INTEGER      NOT NULL,
+    account_id       INTEGER,
+    card_id          INTEGER,
+    recipient_id     INTEGER,
+
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id)
+        REFERENCES categories (id) ON DELETE CASCADE,
+
+    CONSTRAINT fk_account FOREIGN KEY (account_id)
+        REFERENCES accounts (id) ON DELETE CASCADE,
+
+    CONSTRAINT fk_recipient_account FOREIGN KEY (recipient_id)
+        REFERENCES accounts (id) ON DELETE SET NULL,
+
+    CONSTRAINT FK_TRANSACTIONS_ON_CARD FOREIGN KEY (card_id)
+        REFERENCES cards (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS bills
+(
+    id           INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    card_id      INTEGER,
+    account_id   INTEGER,
+    start_date   DATE                                     NOT NULL,
+    end_date     DATE                                     NOT NULL,
+    due_date     DATE                                     NOT NULL,
+    total_amount BIGINT                                   NOT NULL,
+    status       VARCHAR(255),
+    CONSTRAINT pk_bills PRIMARY KEY (id),
+    CONSTRAINT FK_BILLS_ON_ACCOUNT FOREIGN KEY (account_id) REFERENCES accounts (id) ON DELETE CASCADE,
+    CONSTRAINT FK_BILLS_ON_CARD FOREIGN KEY (card_id) REFERENCES cards (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS subscriptions
+(
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    description VARCHAR(255)                             NOT NULL,
+    price       BIGINT                                   NOT NULL,
+    interval    VARCHAR(20)                              NOT NULL,
+    status      VARCHAR(20),
+    account_id  INTEGER,
+    card_id     INTEGER,
+    CONSTRAINT pk_subscriptions PRIMARY KEY (id),
+    CONSTRAINT FK_SUBSCRIPTIONS_ON_ACCOUNT FOREIGN KEY (account_id) REFERENCES accounts (id) ON DELETE CASCADE,
+    CONSTRAINT FK_SUBSCRIPTIONS_ON_CARD FOREIGN KEY (card_id) REFERENCES cards (id) ON DELETE CASCADE
+);
+
+-- Subscription items have no transaction.
+CREATE TABLE IF NOT EXISTS bill_items
+(
+    id                 INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    bill_id            INTEGER                                  NOT NULL,
+    transaction_id     INTEGER,
+    subscription_id    INTEGER,
+    amount             BIGINT                                   NOT NULL,
+    installment_number INTEGER                                  NOT NULL,
+    CONSTRAINT pk_bill_items PRIMARY KEY (id),
+    CONSTRAINT FK_BILL_ITEMS_ON_BILL FOREIGN KEY (bill_id) REFERENCES bills (id) ON DELETE CASCADE,
+    CONSTRAINT FK_BILL_ITEMS_ON_TRANSACTION FOREIGN KEY (transaction_id) REFERENCES transactions (id) ON DELETE CASCADE,
+    CONSTRAINT FK_BILL_ITEMS_ON_SUBSCRIPTION FOREIGN KEY (subscription_id) REFERENCES subscriptions (id)
+        ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS rate_limit_counters
+(
+    bucket_key   VARCHAR(100) NOT NULL,
+    window_start BIGINT       NOT NULL,
+    consumed     BIGINT       NOT NULL,
+    CONSTRAINT pk_rate_limit_counters PRIMARY KEY (bucket_key)
+);
+
+CREATE TABLE IF NOT EXISTS token_revocations
+(
+    user_id        UUID   NOT NULL,
+    revoked_before BIGINT NOT NULL,
+    CONSTRAINT pk_token_revocations PRIMARY KEY (user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_email_pattern ON users (email varchar_pattern_ops);
+
+CREATE TABLE IF NOT EXISTS user_deletion_jobs
+(
+    id           UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id      UUID        NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    phase        VARCHAR(20),
+    deleted_rows BIGINT      NOT NULL DEFAULT 0,
+    error        VARCHAR(255),
+    created_at   TIMESTAMP   NOT NULL,
+    updated_at   TIMESTAMP   NOT NULL,
+    locked_until TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_deletion_jobs_status ON user_deletion_jobs (status);
+
+CREATE TABLE IF NOT EXISTS transaction_import_jobs
+(
+    id             UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id        UUID        NOT NULL,
+    account_id     INTEGER     NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    format         VARCHAR(10) NOT NULL,
+    file_name      VARCHAR(255),
+    status         VARCHAR(20) NOT NULL,
+    total_bytes    BIGINT      NOT NULL DEFAULT 0,
+    bytes_read     BIGINT      NOT NULL DEFAULT 0,
+    processed_rows BIGINT      NOT NULL DEFAULT 0,
+    imported_rows  BIGINT      NOT NULL DEFAULT 0,
+    rejected_rows  BIGINT      NOT NULL DEFAULT 0,
+    error          VARCHAR(255),
+    created_at     TIMESTAMP   NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL
+);
+
+ALTER TABLE transaction_import_jobs
+    ADD COLUMN IF NOT EXISTS skipped_rows BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_import_jobs_user_id ON transaction_import_jobs (user_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_import_jobs_status ON transaction_import_jobs (status);
+
+CREATE TABLE IF NOT EXISTS transaction_import_rejections
+(
+    id         BIGSERIAL PRIMARY KEY,
+    job_id     UUID         NOT NULL REFERENCES transaction_import_jobs (id) ON DELETE CASCADE,
+    row_number BIGINT       NOT NULL,
+    reason     VARCHAR(255) NOT NULL,
+    content    VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_import_rejections_job_id ON transaction_import_rejections (job_id, row_number);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    id              VARCHAR(300) PRIMARY KEY,
+    user_id         UUID        NOT NULL,
+    fingerprint     VARCHAR(64) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    response_status INTEGER,
+    content_type    VARCHAR(100),
+    location        VARCHAR(255),
+    response_body   BYTEA,
+    created_at      TIMESTAMP   NOT NULL,
+    expires_at      TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+ALTER TABLE transactions
+    ADD COLUMN IF NOT EXISTS paid_bill_id       INTEGER REFERENCES bills (id) ON DELETE SET NULL,
+    ADD COLUMN IF NOT EXISTS bill_status        VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS fingerprint        VARCHAR(32),
+    ADD COLUMN IF NOT EXISTS possible_duplicate BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_paid_bill_id ON transactions (paid_bill_id) WHERE paid_bill_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_transactions_account_id_fingerprint ON transactions (account_id, fingerprint)
+    WHERE fingerprint IS NOT NULL;
+
+-- Bill items of transactions created before the outbox were written synchronously.
+UPDATE transactions SET bill_status = 'APPLIED' WHERE add_to_bill = TRUE AND bill_status IS NULL;
+
+CREATE TABLE IF NOT EXISTS bill_outbox
+(
+    id             BIGSERIAL PRIMARY KEY,
+    transaction_id INTEGER     NOT NULL REFERENCES transactions (id) ON DELETE CASCADE,
+    account_id     INTEGER     NOT NULL,
+    status         VARCHAR(20) NOT NULL,
+    attempts       INTEGER     NOT NULL DEFAULT 0,
+    error          VARCHAR(255),
+    created_at     TIMESTAMP   NOT NULL,
+    available_at   TIMESTAMP   NOT NULL,
+    locked_until   TIMESTAMP,
+    processed_at   TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_bill_outbox_active ON bill_outbox (account_id, id) WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX IF NOT EXISTS idx_bill_outbox_transaction_id ON bill_outbox (transaction_id);
+
+CREATE TABLE IF NOT EXISTS categorization_rules
+(
+    id          SERIAL PRIMARY KEY,
+    user_id     UUID REFERENCES users (id) ON DELETE CASCADE,
+    category_id INTEGER   NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    match_type  VARCHAR(20),
+    pattern     VARCHAR(200),
+    min_amount  DOUBLE PRECISION,
+    max_amount  DOUBLE PRECISION,
+    account_id  INTEGER REFERENCES accounts (id) ON DELETE CASCADE,
+    priority    INTEGER   NOT NULL DEFAULT 0,
+    created_at  TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_categorization_rules_user_id ON categorization_rules (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_accounts_user_id ON accounts (user_id);
+CREATE INDEX IF NOT EXISTS idx_transactions_account_id_transaction_date ON transactions (account_id, transaction_date, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_account_id_amount ON transactions (account_id, amount, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_category_id ON transactions (category_id);
+
+CREATE TABLE IF NOT EXISTS recurring_transactions
+(
+    id               SERIAL PRIMARY KEY,
+    user_id          UUID        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    description      VARCHAR(255) NOT NULL,
+    amount           BIGINT      NOT NULL CHECK (amount > 0),
+    transaction_type VARCHAR(20) NOT NULL,
+    add_to_bill      BOOLEAN     NOT NULL DEFAULT FALSE,
+    category_id      INTEGER     NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    account_id       INTEGER     NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    recipient_id     INTEGER REFERENCES accounts (id) ON DELETE CASCADE,
+    frequency        VARCHAR(20) NOT NULL,
+    interval_count   INTEGER     NOT NULL DEFAULT 1 CHECK (interval_count > 0),
+    start_date       DATE        NOT NULL,
+    end_date         DATE,
+    next_date        DATE,
+    occurrences      INTEGER     NOT NULL DEFAULT 0,
+    status           VARCHAR(20) NOT NULL,
+    attempts         INTEGER     NOT NULL DEFAULT 0,
+    last_error       VARCHAR(255),
+    locked_until     TIMESTAMP,
+    created_at       TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_recurring_transactions_due ON recurring_transactions (next_date, id) WHERE status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_recurring_transactions_user_id ON recurring_transactions (user_id);
+
+-- Hibernate may have created the ledger tables already, without their constraints.
+CREATE TABLE IF NOT EXISTS ledger_entries
+(
+    id                      BIGSERIAL PRIMARY KEY,
+    account_id              INTEGER     NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    seq                     BIGINT      NOT NULL,
+    amount                  BIGINT      NOT NULL,
+    entry_type              VARCHAR(20) NOT NULL,
+    transaction_id          INTEGER,
+    counterparty_account_id INTEGER,
+    created_at              TIMESTAMP   NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_ledger_entries_account_seq ON ledger_entries (account_id, seq);
+CREATE INDEX IF NOT EXISTS idx_ledger_entries_transaction_id ON ledger_entries (transaction_id)
+    WHERE transaction_id IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS account_balance_snapshots
+(
+    id         BIGSERIAL PRIMARY KEY,
+    account_id INTEGER   NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    seq        BIGINT    NOT NULL,
+    balance    BIGINT    NOT NULL,
+    as_of      TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_account_balance_snapshots_account_seq ON account_balance_snapshots (account_id, seq);
+CREATE INDEX IF NOT EXISTS idx_account_balance_snapshots_account_as_of ON account_balance_snapshots (account_id, as_of);
+
+-- Entries are never changed: corrections are new entries. Deleting an account still removes its entries.
+CREATE OR REPLACE FUNCTION ledger_entries_append_only() RETURNS TRIGGER AS
+$$
+BEGIN
+    RAISE EXCEPTION 'ledger_entries is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_ledger_entries_append_only ON ledger_entries;
+
+CREATE TRIGGER trg_ledger_entries_append_only
+    BEFORE UPDATE
+    ON ledger_entries
+    FOR EACH ROW
+EXECUTE FUNCTION ledger_entries_append_only();
+
+-- Existing balances become the opening entry and first snapshot of each account that has no entries yet.
+INSERT INTO ledger_entries (account_id, seq, amount, entry_type, created_at)
+SELECT a.id, 1, a.balance, 'OPENING', LOCALTIMESTAMP
+FROM accounts a
+WHERE NOT EXISTS (SELECT 1 FROM ledger_entries l WHERE l.account_id = a.id);
+
+INSERT INTO account_balance_snapshots (account_id, seq, balance, as_of)
+SELECT l.account_id, l.seq, l.amount, l.created_at
+FROM ledger_entries l
+WHERE l.seq = 1
+  AND l.entry_type = 'OPENING'
+ON CONFLICT (account_id, seq) DO NOTHING;
+
+UPDATE accounts a
+SET ledger_seq = (SELECT COALESCE(MAX(l.seq), 0) FROM ledger_entries l WHERE l.account_id = a.id);
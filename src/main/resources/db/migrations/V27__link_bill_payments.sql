@@ -0,0 +1,21 @@
+-- Links bill payments recorded before transactions.paid_bill_id existed. Those rows are only identified by their
+-- "Payment of the bill: M/YYYY" description; each one gets the paid bill of that month from the same user, preferring
+-- a bill of the paying account. Rows that cannot be resolved are left unlinked.
+UPDATE transactions t
+SET paid_bill_id = m.bill_id
+FROM (SELECT c.id,
+             (SELECT b.id
+              FROM bills b
+                       JOIN accounts ba ON ba.id = b.account_id
+                       JOIN accounts ca ON ca.id = c.account_id
+              WHERE ba.user_id = ca.user_id
+                AND b.status = 'PAID'
+                AND EXTRACT(MONTH FROM b.start_date) = CAST(SUBSTRING(c.description FROM '(\d{1,2})/\d{4}$') AS INTEGER)
+                AND EXTRACT(YEAR FROM b.start_date) = CAST(SUBSTRING(c.description FROM '\d{1,2}/(\d{4})$') AS INTEGER)
+              ORDER BY (b.account_id = c.account_id) DESC, b.id
+              LIMIT 1) AS bill_id
+      FROM transactions c
+      WHERE c.paid_bill_id IS NULL
+        AND c.description LIKE 'Payment of the bill: %') m
+WHERE t.id = m.id
+  AND m.bill_id IS NOT NULL;
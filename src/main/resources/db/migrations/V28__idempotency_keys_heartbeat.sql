@@ -0,0 +1,10 @@
+-- Running executions refresh heartbeat_at; a claim is only taken over once its heartbeat is stale.
+ALTER TABLE idempotency_keys
+    ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
+
+UPDATE idempotency_keys
+SET heartbeat_at = created_at
+WHERE heartbeat_at IS NULL;
+
+ALTER TABLE idempotency_keys
+    ALTER COLUMN heartbeat_at SET NOT NULL;
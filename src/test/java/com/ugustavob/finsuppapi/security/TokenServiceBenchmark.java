@@ -0,0 +1,82 @@
+package com.ugustavob.finsuppapi.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.ugustavob.finsuppapi.entities.user.UserEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification latency of a bearer token: building the verifier on every call (as before the cache), a cache miss
+ * (digest, HMAC check, claim decoding and cache insert, plus the eviction that forces the miss) and a cache hit
+ * (digest and lookup).
+ * <p>
+ * Run with {@code mvn test-compile} and then this class's {@code main}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main TokenServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+    private static final String SECRET = "benchmark-secret";
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(tokenService, "cacheTtl", Duration.ofHours(1));
+        tokenService.init();
+
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail("benchmark@finsupp.dev");
+        user.setRole(Set.of("ROLE_USER"));
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT verifierPerCall() {
+        return JWT.require(Algorithm.HMAC256(SECRET)).withIssuer("auth0").build().verify(token);
+    }
+
+    @Benchmark
+    public TokenPrincipal cacheMiss() {
+        tokenService.evictToken(token);
+        return tokenService.decodeToken(token);
+    }
+
+    @Benchmark
+    public TokenPrincipal cacheHit() {
+        return tokenService.decodeToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
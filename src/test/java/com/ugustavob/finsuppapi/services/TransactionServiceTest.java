@@ -0,0 +1,121 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.dto.transactions.CreateTransactionRequestDTO;
+import com.ugustavob.finsuppapi.entities.account.AccountEntity;
+import com.ugustavob.finsuppapi.entities.categories.CategoryEntity;
+import com.ugustavob.finsuppapi.entities.ledger.LedgerEntryType;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionEntity;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import com.ugustavob.finsuppapi.exception.AccountNotFoundException;
+import com.ugustavob.finsuppapi.repositories.AccountRepository;
+import com.ugustavob.finsuppapi.repositories.CategoryRepository;
+import com.ugustavob.finsuppapi.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the repository calls of a transaction create: the accounts and their ownership are resolved with one query,
+ * the category comes from the cache, and the only other statements are the insert and the ledger posting.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private CategoryCache categoryCache;
+    @Mock
+    private BillService billService;
+    @Mock
+    private BillOutboxService billOutboxService;
+    @Mock
+    private CategorizationService categorizationService;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private BaseService baseService;
+    @Mock
+    private TransferEngine transferEngine;
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(transactionRepository, accountRepository, categoryRepository,
+                billService, billOutboxService, categorizationService, baseService, transferEngine, ledgerService,
+                transactionTemplate, new TransactionValidator(accountRepository, categoryCache),
+                namedParameterJdbcTemplate);
+        when(categorizationService.categorize(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void createResolvesEntitiesWithOneQuery() {
+        when(accountRepository.findTransactionAccountIds(1, null, USER_ID)).thenReturn(List.of(1));
+        when(accountRepository.getReferenceById(1)).thenReturn(account(1));
+        when(categoryCache.findById(4)).thenReturn(Optional.of(new CategoryEntity(4, "Food")));
+        when(transactionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionEntity transaction = transactionService.createTransaction(request(1, null), USER_ID);
+
+        assertEquals(4, transaction.getCategory().getId());
+        verify(accountRepository).findTransactionAccountIds(1, null, USER_ID);
+        verify(accountRepository).getReferenceById(1);
+        verify(transactionRepository).save(transaction);
+        verify(ledgerService).debit(1, 2_500L, LedgerEntryType.WITHDRAW, null, null);
+        verifyNoMoreInteractions(accountRepository, transactionRepository, ledgerService);
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void createRejectsAccountOfAnotherUser() {
+        when(accountRepository.findTransactionAccountIds(2, null, USER_ID)).thenReturn(List.of());
+
+        assertThrows(AccountNotFoundException.class,
+                () -> transactionService.createTransaction(request(2, null), USER_ID));
+
+        verify(accountRepository, never()).getReferenceById(any());
+        verifyNoInteractions(transactionRepository, ledgerService);
+    }
+
+    private static CreateTransactionRequestDTO request(Integer accountId, Integer recipientAccountId) {
+        return new CreateTransactionRequestDTO("Lunch", 25.0, LocalDate.of(2025, 4, 9), TransactionType.WITHDRAW,
+                false, null, 4, accountId, recipientAccountId);
+    }
+
+    private static AccountEntity account(Integer id) {
+        AccountEntity account = new AccountEntity();
+        account.setId(id);
+        return account;
+    }
+}
@@ -0,0 +1,227 @@
+package com.ugustavob.finsuppapi.services;
+
+import com.ugustavob.finsuppapi.repositories.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the engine against an in-memory stand-in for the database: {@code lockInIdOrder} takes row locks in id order
+ * and holds them until the transaction ends, and a lock that cannot be taken in time fails the transaction with a
+ * {@link ConcurrencyFailureException}, as a deadlock or lock timeout does in PostgreSQL.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferEngineTest {
+    private static final int ACCOUNT_A = 1;
+    private static final int ACCOUNT_B = 2;
+    private static final long INITIAL_BALANCE = 1_000_000;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final Rows rows = new Rows();
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final long[] balances = new long[3];
+
+    private TransferEngine transferEngine;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                transactions.incrementAndGet();
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    rows.releaseAll();
+                }
+            }
+        };
+
+        transferEngine = new TransferEngine(accountRepository, transactionTemplate);
+        ReflectionTestUtils.setField(transferEngine, "lockMode", "database");
+        ReflectionTestUtils.setField(transferEngine, "lockStripes", 16);
+        ReflectionTestUtils.setField(transferEngine, "maxAttempts", 5);
+        ReflectionTestUtils.setField(transferEngine, "backoffMs", 1L);
+        transferEngine.init();
+
+        balances[ACCOUNT_A] = INITIAL_BALANCE;
+        balances[ACCOUNT_B] = INITIAL_BALANCE;
+    }
+
+    @Test
+    void opposingTransfersWithDatabaseLocksConserveMoney() throws Exception {
+        when(accountRepository.lockInIdOrder(anyList())).thenAnswer(invocation -> rows.lock(invocation.getArgument(0)));
+
+        runOpposingTransfers(true);
+
+        assertEquals(INITIAL_BALANCE, balances[ACCOUNT_A]);
+        assertEquals(INITIAL_BALANCE, balances[ACCOUNT_B]);
+        assertTrue(rows.isFree());
+    }
+
+    @Test
+    void opposingTransfersWithLocalLocksConserveMoney() throws Exception {
+        ReflectionTestUtils.setField(transferEngine, "lockMode", "local");
+        transferEngine.init();
+
+        runOpposingTransfers(false);
+
+        assertEquals(INITIAL_BALANCE, balances[ACCOUNT_A]);
+        assertEquals(INITIAL_BALANCE, balances[ACCOUNT_B]);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void retriesConcurrencyFailuresInFreshTransactions() {
+        when(accountRepository.lockInIdOrder(anyList())).thenAnswer(invocation -> rows.lock(invocation.getArgument(0)));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = transferEngine.execute(ACCOUNT_A, ACCOUNT_B, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("deadlock detected");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, transactions.get());
+        assertTrue(rows.isFree());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(accountRepository.lockInIdOrder(anyList())).thenAnswer(invocation -> rows.lock(invocation.getArgument(0)));
+
+        assertThrows(ConcurrencyFailureException.class, () -> transferEngine.execute(ACCOUNT_A, ACCOUNT_B, () -> {
+            throw new CannotAcquireLockException("deadlock detected");
+        }));
+
+        assertEquals(5, transactions.get());
+        assertTrue(rows.isFree());
+    }
+
+    @Test
+    void makesASingleAttemptInsideAnActiveTransaction() {
+        when(accountRepository.lockInIdOrder(anyList())).thenAnswer(invocation -> rows.lock(invocation.getArgument(0)));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        try {
+            assertThrows(ConcurrencyFailureException.class, () -> transferEngine.execute(ACCOUNT_A, ACCOUNT_B, () -> {
+                throw new CannotAcquireLockException("deadlock detected");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, transactions.get());
+    }
+
+    /**
+     * Half of the threads move money from A to B and the other half from B to A, one unit at a time and with the same
+     * number of transfers, so both balances end where they started unless an update is lost. Every transfer must
+     * complete in time: a deadlock would leave the futures hanging, and a lock failure that escapes the retries would
+     * fail them.
+     */
+    private void runOpposingTransfers(boolean checkRowLocks) throws Exception {
+        int threads = 8;
+        int transfersPerThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int from = t % 2 == 0 ? ACCOUNT_A : ACCOUNT_B;
+            int to = from == ACCOUNT_A ? ACCOUNT_B : ACCOUNT_A;
+
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < transfersPerThread; i++) {
+                    transferEngine.execute(from, to, () -> {
+                        if (checkRowLocks && !(rows.isHeld(from) && rows.isHeld(to))) {
+                            throw new IllegalStateException("Transfer ran without both row locks");
+                        }
+
+                        long fromBalance = balances[from];
+                        Thread.yield();
+                        balances[from] = fromBalance - 1;
+                        balances[to] += 1;
+                        return null;
+                    });
+                }
+            }));
+        }
+
+        executor.shutdown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Row locks as {@code SELECT ... ORDER BY id FOR UPDATE} takes them: in id order, held by the transaction's
+     * thread until it ends.
+     */
+    private static final class Rows {
+        private static final long LOCK_TIMEOUT_MS = 1_000;
+
+        private final Map<Integer, ReentrantLock> locks = new ConcurrentHashMap<>();
+        private final ThreadLocal<List<ReentrantLock>> held = ThreadLocal.withInitial(ArrayList::new);
+
+        List<Integer> lock(List<Integer> ids) throws InterruptedException {
+            List<Integer> ordered = ids.stream().sorted().distinct().toList();
+
+            for (Integer id : ordered) {
+                ReentrantLock lock = locks.computeIfAbsent(id, key -> new ReentrantLock());
+                if (!lock.tryLock(LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    throw new CannotAcquireLockException("Lock timeout on account " + id);
+                }
+                held.get().add(lock);
+            }
+            return ordered;
+        }
+
+        boolean isHeld(Integer id) {
+            ReentrantLock lock = locks.get(id);
+            return lock != null && lock.isHeldByCurrentThread();
+        }
+
+        boolean isFree() {
+            return locks.values().stream().noneMatch(ReentrantLock::isLocked);
+        }
+
+        void releaseAll() {
+            held.get().forEach(ReentrantLock::unlock);
+            held.get().clear();
+        }
+    }
+}
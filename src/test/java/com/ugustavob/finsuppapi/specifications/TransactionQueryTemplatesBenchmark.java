@@ -0,0 +1,69 @@
+package com.ugustavob.finsuppapi.specifications;
+
+import com.ugustavob.finsuppapi.dto.transactions.TransactionFilterDTO;
+import com.ugustavob.finsuppapi.dto.transactions.TransactionSortKey;
+import com.ugustavob.finsuppapi.entities.transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a search filter into SQL and bind values: with the template cache warm, and with the cache cleared
+ * before every call so the template is built each time. The filter sets most of the filters, so the uncached build
+ * appends most of the conditions.
+ * <p>
+ * Run with {@code mvn test-compile} and then this class's {@code main}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main TransactionQueryTemplatesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionQueryTemplatesBenchmark {
+    private TransactionFilterDTO filter;
+    private Map<?, ?> templates;
+
+    @Setup
+    public void setUp() {
+        filter = new TransactionFilterDTO(UUID.randomUUID(), List.of(1, 2), "Market", null,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), 10.0, 500.0, TransactionType.WITHDRAW,
+                List.of(3, 4), null, TransactionSortKey.AMOUNT, Sort.Direction.ASC);
+        templates = (Map<?, ?>) ReflectionTestUtils.getField(TransactionQueryTemplates.class, "TEMPLATES");
+    }
+
+    @Benchmark
+    public TransactionQueryTemplates.Query cachedTemplate() {
+        return TransactionQueryTemplates.compile(filter);
+    }
+
+    @Benchmark
+    public TransactionQueryTemplates.Query templateBuiltEveryTime() {
+        templates.clear();
+        return TransactionQueryTemplates.compile(filter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionQueryTemplatesBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
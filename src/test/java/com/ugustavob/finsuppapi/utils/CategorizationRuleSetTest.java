@@ -0,0 +1,46 @@
+package com.ugustavob.finsuppapi.utils;
+
+import com.ugustavob.finsuppapi.entities.categories.CategorizationMatchType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategorizationRuleSetTest {
+
+    @Test
+    void checkRegexRejectsNestedQuantifiersAndBackreferences() {
+        for (String regex : List.of("(a+)+$", "(a*)*", "((ab)+c)*", "(x{2,})*", "(a)\\1", "(?<n>a)\\k<n>")) {
+            assertThrows(IllegalArgumentException.class, () -> CategorizationRuleSet.checkRegex(regex), regex);
+        }
+        assertThrows(PatternSyntaxException.class, () -> CategorizationRuleSet.checkRegex("(uber"));
+    }
+
+    @Test
+    void checkRegexAcceptsCommonPatterns() {
+        for (String regex : List.of("^pix .*", "(?:netflix|spotify)\\s+\\w+", "\\d{3}-\\d+", "(ab|cd)+", "[(a+)]+",
+                "\\Q(a+)+\\E", "\\p{L}+", "(x{2})*")) {
+            assertDoesNotThrow(() -> CategorizationRuleSet.checkRegex(regex), regex);
+        }
+    }
+
+    @Test
+    void catastrophicRegexStoredEarlierStopsAtTheStepBudget() {
+        CategorizationRuleSet rules = CategorizationRuleSet.compile(List.of(
+                regexRule(1, "(a+)+$"),
+                regexRule(2, "net.*x")
+        ));
+
+        assertFalse(rules.match("a".repeat(40) + "!", 10, null).isPresent());
+        assertTrue(rules.match("Netflix monthly", 10, null).isPresent());
+    }
+
+    private static CategorizationRuleSet.Rule regexRule(long id, String pattern) {
+        return new CategorizationRuleSet.Rule(id, 1, CategorizationMatchType.REGEX, pattern, null, null, null, 0, false);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ugustavob.finsuppapi.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the money representation over a batch of request amounts: converting decimal amounts to cents (through
+ * {@code BigDecimal}, as before, and with {@link Money#ofDecimal}), and summing them (boxed {@code Double}s, as the
+ * entities held before, primitive cents, and {@link Money} values).
+ * <p>
+ * Run with {@code mvn test-compile} and then this class's {@code main}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main MoneyBenchmark}. Add {@code -prof gc} to see the allocation
+ * rate of each variant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final int SIZE = 1_000;
+
+    private double[] amounts;
+    private List<Double> boxedAmounts;
+    private long[] cents;
+    private Money[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        amounts = new double[SIZE];
+        boxedAmounts = new ArrayList<>(SIZE);
+        cents = new long[SIZE];
+        values = new Money[SIZE];
+
+        for (int i = 0; i < SIZE; i++) {
+            amounts[i] = random.nextInt(10_000_000) / 100.0;
+            boxedAmounts.add(amounts[i]);
+            cents[i] = Money.ofDecimal(amounts[i]);
+            values[i] = Money.ofCents(cents[i]);
+        }
+    }
+
+    @Benchmark
+    public void convertWithBigDecimal(Blackhole blackhole) {
+        for (double amount : amounts) {
+            blackhole.consume(BigDecimal.valueOf(amount).setScale(Money.SCALE, RoundingMode.HALF_UP).unscaledValue()
+                    .longValueExact());
+        }
+    }
+
+    @Benchmark
+    public void convertWithMoney(Blackhole blackhole) {
+        for (double amount : amounts) {
+            blackhole.consume(Money.ofDecimal(amount));
+        }
+    }
+
+    @Benchmark
+    public double sumBoxedDoubles() {
+        Double total = 0.0;
+        for (Double amount : boxedAmounts) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long total = 0;
+        for (long amount : cents) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        Money total = Money.ZERO;
+        for (Money amount : values) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MoneyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
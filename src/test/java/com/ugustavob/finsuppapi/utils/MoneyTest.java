@@ -0,0 +1,82 @@
+package com.ugustavob.finsuppapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @Test
+    void installmentsAddUpToTheTotalWithTheRemainderOnTheLast() {
+        long total = 10_000;
+        long sum = 0;
+
+        for (int number = 1; number <= 3; number++) {
+            long installment = Money.installment(total, 3, number);
+            assertEquals(number < 3 ? 3_333 : 3_334, installment);
+            sum += installment;
+        }
+
+        assertEquals(total, sum);
+    }
+
+    @Test
+    void installmentOfSingleInstallmentIsTheTotal() {
+        assertEquals(1_999, Money.installment(1_999, 1, 1));
+    }
+
+    @Test
+    void installmentRejectsNumberOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> Money.installment(100, 2, 3));
+    }
+
+    @Test
+    void convertsDecimalAmountsToCentsAndBack() {
+        assertEquals(1_234, Money.ofDecimal(12.34));
+        assertEquals(29, Money.ofDecimal(0.29));
+        assertEquals(101, Money.ofDecimal(1.005));
+        assertEquals(-550, Money.ofDecimal(-5.5));
+        assertEquals(12.34, Money.toDecimal(1_234));
+    }
+
+    @Test
+    void convertsLikeBigDecimalHalfUp() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 200_000; i++) {
+            double amount = i % 2 == 0
+                    ? random.nextInt(100_000_000) / Math.pow(10, random.nextInt(5)) * (random.nextBoolean() ? 1 : -1)
+                    : (random.nextDouble() - 0.5) * 1_000_000;
+
+            long expected = BigDecimal.valueOf(amount).setScale(Money.SCALE, RoundingMode.HALF_UP).unscaledValue()
+                    .longValueExact();
+            assertEquals(expected, Money.ofDecimal(amount), "amount " + amount);
+        }
+    }
+
+    @Test
+    void rejectsAmountsThatAreNotFiniteOrTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> Money.ofDecimal(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofDecimal(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofDecimal(1e15));
+    }
+
+    @Test
+    void valueTypeAddsSplitsAndFormatsCents() {
+        Money total = Money.of(10.0).plus(Money.ofCents(5)).minus(Money.ofCents(10));
+
+        assertEquals(995, total.cents());
+        assertEquals(Money.ofCents(331), total.installment(3, 1));
+        assertEquals(Money.ofCents(333), total.installment(3, 3));
+        assertEquals("9.95", total.toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertTrue(total.negate().isNegative());
+        assertTrue(total.compareTo(Money.ZERO) > 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ugustavob.finsuppapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLockTest {
+
+    @Test
+    void opposingTransfersConserveTotalBalance() throws Exception {
+        int accounts = 8;
+        int threads = 16;
+        int transfersPerThread = 20_000;
+        long[] balances = new long[accounts];
+        Arrays.fill(balances, 1_000_000);
+        long expectedTotal = 1_000_000L * accounts;
+
+        StripedLock lock = new StripedLock(4);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < transfersPerThread; i++) {
+                    int from = random.nextInt(accounts);
+                    int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+                    long amount = 1 + random.nextInt(100);
+
+                    lock.withLocks(from, to, () -> {
+                        if (balances[from] >= amount) {
+                            balances[from] -= amount;
+                            balances[to] += amount;
+                        }
+                        return null;
+                    });
+                }
+            }));
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "transfers did not finish, possible deadlock");
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        long total = 0;
+        for (long balance : balances) {
+            assertTrue(balance >= 0);
+            total += balance;
+        }
+        assertEquals(expectedTotal, total);
+    }
+}
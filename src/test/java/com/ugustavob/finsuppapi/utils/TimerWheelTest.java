@@ -0,0 +1,93 @@
+package com.ugustavob.finsuppapi.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimerWheelTest {
+
+    @Test
+    void expiresEveryTimerAtTheSameAdvanceAsABruteForceOracle() {
+        // Deadlines reach up to three times the range the wheels cover, so the overflow list is exercised as well.
+        for (int levels = 1; levels <= 3; levels++) {
+            for (long seed = 1; seed <= 4; seed++) {
+                compareWithOracle(levels, 7, seed);
+            }
+        }
+    }
+
+    @Test
+    void pastDeadlineExpiresOnTheNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(1_000, 3, 10_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule(5_000, "late");
+        wheel.advance(10_999, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.advance(11_000, expired::add);
+        assertEquals(List.of("late"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<>(0, 3, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<>(1_000, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<>(1_000, 11, 0));
+    }
+
+    private static void compareWithOracle(int levels, long tickMillis, long seed) {
+        Random random = new Random(seed);
+        long span = tickMillis << 6 * levels;
+        long now = 1_000_000 + random.nextInt(1_000);
+
+        TimerWheel<Integer> wheel = new TimerWheel<>(tickMillis, levels, now);
+        PriorityQueue<long[]> pending = new PriorityQueue<>(Comparator.comparingLong((long[] timer) -> timer[0]));
+        long currentTick = now / tickMillis;
+        int nextId = 0;
+
+        for (int step = 0; step < 10_000; step++) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                long deadline = switch (random.nextInt(4)) {
+                    case 0 -> now - random.nextInt(100);
+                    case 1 -> now + random.nextInt(64 * (int) tickMillis);
+                    case 2 -> now + (long) (random.nextDouble() * span);
+                    default -> now + (long) (random.nextDouble() * span * 3);
+                };
+
+                wheel.schedule(deadline, nextId);
+                pending.add(new long[]{Math.max(-Math.floorDiv(-deadline, tickMillis), currentTick + 1), nextId});
+                nextId++;
+            }
+
+            now += switch (random.nextInt(50)) {
+                case 0 -> (long) (random.nextDouble() * span);
+                case 1 -> 0;
+                default -> random.nextInt(3 * (int) tickMillis);
+            };
+
+            long targetTick = now / tickMillis;
+            List<Integer> expected = new ArrayList<>();
+            while (!pending.isEmpty() && pending.peek()[0] <= targetTick) {
+                expected.add((int) pending.poll()[1]);
+            }
+            currentTick = Math.max(currentTick, targetTick);
+
+            List<Integer> actual = new ArrayList<>();
+            wheel.advance(now, actual::add);
+
+            expected.sort(null);
+            actual.sort(null);
+            assertEquals(expected, actual, "levels " + levels + ", seed " + seed + ", step " + step);
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+}